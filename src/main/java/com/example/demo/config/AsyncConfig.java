@@ -22,23 +22,40 @@ public class AsyncConfig {
         return executor;
     }
 
-    @Bean(name = "notificationExecutor")
-    public Executor notificationExecutor() {
+    // Shared by the 5 sections of every manager dashboard and the 4 @Async sections of every volunteer one:
+    // the core threads build two dashboards side by side, bursts grow the pool once the queue fills, and
+    // sections still queued when dashboard.section-timeout-ms runs out fail the request
+    @Bean(name = "dashboardExecutor")
+    public Executor dashboardExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);   // notification ít khi đòi nhiều
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(500);
-        executor.setThreadNamePrefix("notify-");
+        executor.setCorePoolSize(10);
+        executor.setMaxPoolSize(20);
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("dashboard-");
         executor.initialize();
         return executor;
     }
-    @Bean(name = "dashboardExecutor")
-    public Executor dashboardExecutor() {
+
+    // Background recomputation of stale cache entries; a full queue just means the stale value is served longer
+    @Bean(name = "cacheRefreshExecutor")
+    public Executor cacheRefreshExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);     // 4 tasks song song + buffer
-        executor.setMaxPoolSize(10);
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
         executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("dashboard-");
+        executor.setThreadNamePrefix("cache-refresh-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Export job parts; the pool size bounds how many id ranges are read and compressed at once
+    @Bean(name = "exportExecutor")
+    public Executor exportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("export-");
         executor.initialize();
         return executor;
     }
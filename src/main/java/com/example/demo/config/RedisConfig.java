@@ -1,28 +1,53 @@
 package com.example.demo.config;
 
+import com.example.demo.config.cache.CacheInvalidationBus;
+import com.example.demo.config.cache.CompressingRedisSerializer;
+import com.example.demo.config.cache.MeteredRedisSerializer;
+import com.example.demo.config.cache.StaleWhileRevalidateCache;
+import com.example.demo.config.cache.TieredCacheManager;
+import com.example.demo.config.cache.TwoTierCache;
+import com.example.demo.config.cache.TwoTierCacheMetrics;
+import com.example.demo.config.cache.TypedJsonRedisSerializer;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.NoOpCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 @Configuration
-@EnableCaching
+// Outside the transaction interceptor, so a background cache refresh opens its own transaction
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
 public class RedisConfig {
 
     // DON'T name it "objectMapper" - that would override Spring's default!
@@ -48,6 +73,17 @@ public class RedisConfig {
         return mapper;
     }
 
+    // Cache values with the root type in a descriptor (see TypedJsonRedisSerializer): no default typing, and
+    // unknown properties are ignored so entries written by an older DTO version still read
+    private ObjectMapper createTypedCacheObjectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        mapper.findAndRegisterModules();
+        return mapper;
+    }
+
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
@@ -68,44 +104,112 @@ public class RedisConfig {
         return template;
     }
 
+    // Only when caching through Redis; with cache.mode=local the near caches are the only tier
+    @Bean
+    @ConditionalOnProperty(name = "cache.mode", havingValue = "redis", matchIfMissing = true)
+    public CacheInvalidationBus cacheInvalidationBus(RedisConnectionFactory connectionFactory,
+                                                     @Value("${cache.near.channel:cache-invalidation}") String channel) {
+        return new CacheInvalidationBus(new StringRedisTemplate(connectionFactory), channel);
+    }
+
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    @ConditionalOnProperty(name = "cache.mode", havingValue = "redis", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                           CacheInvalidationBus cacheInvalidationBus) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheInvalidationBus, new ChannelTopic(cacheInvalidationBus.getChannel()));
+        return container;
+    }
+
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     ObjectProvider<CacheInvalidationBus> cacheInvalidationBus,
+                                     @Qualifier("cacheRefreshExecutor") Executor cacheRefreshExecutor,
+                                     @Value("${cache.near.max-entries:10000}") int nearMaxEntries,
+                                     @Value("${cache.lock-ttl-ms:10000}") long lockTtlMs,
+                                     @Value("${cache.early-expiration-beta:1.0}") double earlyExpirationBeta,
+                                     @Value("${cache.codec:typed}") String codec,
+                                     @Value("${cache.codec.compression-threshold-bytes:1024}") int compressionThresholdBytes,
+                                     MeterRegistry meterRegistry) {
+        Duration defaultTtl = Duration.ofHours(1); // Default TTL: 1 hour
+
+        // Custom TTL for specific caches, used by both Redis and the in-process near cache
+        Map<String, Duration> ttls = new LinkedHashMap<>();
+        // Dashboard caches - short TTL (data changes frequently)
+        ttls.put("dashboard", Duration.ofMinutes(5));
+        // Event-related caches
+        ttls.put("events", Duration.ofMinutes(30));
+        ttls.put("eventDetails", Duration.ofMinutes(15));
+        ttls.put("recommendations", Duration.ofMinutes(10));
+        // User caches
+        ttls.put("users", Duration.ofHours(2));
+        // Reference data - long TTL (rarely changes)
+        ttls.put("tags", Duration.ofHours(24));
+
+        CacheInvalidationBus bus = cacheInvalidationBus.getIfAvailable();
+        if (bus == null) {
+            // Local-only mode (tests, single node without Redis): near caches in front of a no-op tier
+            return new TieredCacheManager(new NoOpCacheManager(), ttls, defaultTtl, nearMaxEntries, null,
+                    (name, cache) -> cache);
+        }
+
         // Use GenericJackson2JsonRedisSerializer with custom ObjectMapper for Redis only
         GenericJackson2JsonRedisSerializer jsonSerializer =
                 new GenericJackson2JsonRedisSerializer(createRedisObjectMapper());
+        // "typed" writes the root type once; "json" keeps default typing on every nested object
+        RedisSerializer<Object> valueSerializer = "json".equals(codec) ? jsonSerializer
+                : new TypedJsonRedisSerializer(createTypedCacheObjectMapper(), jsonSerializer);
+        RedisSerializer<Object> compressingSerializer =
+                new CompressingRedisSerializer(valueSerializer, compressionThresholdBytes);
 
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofHours(1)) // Default TTL: 1 hour
+                .entryTtl(defaultTtl)
                 .serializeKeysWith(
                         RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer())
                 )
                 .serializeValuesWith(
-                        RedisSerializationContext.SerializationPair.fromSerializer(jsonSerializer)
+                        RedisSerializationContext.SerializationPair.fromSerializer(compressingSerializer)
                 )
                 .disableCachingNullValues();
 
-        // Custom TTL for specific caches
-        return RedisCacheManager.builder(connectionFactory)
+        Map<String, RedisCacheConfiguration> cacheConfigurations = new LinkedHashMap<>();
+        // Configured caches record payload size and codec time per value type
+        ttls.forEach((name, ttl) -> cacheConfigurations.put(name, defaultConfig.entryTtl(ttl)
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        new MeteredRedisSerializer(compressingSerializer, meterRegistry, name, codec)))));
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
-                // Dashboard caches - short TTL (data changes frequently)
-                .withCacheConfiguration("dashboard",
-                        defaultConfig.entryTtl(Duration.ofMinutes(3)))
-                // Event-related caches
-                .withCacheConfiguration("events",
-                        defaultConfig.entryTtl(Duration.ofMinutes(30)))
-                .withCacheConfiguration("eventDetails",
-                        defaultConfig.entryTtl(Duration.ofMinutes(15)))
-                .withCacheConfiguration("recommendations",
-                        defaultConfig.entryTtl(Duration.ofMinutes(10)))
-                // User caches
-                .withCacheConfiguration("users",
-                        defaultConfig.entryTtl(Duration.ofHours(2)))
-                // Reference data - long TTL (rarely changes)
-                .withCacheConfiguration("tags",
-                        defaultConfig.entryTtl(Duration.ofHours(24)))
-                .withCacheConfiguration("dashboard",
-                        defaultConfig.entryTtl(Duration.ofMinutes(5)))
-                .transactionAware()
+                .withInitialCacheConfigurations(cacheConfigurations)
+                // Per-cache hit/miss/put/removal counters, bound to Micrometer (cache.gets, cache.removals, ...)
+                .enableStatistics()
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        // Expensive caches: served stale past the soft TTL while one request refreshes them (the TTL above is the hard limit)
+        Map<String, Duration> softTtls = Map.of(
+                "dashboard", Duration.ofMinutes(2),
+                "events", Duration.ofMinutes(10),
+                "eventDetails", Duration.ofMinutes(5),
+                "recommendations", Duration.ofMinutes(5));
+        StringRedisTemplate lockTemplate = new StringRedisTemplate(connectionFactory);
+        Duration lockTtl = Duration.ofMillis(lockTtlMs);
+        return new TieredCacheManager(redisCacheManager, ttls, defaultTtl, nearMaxEntries, bus,
+                (name, cache) -> softTtls.containsKey(name)
+                        ? new StaleWhileRevalidateCache(cache, lockTemplate, cacheRefreshExecutor,
+                                softTtls.get(name), lockTtl, earlyExpirationBeta)
+                        : cache);
+    }
+
+    @Bean
+    public CacheMeterBinderProvider<TwoTierCache> twoTierCacheMeterBinderProvider() {
+        return TwoTierCacheMetrics::new;
+    }
+
+    @Bean
+    public CacheMeterBinderProvider<StaleWhileRevalidateCache> staleWhileRevalidateCacheMeterBinderProvider() {
+        return (cache, tags) -> cache.getDelegate() instanceof TwoTierCache twoTierCache
+                ? new TwoTierCacheMetrics(twoTierCache, tags)
+                : null;
     }
-}
\ No newline at end of file
+}
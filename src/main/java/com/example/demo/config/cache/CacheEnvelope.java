@@ -0,0 +1,22 @@
+package com.example.demo.config.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A cached value with the metadata {@link StaleWhileRevalidateCache} needs to decide when to refresh it.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CacheEnvelope {
+
+    private Object value;
+
+    // Epoch millis after which the value is served stale while it is recomputed
+    private long softExpiresAt;
+
+    // How long the value took to compute, scales the probabilistic early refresh
+    private long computeMillis;
+}
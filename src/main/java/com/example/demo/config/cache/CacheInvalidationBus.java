@@ -0,0 +1,75 @@
+package com.example.demo.config.cache;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the near caches of all nodes coherent: every write or eviction in Redis is announced on a pub/sub
+ * channel and the other nodes drop the key from their {@link NearCache}.
+ * <p>
+ * Messages are {@code origin|op|cache|key} with op {@code E} (evict key) or {@code C} (clear cache).
+ */
+@Slf4j
+public class CacheInvalidationBus implements MessageListener {
+
+    private static final String EVICT = "E";
+    private static final String CLEAR = "C";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    @Getter
+    private final String channel;
+    private final Map<String, NearCache> nearCaches = new ConcurrentHashMap<>();
+
+    public CacheInvalidationBus(StringRedisTemplate redisTemplate, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    public void register(String cacheName, NearCache nearCache) {
+        nearCaches.put(cacheName, nearCache);
+    }
+
+    public void publishEvict(String cacheName, String key) {
+        publish(EVICT, cacheName, key);
+    }
+
+    public void publishClear(String cacheName) {
+        publish(CLEAR, cacheName, "");
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+        if (parts.length < 4 || nodeId.equals(parts[0])) {
+            return;
+        }
+        NearCache nearCache = nearCaches.get(parts[2]);
+        if (nearCache == null) {
+            return;
+        }
+        if (CLEAR.equals(parts[1])) {
+            nearCache.clear();
+        } else {
+            nearCache.invalidate(parts[3]);
+        }
+    }
+
+    private void publish(String op, String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(channel, nodeId + "|" + op + "|" + cacheName + "|" + key);
+        } catch (DataAccessException ex) {
+            // Other nodes keep their copy until the near cache TTL runs out
+            log.warn("Failed to publish invalidation of {} in cache {}: {}", key, cacheName, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.demo.config.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * GZIP-compresses values whose encoded form is at least {@code thresholdBytes} long.
+ * <p>
+ * The first byte tells the two apart ({@code 0} stored, {@code 1} compressed); values starting with anything
+ * else were written before this serializer and are handed to the delegate as they are.
+ */
+public class CompressingRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte STORED = 0;
+    private static final byte GZIP = 1;
+
+    private final RedisSerializer<Object> delegate;
+    private final int thresholdBytes;
+
+    public CompressingRedisSerializer(RedisSerializer<Object> delegate, int thresholdBytes) {
+        this.delegate = delegate;
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        byte[] encoded = delegate.serialize(value);
+        if (encoded == null || encoded.length == 0) {
+            return encoded;
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(encoded.length / 2 + 16);
+            if (thresholdBytes > 0 && encoded.length >= thresholdBytes) {
+                out.write(GZIP);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                    gzip.write(encoded);
+                }
+            } else {
+                out.write(STORED);
+                out.write(encoded);
+            }
+            return out.toByteArray();
+        } catch (IOException ex) {
+            throw new SerializationException("Could not compress cache value", ex);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] == STORED) {
+            byte[] encoded = new byte[bytes.length - 1];
+            System.arraycopy(bytes, 1, encoded, 0, encoded.length);
+            return delegate.deserialize(encoded);
+        }
+        if (bytes[0] == GZIP) {
+            try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1))) {
+                return delegate.deserialize(gzip.readAllBytes());
+            } catch (IOException ex) {
+                throw new SerializationException("Could not decompress cache value", ex);
+            }
+        }
+        return delegate.deserialize(bytes);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.demo.config.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded in-process cache with a fixed TTL, the first tier of a {@link TwoTierCache}.
+ * <p>
+ * Reads are lock free. When a put grows the map past its bound, expired entries are dropped first and
+ * then arbitrary ones until it is back under 90% of the bound, which is good enough for a cache whose
+ * misses only cost one Redis round trip. Values are shared between callers and must not be mutated.
+ */
+public class NearCache {
+
+    private record Entry(Object value, long expiresAt) {
+    }
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // Bumped by every invalidation, so a value read from Redis before an invalidation is not cached afterwards
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public NearCache(int maxEntries, Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    public Object get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+            hits.increment();
+            return entry.value();
+        }
+        if (entry != null) {
+            entries.remove(key, entry);
+        }
+        misses.increment();
+        return null;
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Cache a value read from the second tier, unless anything was invalidated since {@code readGeneration}.
+     * <p>
+     * The generation is checked again after the put: an invalidation racing with it either removes the new
+     * entry itself or has bumped the generation before its remove, in which case the entry is removed here.
+     */
+    public void fill(String key, Object value, long readGeneration) {
+        if (generation.get() != readGeneration) {
+            return;
+        }
+        put(key, value);
+        if (generation.get() != readGeneration) {
+            entries.remove(key);
+        }
+    }
+
+    public void put(String key, Object value) {
+        entries.put(key, new Entry(value, System.currentTimeMillis() + ttlMillis));
+        if (entries.size() > maxEntries) {
+            shrink();
+        }
+    }
+
+    public void invalidate(String key) {
+        generation.incrementAndGet();
+        entries.remove(key);
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private void shrink() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        int target = maxEntries * 9 / 10;
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.example.demo.config.cache;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Redis cache decorator that keeps expensive entries from being recomputed by many requests at once.
+ * <ul>
+ *     <li>Values are stored in a {@link CacheEnvelope} with a soft TTL shorter than the Redis TTL. Past the soft TTL
+ *     the stale value is still served while one background task recomputes it.</li>
+ *     <li>Before the soft TTL a refresh starts early with a probability that grows as expiry nears and with the
+ *     cost of the last computation (XFetch), so hot keys are usually refreshed before they ever go stale.</li>
+ *     <li>On a miss, concurrent requests for a key on this node share one computation, and a Redis lock
+ *     ({@code SET NX PX}) lets only one node compute while the others poll for the result.</li>
+ * </ul>
+ * Only {@code @Cacheable(sync = true)} passes a loader; plain lookups treat a stale entry as a miss.
+ */
+@Slf4j
+public class StaleWhileRevalidateCache implements Cache {
+
+    private static final long LOCK_POLL_MS = 50;
+
+    private static final RedisScript<Long> UNLOCK = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    @Getter
+    private final Cache delegate;
+    private final StringRedisTemplate redisTemplate;
+    private final Executor refreshExecutor;
+    private final Duration softTtl;
+    private final Duration lockTtl;
+    private final double beta;
+
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+    // Miss loads and background refreshes in flight; an eviction meanwhile bumps the key's versions so the value
+    // loaded before it is not stored
+    private final ConcurrentHashMap<Object, RefreshVersion> loadVersions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Object, RefreshVersion> refreshing = new ConcurrentHashMap<>();
+
+    public StaleWhileRevalidateCache(Cache delegate, StringRedisTemplate redisTemplate, Executor refreshExecutor,
+                                     Duration softTtl, Duration lockTtl, double beta) {
+        this.delegate = delegate;
+        this.redisTemplate = redisTemplate;
+        this.refreshExecutor = refreshExecutor;
+        this.softTtl = softTtl;
+        this.lockTtl = lockTtl;
+        this.beta = beta;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        CacheEnvelope envelope = read(key);
+        if (envelope == null || System.currentTimeMillis() >= envelope.getSoftExpiresAt()) {
+            return null;
+        }
+        return new SimpleValueWrapper(envelope.getValue());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CacheEnvelope envelope = read(key);
+        if (envelope != null) {
+            if (shouldRefresh(envelope)) {
+                refreshAsync(key, valueLoader);
+            }
+            return (T) envelope.getValue();
+        }
+        return (T) load(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, wrap(value, 0));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, wrap(value, 0));
+        return existing != null ? new SimpleValueWrapper(unwrap(existing.get()).getValue()) : null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        bumpVersion(key);
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        bumpVersion(key);
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        bumpAllVersions();
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        bumpAllVersions();
+        return delegate.invalidate();
+    }
+
+    private void bumpVersion(Object key) {
+        RefreshVersion load = loadVersions.get(key);
+        if (load != null) {
+            load.bump();
+        }
+        RefreshVersion refresh = refreshing.get(key);
+        if (refresh != null) {
+            refresh.bump();
+        }
+    }
+
+    private void bumpAllVersions() {
+        loadVersions.values().forEach(RefreshVersion::bump);
+        refreshing.values().forEach(RefreshVersion::bump);
+    }
+
+    private boolean shouldRefresh(CacheEnvelope envelope) {
+        long now = System.currentTimeMillis();
+        if (now >= envelope.getSoftExpiresAt()) {
+            return true;
+        }
+        // -log(u) for u in (0, 1] is exponentially distributed, so early refreshes are rare until expiry is close
+        double head = -envelope.getComputeMillis() * beta * Math.log(1 - ThreadLocalRandom.current().nextDouble());
+        return now + head >= envelope.getSoftExpiresAt();
+    }
+
+    private Object load(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> running = loading.putIfAbsent(key, own);
+        if (running == null) {
+            // Registered before the loader runs, so any eviction from here on keeps its value out of the cache
+            RefreshVersion version = new RefreshVersion();
+            loadVersions.put(key, version);
+            try {
+                own.complete(loadAcrossNodes(key, valueLoader, version, version.current()));
+            } catch (RuntimeException ex) {
+                own.completeExceptionally(ex);
+            } finally {
+                loadVersions.remove(key, version);
+                loading.remove(key, own);
+            }
+            running = own;
+        }
+        try {
+            return running.join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+    }
+
+    private Object loadAcrossNodes(Object key, Callable<?> valueLoader, RefreshVersion version, long expected) {
+        String lockKey = lockKey(key);
+        String token = UUID.randomUUID().toString();
+        long deadline = System.currentTimeMillis() + lockTtl.toMillis();
+        while (!tryLock(lockKey, token)) {
+            CacheEnvelope envelope = read(key);
+            if (envelope != null) {
+                return envelope.getValue();
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                // The holder died or is too slow; computing here beats blocking the request any longer
+                log.warn("Timed out waiting for {} in cache {}, computing it locally", key, getName());
+                return compute(key, valueLoader, version, expected);
+            }
+            try {
+                Thread.sleep(LOCK_POLL_MS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new ValueRetrievalException(key, valueLoader, ex);
+            }
+        }
+        try {
+            // Another node may have filled the key between our miss and taking the lock
+            CacheEnvelope envelope = read(key);
+            return envelope != null ? envelope.getValue() : compute(key, valueLoader, version, expected);
+        } finally {
+            unlock(lockKey, token);
+        }
+    }
+
+    private void refreshAsync(Object key, Callable<?> valueLoader) {
+        RefreshVersion version = new RefreshVersion();
+        if (refreshing.putIfAbsent(key, version) != null) {
+            return;
+        }
+        long expected = version.current();
+        // Loaders resolve the current user, so the refresh runs with the caller's security context
+        Runnable refresh = new DelegatingSecurityContextRunnable(() -> {
+            String lockKey = lockKey(key);
+            String token = UUID.randomUUID().toString();
+            try {
+                // Whoever holds the lock is already recomputing this key
+                if (tryLock(lockKey, token)) {
+                    try {
+                        refresh(key, valueLoader, version, expected);
+                    } finally {
+                        unlock(lockKey, token);
+                    }
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Background refresh of {} in cache {} failed: {}", key, getName(), ex.getMessage());
+            } finally {
+                refreshing.remove(key, version);
+            }
+        });
+        try {
+            refreshExecutor.execute(refresh);
+        } catch (RejectedExecutionException ex) {
+            refreshing.remove(key, version);
+            log.debug("Refresh executor saturated, serving stale {} from cache {}", key, getName());
+        }
+    }
+
+    private void refresh(Object key, Callable<?> valueLoader, RefreshVersion version, long expected) {
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        if (value != null && !version.putIfCurrent(expected,
+                () -> delegate.put(key, wrap(value, (System.nanoTime() - start) / 1_000_000)))) {
+            log.debug("Dropped refresh of {} in cache {}, evicted while loading", key, getName());
+        }
+    }
+
+    private Object compute(Object key, Callable<?> valueLoader, RefreshVersion version, long expected) {
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        if (value != null && !version.putIfCurrent(expected,
+                () -> delegate.put(key, wrap(value, (System.nanoTime() - start) / 1_000_000)))) {
+            log.debug("Not caching {} in cache {}, evicted while loading", key, getName());
+        }
+        return value;
+    }
+
+    private CacheEnvelope read(Object key) {
+        ValueWrapper wrapper = delegate.get(key);
+        return wrapper != null && wrapper.get() != null ? unwrap(wrapper.get()) : null;
+    }
+
+    private CacheEnvelope wrap(Object value, long computeMillis) {
+        return new CacheEnvelope(value, System.currentTimeMillis() + softTtl.toMillis(), computeMillis);
+    }
+
+    // Entries written before the envelope was introduced are served once and refreshed right away
+    private static CacheEnvelope unwrap(Object stored) {
+        return stored instanceof CacheEnvelope envelope ? envelope : new CacheEnvelope(stored, 0, 0);
+    }
+
+    private String lockKey(Object key) {
+        return "lock:" + getName() + "::" + key;
+    }
+
+    private boolean tryLock(String lockKey, String token) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, token, lockTtl));
+    }
+
+    private void unlock(String lockKey, String token) {
+        redisTemplate.execute(UNLOCK, List.of(lockKey), token);
+    }
+
+    /**
+     * Eviction count of a key while a load or refresh of it runs. The put is checked and done under the same monitor as the
+     * bump, so an eviction either sees the refreshed value in the delegate or stops it from being written.
+     */
+    private static final class RefreshVersion {
+        private long version;
+
+        synchronized void bump() {
+            version++;
+        }
+
+        synchronized long current() {
+            return version;
+        }
+
+        synchronized boolean putIfCurrent(long expected, Runnable put) {
+            if (version != expected) {
+                return false;
+            }
+            put.run();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.config.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Builds every cache as a {@link TwoTierCache}: a {@link NearCache} with the cache's TTL in front of the cache of
+ * the remote (non transaction aware) manager. The {@code decorator} can wrap it further, e.g. in a
+ * {@link StaleWhileRevalidateCache}; the result is made transaction aware last, so evictions and annotation
+ * driven puts still wait for the commit while loads write straight through.
+ */
+public class TieredCacheManager implements CacheManager {
+
+    private final CacheManager remote;
+    private final Map<String, Duration> ttls;
+    private final Duration defaultTtl;
+    private final int nearMaxEntries;
+    private final CacheInvalidationBus bus;
+    private final BiFunction<String, Cache, Cache> decorator;
+
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @param bus publishes invalidations to the other nodes; {@code null} in local-only mode
+     */
+    public TieredCacheManager(CacheManager remote, Map<String, Duration> ttls, Duration defaultTtl, int nearMaxEntries,
+                              CacheInvalidationBus bus, BiFunction<String, Cache, Cache> decorator) {
+        this.remote = remote;
+        this.ttls = Map.copyOf(ttls);
+        this.defaultTtl = defaultTtl;
+        this.nearMaxEntries = nearMaxEntries;
+        this.bus = bus;
+        this.decorator = decorator;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, key -> {
+            Cache cache = remote.getCache(key);
+            if (cache == null) {
+                return null;
+            }
+            NearCache near = new NearCache(nearMaxEntries, ttls.getOrDefault(key, defaultTtl));
+            return new TransactionAwareCacheDecorator(decorator.apply(key, new TwoTierCache(near, cache, bus)));
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        Set<String> names = new LinkedHashSet<>(ttls.keySet());
+        names.addAll(remote.getCacheNames());
+        return names;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.demo.config.cache;
+
+import lombok.Getter;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/**
+ * A {@link NearCache} in front of a remote (Redis) cache. Hits on the first tier skip the network round trip and
+ * the JSON deserialization; every write and eviction goes to Redis and is published on the
+ * {@link CacheInvalidationBus} so other nodes drop their copy.
+ * <p>
+ * Without a bus the remote cache is expected to be a no-op and the near cache is the only tier (local-only mode).
+ */
+public class TwoTierCache implements Cache {
+
+    @Getter
+    private final NearCache near;
+    @Getter
+    private final Cache remote;
+    private final CacheInvalidationBus bus;
+
+    public TwoTierCache(NearCache near, Cache remote, CacheInvalidationBus bus) {
+        this.near = near;
+        this.remote = remote;
+        this.bus = bus;
+        if (bus != null) {
+            bus.register(remote.getName(), near);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String nearKey = nearKey(key);
+        Object value = near.get(nearKey);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+        long generation = near.generation();
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            near.fill(nearKey, wrapper.get(), generation);
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            return (T) wrapper.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        String nearKey = nearKey(key);
+        near.invalidate(nearKey);
+        if (value != null) {
+            near.put(nearKey, value);
+        }
+        publishEvict(nearKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        String nearKey = nearKey(key);
+        near.invalidate(nearKey);
+        if (existing == null) {
+            publishEvict(nearKey);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        String nearKey = nearKey(key);
+        near.invalidate(nearKey);
+        publishEvict(nearKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = remote.evictIfPresent(key);
+        String nearKey = nearKey(key);
+        near.invalidate(nearKey);
+        publishEvict(nearKey);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        near.clear();
+        publishClear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remote.invalidate();
+        near.clear();
+        publishClear();
+        return invalidated;
+    }
+
+    // Redis keys are the string form of the cache key as well
+    private static String nearKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private void publishEvict(String nearKey) {
+        if (bus != null) {
+            bus.publishEvict(getName(), nearKey);
+        }
+    }
+
+    private void publishClear() {
+        if (bus != null) {
+            bus.publishClear(getName());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.config.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.data.redis.cache.RedisCache;
+
+/**
+ * Binds the Redis statistics of a {@link TwoTierCache} ({@code cache.gets}, {@code cache.puts}, ...) plus the
+ * near cache counters ({@code cache.near.gets}, {@code cache.near.evictions}, {@code cache.near.size}).
+ */
+public class TwoTierCacheMetrics implements MeterBinder {
+
+    private final TwoTierCache cache;
+    private final Tags tags;
+
+    public TwoTierCacheMetrics(TwoTierCache cache, Iterable<Tag> tags) {
+        this.cache = cache;
+        this.tags = Tags.concat(tags, "cache", cache.getName());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (cache.getRemote() instanceof RedisCache redisCache) {
+            new RedisCacheMetrics(redisCache, tags).bindTo(registry);
+        }
+        NearCache near = cache.getNear();
+        FunctionCounter.builder("cache.near.gets", near, NearCache::hitCount)
+                .tags(tags).tag("result", "hit")
+                .description("Lookups served from the in-process cache")
+                .register(registry);
+        FunctionCounter.builder("cache.near.gets", near, NearCache::missCount)
+                .tags(tags).tag("result", "miss")
+                .description("Lookups that went to Redis")
+                .register(registry);
+        FunctionCounter.builder("cache.near.evictions", near, NearCache::evictionCount)
+                .tags(tags)
+                .description("Entries dropped to keep the in-process cache bounded")
+                .register(registry);
+        Gauge.builder("cache.near.size", near, NearCache::size)
+                .tags(tags)
+                .description("Entries in the in-process cache")
+                .register(registry);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.demo.config.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.Entity;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cache value codec that writes the root type once instead of a class name on every nested object.
+ * <p>
+ * A value is stored as a one line type descriptor followed by plain JSON, resolved through the declared field
+ * types on the way back:
+ * <ul>
+ *     <li>{@code C<class>}: a single object</li>
+ *     <li>{@code L<class>}: a list whose elements are all of that class ({@code L} alone for an empty list)</li>
+ *     <li>{@code E<softExpiresAt>,<computeMillis>,<descriptor>}: a {@link CacheEnvelope} around a value</li>
+ *     <li>{@code D}: anything else (maps, mixed lists, JPA entities), written by the default typing fallback</li>
+ * </ul>
+ * Entries written by the fallback serializer alone (JSON starting with {@code {} or {@code [}) are still read.
+ */
+public class TypedJsonRedisSerializer implements RedisSerializer<Object> {
+
+    private static final String ALLOWED_PACKAGE = "com.example.demo.";
+    private static final byte NEWLINE = '\n';
+
+    private final ObjectMapper mapper;
+    private final RedisSerializer<Object> fallback;
+
+    public TypedJsonRedisSerializer(ObjectMapper mapper, RedisSerializer<Object> fallback) {
+        this.mapper = mapper;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        Object body = value instanceof CacheEnvelope envelope ? envelope.getValue() : value;
+        String bodyDescriptor = describe(body);
+        String descriptor = value instanceof CacheEnvelope envelope
+                ? "E" + envelope.getSoftExpiresAt() + "," + envelope.getComputeMillis() + "," + bodyDescriptor
+                : bodyDescriptor;
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            out.write(descriptor.getBytes(StandardCharsets.UTF_8));
+            out.write(NEWLINE);
+            out.write(bodyDescriptor.equals("D") ? fallback.serialize(body) : mapper.writeValueAsBytes(body));
+            return out.toByteArray();
+        } catch (IOException ex) {
+            throw new SerializationException("Could not write cache value of type " + value.getClass().getName(), ex);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] == '{' || bytes[0] == '[') {
+            return fallback.deserialize(bytes);
+        }
+        int newline = indexOf(bytes, NEWLINE);
+        if (newline < 0) {
+            throw new SerializationException("Cache value without type descriptor");
+        }
+        String descriptor = new String(bytes, 0, newline, StandardCharsets.UTF_8);
+        byte[] body = new byte[bytes.length - newline - 1];
+        System.arraycopy(bytes, newline + 1, body, 0, body.length);
+
+        if (descriptor.startsWith("E")) {
+            String[] parts = descriptor.substring(1).split(",", 3);
+            return new CacheEnvelope(read(parts[2], body), Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+        }
+        return read(descriptor, body);
+    }
+
+    private String describe(Object value) {
+        if (value instanceof List<?> list) {
+            if (list.isEmpty()) {
+                return "L";
+            }
+            Class<?> elementType = list.get(0) != null ? list.get(0).getClass() : null;
+            for (Object element : list) {
+                if (element == null || element.getClass() != elementType) {
+                    return "D";
+                }
+            }
+            return typed(elementType) ? "L" + elementType.getName() : "D";
+        }
+        return typed(value.getClass()) ? "C" + value.getClass().getName() : "D";
+    }
+
+    // DTOs of this application; entities (and their proxies) keep default typing for their lazy-loaded collections
+    private static boolean typed(Class<?> type) {
+        if (!type.getName().startsWith(ALLOWED_PACKAGE)) {
+            return false;
+        }
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            if (current.isAnnotationPresent(Entity.class)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Object read(String descriptor, byte[] body) {
+        try {
+            if (descriptor.equals("D")) {
+                return fallback.deserialize(body);
+            }
+            if (descriptor.equals("L")) {
+                return new ArrayList<>();
+            }
+            Class<?> type = resolve(descriptor.substring(1));
+            JavaType javaType = descriptor.startsWith("L")
+                    ? mapper.getTypeFactory().constructCollectionType(ArrayList.class, type)
+                    : mapper.constructType(type);
+            return mapper.readValue(body, javaType);
+        } catch (IOException ex) {
+            throw new SerializationException("Could not read cache value of type " + descriptor, ex);
+        }
+    }
+
+    private static Class<?> resolve(String className) {
+        // Only application classes are instantiated from a descriptor stored in Redis
+        if (!className.startsWith(ALLOWED_PACKAGE)) {
+            throw new SerializationException("Type not allowed in cache: " + className);
+        }
+        try {
+            return Class.forName(className, false, TypedJsonRedisSerializer.class.getClassLoader());
+        } catch (ClassNotFoundException ex) {
+            throw new SerializationException("Unknown cache value type " + className, ex);
+        }
+    }
+
+    private static int indexOf(byte[] bytes, byte target) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -4,6 +4,8 @@ import com.example.demo.dto.common.ApiResponse;
 import com.example.demo.dto.common.PaginationResponse;
 import com.example.demo.dto.dashboard_manager.AdminDashboardDTO;
 import com.example.demo.dto.event.EventDTO;
+import com.example.demo.dto.export.ExportJobDTO;
+import com.example.demo.dto.export.ExportRequest;
 import com.example.demo.dto.user.ChangeUserRoleDTO;
 import com.example.demo.dto.user.EnableUserDTO;
 import com.example.demo.dto.user.ResetPasswordDTO;
@@ -13,7 +15,10 @@ import com.example.demo.mapper.UserMapper;
 import com.example.demo.model.Event;
 import com.example.demo.model.User;
 import com.example.demo.service.*;
+import com.example.demo.service.Impl.ExportJobManager;
 import com.google.firebase.messaging.FirebaseMessagingException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -24,12 +29,14 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
@@ -45,6 +52,8 @@ public class AdminController {
     private final UserService userService;
     private final AdminService adminService;
     private final ExportService exportService;
+    private final ExportJobManager exportJobManager;
+    private final AnalyticsExportService analyticsExportService;
     private final UserMapper userMapper;
 
     @GetMapping("/users")
@@ -186,18 +195,14 @@ public class AdminController {
     
     @GetMapping("/export/events/csv")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<byte[]> exportEventsToCSV(
+    public ResponseEntity<StreamingResponseBody> exportEventsToCSV(
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String startDate,
-            @RequestParam(required = false) String endDate) throws IOException {
+            @RequestParam(required = false) String endDate) {
         log.info("Admin exporting events to CSV - status: {}, startDate: {}, endDate: {}", status, startDate, endDate);
         
-        byte[] csvData;
-        if (status != null || startDate != null || endDate != null) {
-            csvData = exportService.exportEventsToCSV(status, startDate, endDate);
-        } else {
-            csvData = exportService.exportEventsToCSV();
-        }
+        // Filters are validated here, before the response is committed
+        StreamingResponseBody csvData = exportService.streamEventsCSV(status, startDate, endDate)::writeTo;
         
         String filename = "events_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".csv";
         
@@ -213,10 +218,10 @@ public class AdminController {
     
     @GetMapping("/export/events/json")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<byte[]> exportEventsToJSON() throws IOException {
+    public ResponseEntity<StreamingResponseBody> exportEventsToJSON() {
         log.info("Admin exporting events to JSON");
         
-        byte[] jsonData = exportService.exportEventsToJSON();
+        StreamingResponseBody jsonData = exportService.streamEventsJSON()::writeTo;
         
         String filename = "events_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".json";
         
@@ -232,17 +237,12 @@ public class AdminController {
     
     @GetMapping("/export/users/csv")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<byte[]> exportUsersToCSV(
+    public ResponseEntity<StreamingResponseBody> exportUsersToCSV(
             @RequestParam(required = false) String role,
-            @RequestParam(required = false) Boolean enabled) throws IOException {
+            @RequestParam(required = false) Boolean enabled) {
         log.info("Admin exporting users to CSV - role: {}, enabled: {}", role, enabled);
         
-        byte[] csvData;
-        if (role != null || enabled != null) {
-            csvData = exportService.exportUsersToCSV(role, enabled);
-        } else {
-            csvData = exportService.exportUsersToCSV();
-        }
+        StreamingResponseBody csvData = exportService.streamUsersCSV(role, enabled)::writeTo;
         
         String filename = "users_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".csv";
         
@@ -258,10 +258,10 @@ public class AdminController {
     
     @GetMapping("/export/users/json")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<byte[]> exportUsersToJSON() throws IOException {
+    public ResponseEntity<StreamingResponseBody> exportUsersToJSON() {
         log.info("Admin exporting users to JSON");
         
-        byte[] jsonData = exportService.exportUsersToJSON();
+        StreamingResponseBody jsonData = exportService.streamUsersJSON()::writeTo;
         
         String filename = "users_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".json";
         
@@ -275,6 +275,73 @@ public class AdminController {
                 .body(jsonData);
     }
 
+    /**
+     * Whole table in the columnar format for analytics (events, registrations, posts, comments, likes)
+     */
+    @GetMapping("/export/analytics/{dataset}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAnalytics(@PathVariable String dataset) {
+        log.info("Admin exporting {} as columnar", dataset);
+        
+        StreamingResponseBody data = analyticsExportService
+                .streamColumnar(AnalyticsExportService.Dataset.valueOf(dataset.toUpperCase()))::writeTo;
+        
+        String filename = dataset.toLowerCase() + "_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".vcol.gz";
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/gzip"));
+        headers.setContentDispositionFormData("attachment", filename);
+        headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+        
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(data);
+    }
+
+    /**
+     * Start a background export of a whole dataset; progress is pushed to /user/queue/exports and the
+     * gzip file is downloaded from /export/jobs/{jobId}/download once the job has COMPLETED.
+     */
+    @PostMapping("/export/jobs")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ExportJobDTO>> startExportJob(
+            @RequestParam String dataset,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) Boolean enabled,
+            @AuthenticationPrincipal User admin) {
+        log.info("Admin {} starting {} export to {}", admin.getUsername(), dataset, format);
+        ExportRequest request = new ExportRequest()
+                .setDataset(ExportRequest.Dataset.valueOf(dataset.toUpperCase()))
+                .setFormat(ExportRequest.Format.valueOf(format.toUpperCase()))
+                .setStatus(status)
+                .setStartDate(startDate)
+                .setEndDate(endDate)
+                .setRole(role)
+                .setEnabled(enabled);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(exportJobManager.start(request, admin)));
+    }
+
+    @GetMapping("/export/jobs/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ExportJobDTO>> getExportJob(@PathVariable String jobId,
+                                                                  @AuthenticationPrincipal User admin) {
+        return ResponseEntity.ok(ApiResponse.success(exportJobManager.getJob(jobId, admin.getId())));
+    }
+
+    @GetMapping("/export/jobs/{jobId}/download")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void downloadExportJob(@PathVariable String jobId,
+                                  @AuthenticationPrincipal User admin,
+                                  HttpServletRequest request,
+                                  HttpServletResponse response) throws IOException {
+        exportJobManager.download(jobId, admin.getId(), request, response);
+    }
+
     @PostMapping("/users/{userId}/promote")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<UserResponse>> promoteToEventManager(
@@ -88,7 +88,7 @@ public class EventController {
 
     /**
      * Sync participant count for an event (recalculate from actual registrations)
-     * Useful when count gets out of sync
+     * Counts are maintained on every registration change; kept for repairing out-of-band edits
      */
     @PostMapping("/{eventId}/sync-count")
     public ResponseEntity<ApiResponse<Void>> syncParticipantCount(@PathVariable Long eventId) {
@@ -2,6 +2,7 @@ package com.example.demo.controller;
 
 import com.example.demo.dto.common.ApiResponse;
 import com.example.demo.dto.post.CreatePostDTO;
+import com.example.demo.dto.post_content.PostCursorPageResponse;
 import com.example.demo.dto.post_content.PostDTO;
 import com.example.demo.model.Post;
 import com.example.demo.service.PostService;
@@ -61,6 +62,15 @@ public class PostController {
 
     }
 
+    // Cursor mode of the feed, ordered by (isPinned, createdAt, id) descending
+    @GetMapping(value = "/events/{eventId}", params = "mode=cursor")
+    public ResponseEntity<ApiResponse<PostCursorPageResponse>> viewPostFeed(
+            @PathVariable Long eventId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(postService.getPostFeed(eventId, cursor, limit)));
+    }
+
 //    @GetMapping("/{postId}")
 //    public ResponseEntity<ApiResponse<PostDTO>> getPostById(@PathVariable Long postId) {
 //        return ResponseEntity.ok(ApiResponse.success(postService.getPostById(postId)));
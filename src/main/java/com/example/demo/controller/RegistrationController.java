@@ -4,8 +4,10 @@ import com.cloudinary.Api;
 import com.example.demo.dto.common.ApiResponse;
 import com.example.demo.dto.event.EventDTO;
 import com.example.demo.dto.registration.RegistrationDTO;
+import com.example.demo.dto.registration.RegistrationTicketDTO;
 import com.example.demo.service.RegistrationService;
 import com.example.demo.service.UserService;
+import com.example.demo.service.Impl.RegistrationAdmissionQueue;
 import com.google.firebase.messaging.FirebaseMessagingException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +15,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,6 +26,7 @@ public class RegistrationController {
 
     private final RegistrationService registrationService;
     private final UserService userService;
+    private final RegistrationAdmissionQueue registrationAdmissionQueue;
 
     @PostMapping("/events/{eventId}")
     public ResponseEntity<ApiResponse<RegistrationDTO>> registerEvent(@PathVariable Long eventId) {
@@ -30,6 +34,22 @@ public class RegistrationController {
         return ResponseEntity.ok(ApiResponse.success(registrationDTO));
     }
 
+    /**
+     * Queue a registration during high-demand openings. Returns a ticket immediately; the result is
+     * pushed to /user/queue/registrations and can be polled via /admission/{ticketId}.
+     */
+    @PostMapping("/events/{eventId}/admission")
+    public ResponseEntity<ApiResponse<RegistrationTicketDTO>> queueRegistration(@PathVariable Long eventId) {
+        RegistrationTicketDTO ticket = registrationAdmissionQueue.enqueue(eventId, userService.getCurrentUser());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(ticket));
+    }
+
+    @GetMapping("/admission/{ticketId}")
+    public ResponseEntity<ApiResponse<RegistrationTicketDTO>> getRegistrationTicket(@PathVariable String ticketId) {
+        Long currentUserId = userService.getCurrentUser().getId();
+        return ResponseEntity.ok(ApiResponse.success(registrationAdmissionQueue.getTicket(ticketId, currentUserId)));
+    }
+
     @PostMapping("/events/{eventId}/{registrationId}/approved")
     public ResponseEntity<?> approvedRegistration(@PathVariable Long eventId, @PathVariable Long registrationId) throws FirebaseMessagingException {
         registrationService.approvedRegistration(registrationId);
@@ -0,0 +1,10 @@
+package com.example.demo.dto.common;
+
+/**
+ * Projection for grouped count queries: {@code SELECT x.id AS id, COUNT(..) AS count ... GROUP BY x.id}.
+ */
+public interface IdCount {
+    Long getId();
+
+    Long getCount();
+}
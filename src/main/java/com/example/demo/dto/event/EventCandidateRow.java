@@ -0,0 +1,16 @@
+package com.example.demo.dto.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the columns the recommendation scoring needs from a candidate event.
+ */
+public interface EventCandidateRow {
+    Long getId();
+
+    LocalDateTime getDate();
+
+    Integer getMaxParticipants();
+
+    Long getCreatorId();
+}
@@ -0,0 +1,12 @@
+package com.example.demo.dto.event;
+
+import com.example.demo.model.Event;
+
+/**
+ * Projection for {@code SELECT e.status AS status, COUNT(e) AS count ... GROUP BY e.status}.
+ */
+public interface EventStatusTotal {
+    Event.EventStatus getStatus();
+
+    Long getCount();
+}
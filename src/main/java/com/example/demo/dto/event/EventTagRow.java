@@ -0,0 +1,10 @@
+package com.example.demo.dto.event;
+
+/**
+ * Projection for one (event, tag) pair of the event_tags join table.
+ */
+public interface EventTagRow {
+    Long getEventId();
+
+    Long getTagId();
+}
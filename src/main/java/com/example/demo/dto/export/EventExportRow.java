@@ -0,0 +1,29 @@
+package com.example.demo.dto.export;
+
+import com.example.demo.model.Event;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One exported event with its creator and registration count, detached from the persistence context.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventExportRow {
+    private Long id;
+    private String title;
+    private String description;
+    private LocalDateTime date;
+    private String location;
+    private Event.EventStatus status;
+    private Integer maxParticipants;
+    private long registrations;
+    private String creatorUsername;
+    private String creatorEmail;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
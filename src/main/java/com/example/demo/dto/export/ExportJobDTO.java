@@ -0,0 +1,55 @@
+package com.example.demo.dto.export;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDateTime;
+
+/**
+ * Background export job. Polled by the client or pushed to {@code /user/queue/exports} as parts complete;
+ * the file can be downloaded once COMPLETED.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+public class ExportJobDTO {
+
+    private String jobId;
+
+    private Long userId;
+
+    private ExportRequest.Dataset dataset;
+
+    private ExportRequest.Format format;
+
+    private JobStatus status;
+
+    // Id range partitions rendered in parallel
+    private int totalParts;
+
+    private int completedParts;
+
+    private long rows;
+
+    // Size of the gzip file once COMPLETED
+    private long sizeBytes;
+
+    private String filename;
+
+    // Reason when FAILED
+    private String message;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime completedAt;
+
+    public enum JobStatus {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
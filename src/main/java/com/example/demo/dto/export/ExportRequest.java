@@ -0,0 +1,42 @@
+package com.example.demo.dto.export;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+/**
+ * What to export and how; filters that do not apply to the dataset are ignored, null filters match all.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+public class ExportRequest {
+
+    private Dataset dataset;
+
+    private Format format;
+
+    // Events
+    private String status;
+
+    private String startDate;
+
+    private String endDate;
+
+    // Users
+    private String role;
+
+    private Boolean enabled;
+
+    public enum Dataset {
+        EVENTS,
+        USERS
+    }
+
+    public enum Format {
+        CSV,
+        JSON
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.dto.export;
+
+import com.example.demo.model.Role;
+import com.example.demo.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One exported user with the number of events created and registrations, detached from the persistence context.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserExportRow {
+    private Long id;
+    private String username;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private String phoneNumber;
+    private String address;
+    private Role.RoleName role;
+    private boolean enabled;
+    private User.AuthProvider authProvider;
+    private long eventsCreated;
+    private long registrations;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,16 @@
+package com.example.demo.dto.file;
+
+/**
+ * Projection of a post attachment together with its post id, for batch-loading the files of a feed page.
+ */
+public interface PostFileView {
+    Long getPostId();
+
+    Long getId();
+
+    String getFileName();
+
+    String getUrl();
+
+    String getFileType();
+}
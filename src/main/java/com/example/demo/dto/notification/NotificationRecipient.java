@@ -0,0 +1,17 @@
+package com.example.demo.dto.notification;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lightweight recipient projection used by notification fan-out,
+ * so we never load full User entities just to address a message.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NotificationRecipient {
+    private Long userId;
+    private String username;
+}
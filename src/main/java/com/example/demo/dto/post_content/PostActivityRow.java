@@ -0,0 +1,18 @@
+package com.example.demo.dto.post_content;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A recent post as shown in the manager activity feed: event, author and time only.
+ */
+@Getter
+@AllArgsConstructor
+public class PostActivityRow {
+    private Long eventId;
+    private String eventTitle;
+    private String username;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,26 @@
+package com.example.demo.dto.post_content;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostCursorPageResponse {
+    private List<PostDTO> posts;
+    private String nextCursor; // Cursor for the next page (null if no more pages)
+    private boolean hasNext;
+    private int size;
+
+    public static PostCursorPageResponse of(List<PostDTO> posts, String nextCursor, boolean hasNext) {
+        return new PostCursorPageResponse(
+                posts,
+                nextCursor,
+                hasNext,
+                posts.size()
+        );
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.dto.post_content;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One post of the event feed as selected by a JPQL constructor expression: post columns, author,
+ * counters and the current user's like state in a single row. Files are attached afterwards in one batch.
+ */
+@Getter
+@AllArgsConstructor
+public class PostFeedRow {
+    private Long id;
+    private String content;
+
+    private Long userId;
+    private String username;
+    private String userFirstName;
+    private String userLastName;
+    private String userAvatarUrl;
+
+    private int likeCount;
+    private int commentCount;
+
+    private boolean pinned;
+    private boolean likedByCurrentUser;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,16 @@
+package com.example.demo.dto.registration;
+
+/**
+ * Projection for registration counts by status summed over a set of events.
+ */
+public interface RegistrationStatusTotals {
+    Long getPending();
+
+    Long getApproved();
+
+    Long getRejected();
+
+    Long getCancelled();
+
+    Long getWaiting();
+}
@@ -0,0 +1,46 @@
+package com.example.demo.dto.registration;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDateTime;
+
+/**
+ * Handle returned by the registration admission queue. Polled by the client or pushed to
+ * {@code /user/queue/registrations} once the registration has been committed.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+public class RegistrationTicketDTO {
+
+    private String ticketId;
+
+    private Long eventId;
+
+    private Long userId;
+
+    private TicketStatus status;
+
+    // Queue length when the ticket was issued
+    private int position;
+
+    // Set once ADMITTED (PENDING or WAITING registration)
+    private RegistrationDTO registration;
+
+    // Reason when REJECTED
+    private String message;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime completedAt;
+
+    public enum TicketStatus {
+        QUEUED,
+        ADMITTED,
+        REJECTED
+    }
+}
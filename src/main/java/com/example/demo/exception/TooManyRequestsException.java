@@ -0,0 +1,12 @@
+package com.example.demo.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyRequestsException extends BaseException {
+
+    public TooManyRequestsException(String message) {
+        super(message, HttpStatus.TOO_MANY_REQUESTS, "TOO_MANY_REQUESTS");
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDateTime;
+
+/**
+ * New users, events and registrations per hour, so admin growth windows are a sum over a few hundred
+ * buckets instead of COUNT queries over the source tables.
+ */
+@Entity
+@Table(name = "activity_rollup_hourly")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+public class ActivityRollup {
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    private long newUsers;
+
+    private long newEvents;
+
+    private long newRegistrations;
+}
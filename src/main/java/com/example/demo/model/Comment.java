@@ -9,9 +9,14 @@ import lombok.ToString;
 import lombok.experimental.Accessors;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_comment_path", columnList = "path"),
+        @Index(name = "idx_comment_post_like_count", columnList = "post_id, like_count")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -41,6 +46,10 @@ public class Comment {
     @JsonIgnore
     private Comment parentComment;
 
+    // Materialized ancestor path "/rootId/.../id/": the subtree of X is every comment whose path starts with X's path
+    @Column(length = 512)
+    private String path;
+
     @OneToMany(mappedBy = "parentComment", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore
     private List<Comment> replies;
@@ -55,4 +64,32 @@ public class Comment {
 
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime updatedAt;
+
+    // Denormalized counters, only written by CounterDeltaBuffer flushes and reconciliation (never by entity saves)
+    @Column(updatable = false)
+    private int likeCount;
+
+    // Nested replies at any depth
+    @Column(updatable = false)
+    private int replyCount;
+
+    public static String childPath(String parentPath, Long id) {
+        return (parentPath != null ? parentPath : "/") + id + "/";
+    }
+
+    /**
+     * Ids of every ancestor of this comment, root first, taken from the materialized path.
+     */
+    public List<Long> ancestorIds() {
+        List<Long> ancestorIds = new ArrayList<>();
+        if (path == null) {
+            return ancestorIds;
+        }
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty() && !segment.equals(String.valueOf(id))) {
+                ancestorIds.add(Long.parseLong(segment));
+            }
+        }
+        return ancestorIds;
+    }
 }
@@ -50,6 +50,8 @@ public class Event implements Serializable {
 
     private int maxParticipants;
 
+    // Slots taken; only written by the conditional reserve/release UPDATEs and reconciliation (never by entity saves)
+    @Column(updatable = false)
     private int currentRegistrationCount;
 
 
@@ -0,0 +1,54 @@
+package com.example.demo.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-event registration counts by status, kept in step with {@link Registration} in the same transaction
+ * as every status change. Readers use these instead of COUNT queries over the registration table.
+ */
+@Entity
+@Table(name = "event_registration_stats")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+public class EventRegistrationStats {
+
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    private int pendingCount;
+
+    private int approvedCount;
+
+    private int rejectedCount;
+
+    private int cancelledCount;
+
+    private int waitingCount;
+
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public EventRegistrationStats(Long eventId) {
+        this.eventId = eventId;
+    }
+
+    // Registrations occupying a slot
+    public int getParticipantCount() {
+        return pendingCount + approvedCount;
+    }
+
+    public int getTotalCount() {
+        return pendingCount + approvedCount + rejectedCount + cancelledCount + waitingCount;
+    }
+}
@@ -14,7 +14,11 @@ import java.time.LocalDateTime;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "post_likes")
+// A user likes a given post or comment at most once (NULLs never collide, so post and comment likes coexist)
+@Table(name = "post_likes", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_post_likes_user_post", columnNames = {"user_id", "post_id"}),
+        @UniqueConstraint(name = "uk_post_likes_user_comment", columnNames = {"user_id", "comment_id"})
+})
 @ToString(exclude = {"user", "post", "comment"})
 @Accessors(chain = true)
 public class Like {
@@ -0,0 +1,78 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notification written in the business transaction and delivered later by the outbox dispatcher.
+ * A row addresses either one user or an audience (event members, admins) that is resolved at dispatch time.
+ */
+@Entity
+@Table(name = "notification_outbox",
+        indexes = @Index(name = "idx_notification_outbox_status_next_attempt", columnList = "status, next_attempt_at"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+public class NotificationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Audience audience;
+
+    // User id for USER, event id for EVENT_*, unused for ADMINS
+    private Long audienceId;
+
+    // Only set for USER, saves a lookup when pushing over WebSocket
+    private String recipientUsername;
+
+    private Long excludedUserId;
+
+    private String title;
+
+    @Column(length = 1000)
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    private Notification.RelatedType relatedType;
+
+    private Long relatedId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PENDING;
+
+    private int attempts = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime processedAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    public enum Audience {
+        USER,
+        EVENT_REGISTRANTS,
+        EVENT_APPROVED_MEMBERS,
+        ADMINS
+    }
+
+    public enum Status {
+        PENDING,
+        SENT,
+        FAILED
+    }
+}
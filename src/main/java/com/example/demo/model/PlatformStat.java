@@ -0,0 +1,34 @@
+package com.example.demo.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDateTime;
+
+/**
+ * One platform-wide KPI (e.g. {@code users.role.VOLUNTEER}, {@code events.status.ONGOING}) as of the
+ * last snapshot refresh.
+ */
+@Entity
+@Table(name = "platform_stats")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+public class PlatformStat {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(name = "stat_value")
+    private long value;
+
+    private LocalDateTime updatedAt;
+}
@@ -15,6 +15,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+// Keyset order of the event feed: (isPinned, createdAt, id) descending
+@Table(indexes = @Index(name = "idx_post_event_feed", columnList = "event_id, is_pinned, created_at, id"))
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -56,4 +58,11 @@ public class Post {
 
     private LocalDateTime updatedAt;
 
+    // Denormalized counters, only written by CounterDeltaBuffer flushes and reconciliation (never by entity saves)
+    @Column(updatable = false)
+    private int likeCount;
+
+    @Column(updatable = false)
+    private int commentCount;
+
 }
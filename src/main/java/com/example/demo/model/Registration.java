@@ -14,6 +14,8 @@ import java.io.Serializable;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_registration_user_event", columnNames = {"user_id", "event_id"}),
+        indexes = @Index(name = "idx_registration_event_status_registered", columnList = "event_id, status, registered_at"))
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
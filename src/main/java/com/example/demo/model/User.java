@@ -188,18 +188,22 @@ public class User implements UserDetails, Serializable {
      * Falls back to highest priority role if not set
      */
     public Role.RoleName getRole() {
-        if (activeRole != null && hasRole(activeRole)) {
+        return resolveRole(activeRole, getRoleNames());
+    }
+
+    /**
+     * Active role if the user still has it, otherwise the highest priority role held
+     */
+    public static Role.RoleName resolveRole(Role.RoleName activeRole, Set<Role.RoleName> roleNames) {
+        if (activeRole != null && roleNames.contains(activeRole)) {
             return activeRole;
         }
         // Fallback to highest priority role
-        if (roles == null || roles.isEmpty()) {
-            return null;
-        }
-        if (hasRole(Role.RoleName.ADMIN)) {
+        if (roleNames.contains(Role.RoleName.ADMIN)) {
             return Role.RoleName.ADMIN;
-        } else if (hasRole(Role.RoleName.EVENT_MANAGER)) {
+        } else if (roleNames.contains(Role.RoleName.EVENT_MANAGER)) {
             return Role.RoleName.EVENT_MANAGER;
-        } else if (hasRole(Role.RoleName.VOLUNTEER)) {
+        } else if (roleNames.contains(Role.RoleName.VOLUNTEER)) {
             return Role.RoleName.VOLUNTEER;
         }
         return null;
@@ -0,0 +1,12 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.ActivityRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ActivityRollupRepository extends JpaRepository<ActivityRollup, LocalDateTime>, ActivityRollupRepositoryCustom {
+
+    List<ActivityRollup> findByBucketStartGreaterThanEqual(LocalDateTime from);
+}
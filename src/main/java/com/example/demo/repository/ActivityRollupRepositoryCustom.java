@@ -0,0 +1,19 @@
+package com.example.demo.repository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public interface ActivityRollupRepositoryCustom {
+
+    /**
+     * Add {new users, new events, new registrations} deltas to the hourly buckets, creating missing buckets.
+     */
+    void addToBuckets(Map<LocalDateTime, long[]> deltas);
+
+    /**
+     * Recount the buckets in {@code [from, to)} from the users, event and registration tables.
+     *
+     * @return number of buckets written
+     */
+    int rebuild(LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,101 @@
+package com.example.demo.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Hourly activity buckets written with JDBC upserts (one statement per bucket, no read-modify-write)
+ * and recounted from the source tables with one GROUP BY per table.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ActivityRollupRepositoryCustomImpl implements ActivityRollupRepositoryCustom {
+
+    private static final DateTimeFormatter BUCKET_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Table and creation-time column per bucket slot: new users, new events, new registrations
+    private static final String[][] SOURCES = {
+            {"users", "created_at"},
+            {"event", "created_at"},
+            {"registration", "registered_at"}
+    };
+
+    private static final String INSERT_BUCKET =
+            "INSERT INTO activity_rollup_hourly (bucket_start, new_users, new_events, new_registrations) " +
+            "VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public void addToBuckets(Map<LocalDateTime, long[]> deltas) {
+        String sql = isPostgres()
+                ? INSERT_BUCKET + " ON CONFLICT (bucket_start) DO UPDATE SET " +
+                  "new_users = activity_rollup_hourly.new_users + EXCLUDED.new_users, " +
+                  "new_events = activity_rollup_hourly.new_events + EXCLUDED.new_events, " +
+                  "new_registrations = activity_rollup_hourly.new_registrations + EXCLUDED.new_registrations"
+                : INSERT_BUCKET + " ON DUPLICATE KEY UPDATE " +
+                  "new_users = new_users + VALUES(new_users), " +
+                  "new_events = new_events + VALUES(new_events), " +
+                  "new_registrations = new_registrations + VALUES(new_registrations)";
+        jdbcTemplate.batchUpdate(sql, toRows(deltas));
+    }
+
+    @Override
+    @Transactional
+    public int rebuild(LocalDateTime from, LocalDateTime to) {
+        // String bucket keys keep the hour truncation portable between MySQL and PostgreSQL
+        String hour = isPostgres() ? "to_char(%s, 'YYYY-MM-DD HH24:00:00')" : "DATE_FORMAT(%s, '%%Y-%%m-%%d %%H:00:00')";
+
+        Map<LocalDateTime, long[]> buckets = new TreeMap<>();
+        for (int slot = 0; slot < SOURCES.length; slot++) {
+            String table = SOURCES[slot][0];
+            String column = SOURCES[slot][1];
+            int index = slot;
+            jdbcTemplate.query(
+                    "SELECT " + String.format(hour, column) + ", COUNT(*) FROM " + table +
+                    " WHERE " + column + " >= ? AND " + column + " < ? GROUP BY 1",
+                    (RowCallbackHandler) rs -> buckets.computeIfAbsent(
+                            LocalDateTime.parse(rs.getString(1), BUCKET_FORMAT), bucket -> new long[SOURCES.length])
+                            [index] = rs.getLong(2),
+                    Timestamp.valueOf(from), Timestamp.valueOf(to));
+        }
+
+        jdbcTemplate.update("DELETE FROM activity_rollup_hourly WHERE bucket_start >= ? AND bucket_start < ?",
+                Timestamp.valueOf(from), Timestamp.valueOf(to));
+        jdbcTemplate.batchUpdate(INSERT_BUCKET, toRows(buckets));
+        return buckets.size();
+    }
+
+    private static List<Object[]> toRows(Map<LocalDateTime, long[]> buckets) {
+        List<Object[]> rows = new ArrayList<>(buckets.size());
+        buckets.forEach((bucket, counts) ->
+                rows.add(new Object[]{Timestamp.valueOf(bucket), counts[0], counts[1], counts[2]}));
+        return rows;
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            result = product != null && product.toLowerCase().contains("postgres");
+            postgres = result;
+            log.debug("Activity rollup upserts use {} syntax", result ? "PostgreSQL" : "MySQL");
+        }
+        return result;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.common.IdCount;
 import com.example.demo.model.Comment;
 import com.example.demo.model.Event;
 import com.example.demo.model.Post;
@@ -11,6 +12,7 @@ import org.springframework.security.core.parameters.P;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +22,13 @@ public interface CommentRepository extends JpaRepository<Comment, Long>,CommentR
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.parentComment.id = :commentId")
     Integer countRepliesByCommentId(@Param("commentId") Long commentId);
 
+    // Path backfill for rows written before the path column existed: parents are always filled first
+    @Query("SELECT c FROM Comment c LEFT JOIN FETCH c.parentComment p " +
+           "WHERE c.path IS NULL AND (p IS NULL OR p.path IS NOT NULL)")
+    List<Comment> findCommentsReadyForPathBackfill(Pageable pageable);
+
+    long countByPathIsNull();
+
     @Query("SELECT c FROM Comment c LEFT JOIN FETCH c.user LEFT JOIN FETCH c.post WHERE c.id = :commentId")
     Optional<Comment> findByIdWithDetails(@Param("commentId") Long commentId);
 
@@ -36,6 +45,10 @@ public interface CommentRepository extends JpaRepository<Comment, Long>,CommentR
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.post.event.id = :eventId")
     Integer countAllCommentByEventId(Long eventId);
 
+    @Query("SELECT c.post.event.id AS id, COALESCE(SUM(c.likeCount), 0) AS count FROM Comment c " +
+           "WHERE c.post.event.id IN :eventIds GROUP BY c.post.event.id")
+    List<IdCount> sumLikeCountByEventIds(@Param("eventIds") Collection<Long> eventIds);
+
     @Query("SELECT e FROM Event e " +
             "WHERE e.creator.id = :managerId")
     List<Event> findEventsWithPendingRegistrations(@Param("managerId") Long managerId);
@@ -20,6 +20,9 @@ public interface CommentRepositoryCustom {
 
     List<Comment> findRepliesOrderByLatestWithCursorAndLimit(Long parentCommentId, LocalDateTime cursorDate, int limit);
     
-    // Get all replies (flatten) - includes all nested replies at any level
-    List<Comment> findAllRepliesFlattened(Long parentCommentId, int limit);
+    // Get all replies (flatten) - includes all nested replies at any level, keyset paginated on (createdAt, id)
+    List<Comment> findAllRepliesFlattened(Comment rootComment, LocalDateTime cursorDate, Long cursorId, int limit);
+
+    // Total nested replies (any depth) below the comment
+    long countDescendants(Comment comment);
 }
\ No newline at end of file
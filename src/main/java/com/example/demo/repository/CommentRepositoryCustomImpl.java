@@ -7,6 +7,7 @@ import jakarta.persistence.TypedQuery;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Slf4j
@@ -49,10 +50,10 @@ public class CommentRepositoryCustomImpl implements CommentRepositoryCustom {
     public List<Comment> findByPostIdOrderByTopLikedWithLimit(Long postId, int limit) {
         log.debug("Finding top-level comments for post {} ordered by top liked with limit {}", postId, limit);
 
-        String jpql = "SELECT c FROM Comment c LEFT JOIN c.likes l " +
+        // Sorted on the denormalized counter instead of grouping over likes
+        String jpql = "SELECT c FROM Comment c " +
                 "WHERE c.post.id = :postId AND c.parentComment IS NULL " +
-                "GROUP BY c.id " +
-                "ORDER BY COUNT(l) DESC, c.createdAt DESC";
+                "ORDER BY c.likeCount DESC, c.id DESC";
 
         TypedQuery<Comment> query = entityManager.createQuery(jpql, Comment.class);
         query.setParameter("postId", postId);
@@ -67,16 +68,14 @@ public class CommentRepositoryCustomImpl implements CommentRepositoryCustom {
                 postId, cursorLikeCount, cursorId, limit);
 
         // Using tuple comparison (like_count, id) for cursor pagination
-        String jpql = "SELECT c FROM Comment c LEFT JOIN c.likes l " +
+        String jpql = "SELECT c FROM Comment c " +
                 "WHERE c.post.id = :postId AND c.parentComment IS NULL " +
-                "AND ((SELECT COUNT(l2) FROM Like l2 WHERE l2.comment.id = c.id) < :cursorLikeCount " +
-                "     OR ((SELECT COUNT(l2) FROM Like l2 WHERE l2.comment.id = c.id) = :cursorLikeCount AND c.id < :cursorId)) " +
-                "GROUP BY c.id " +
-                "ORDER BY COUNT(l) DESC, c.createdAt DESC";
+                "AND (c.likeCount < :cursorLikeCount OR (c.likeCount = :cursorLikeCount AND c.id < :cursorId)) " +
+                "ORDER BY c.likeCount DESC, c.id DESC";
 
         TypedQuery<Comment> query = entityManager.createQuery(jpql, Comment.class);
         query.setParameter("postId", postId);
-        query.setParameter("cursorLikeCount", cursorLikeCount);
+        query.setParameter("cursorLikeCount", cursorLikeCount.intValue());
         query.setParameter("cursorId", cursorId);
         query.setMaxResults(limit);
 
@@ -115,23 +114,85 @@ public class CommentRepositoryCustomImpl implements CommentRepositoryCustom {
     }
 
     @Override
-    public List<Comment> findAllRepliesFlattened(Long parentCommentId, int limit) {
-        log.debug("Finding all replies (flattened) for parent comment {} with limit {}", parentCommentId, limit);
-        
-        // Get all comments that have this comment as an ancestor (direct or indirect)
-        // This query finds all comments in the subtree starting from parentCommentId
-        // Using a simpler approach: get all comments where parent_comment_id is in the subtree
-        // For now, we'll get direct replies only and let the service layer handle flattening
-        // This is a placeholder - actual flattening will be done in service layer
-        String jpql = "SELECT c FROM Comment c WHERE c.parentComment.id = :parentCommentId " +
+    public List<Comment> findAllRepliesFlattened(Comment rootComment, LocalDateTime cursorDate, Long cursorId, int limit) {
+        log.debug("Finding all replies (flattened) for comment {} with cursor ({}, {}) and limit {}",
+                rootComment.getId(), cursorDate, cursorId, limit);
+
+        if (rootComment.getPath() == null) {
+            // Not backfilled yet: the prefix would be "null%" and silently match no replies
+            log.warn("Comment {} has no path, collecting its replies by parent id", rootComment.getId());
+            return findRepliesFlattenedByParentIds(rootComment.getId(), cursorDate, cursorId, limit);
+        }
+
+        // Every comment below the root shares its path prefix, so the whole subtree is one indexed range
+        String jpql = "SELECT c FROM Comment c WHERE c.path LIKE :pathPrefix AND c.id <> :rootId " +
+                (cursorDate != null
+                        ? "AND (c.createdAt < :cursorDate OR (c.createdAt = :cursorDate AND c.id < :cursorId)) "
+                        : "") +
                 "ORDER BY c.createdAt DESC, c.id DESC";
-        
+
         TypedQuery<Comment> query = entityManager.createQuery(jpql, Comment.class);
-        query.setParameter("parentCommentId", parentCommentId);
-        if (limit > 0) {
-            query.setMaxResults(limit);
+        query.setParameter("pathPrefix", rootComment.getPath() + "%");
+        query.setParameter("rootId", rootComment.getId());
+        if (cursorDate != null) {
+            query.setParameter("cursorDate", cursorDate);
+            query.setParameter("cursorId", cursorId);
+        }
+        query.setMaxResults(limit);
+
+        return query.getResultList();
+    }
+
+    @Override
+    public long countDescendants(Comment comment) {
+        if (comment.getPath() == null) {
+            log.warn("Comment {} has no path, counting its replies by parent id", comment.getId());
+            return subtreeIds(comment.getId()).size();
+        }
+
+        // The prefix is bound as a literal, so the count is one range scan of the path index
+        return entityManager.createQuery(
+                        "SELECT COUNT(c) FROM Comment c WHERE c.path LIKE :pathPrefix AND c.id <> :rootId", Long.class)
+                .setParameter("pathPrefix", comment.getPath() + "%")
+                .setParameter("rootId", comment.getId())
+                .getSingleResult();
+    }
+
+    // One page query over the ids collected by the level-by-level walk
+    private List<Comment> findRepliesFlattenedByParentIds(Long rootId, LocalDateTime cursorDate, Long cursorId, int limit) {
+        List<Long> subtree = subtreeIds(rootId);
+        if (subtree.isEmpty()) {
+            return List.of();
         }
-        
+
+        String jpql = "SELECT c FROM Comment c WHERE c.id IN :ids " +
+                (cursorDate != null
+                        ? "AND (c.createdAt < :cursorDate OR (c.createdAt = :cursorDate AND c.id < :cursorId)) "
+                        : "") +
+                "ORDER BY c.createdAt DESC, c.id DESC";
+
+        TypedQuery<Comment> query = entityManager.createQuery(jpql, Comment.class);
+        query.setParameter("ids", subtree);
+        if (cursorDate != null) {
+            query.setParameter("cursorDate", cursorDate);
+            query.setParameter("cursorId", cursorId);
+        }
+        query.setMaxResults(limit);
+
         return query.getResultList();
     }
+
+    // Ids below the root by parent id, one query per depth, for comments the path backfill has not reached
+    private List<Long> subtreeIds(Long rootId) {
+        List<Long> subtree = new ArrayList<>();
+        List<Long> level = List.of(rootId);
+        while (!level.isEmpty()) {
+            level = entityManager.createQuery(
+                            "SELECT c.id FROM Comment c WHERE c.parentComment.id IN :parentIds", Long.class)
+                    .setParameter("parentIds", level)
+                    .getResultList();
+            subtree.addAll(level);
+        }
+        return subtree;
+    }
 }
@@ -0,0 +1,41 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.registration.RegistrationStatusTotals;
+import com.example.demo.model.EventRegistrationStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface EventRegistrationStatsRepository extends JpaRepository<EventRegistrationStats, Long> {
+
+    // Relative update, so concurrent transitions on the same event never overwrite each other
+    @Modifying
+    @Query("UPDATE EventRegistrationStats s SET " +
+           "s.pendingCount = s.pendingCount + :pending, " +
+           "s.approvedCount = s.approvedCount + :approved, " +
+           "s.rejectedCount = s.rejectedCount + :rejected, " +
+           "s.cancelledCount = s.cancelledCount + :cancelled, " +
+           "s.waitingCount = s.waitingCount + :waiting, " +
+           "s.updatedAt = :now " +
+           "WHERE s.eventId = :eventId")
+    int applyDelta(@Param("eventId") Long eventId,
+                   @Param("pending") int pending,
+                   @Param("approved") int approved,
+                   @Param("rejected") int rejected,
+                   @Param("cancelled") int cancelled,
+                   @Param("waiting") int waiting,
+                   @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM EventRegistrationStats s WHERE s.eventId IN (SELECT e.id FROM Event e WHERE e.creator.id = :creatorId)")
+    int deleteByEventCreatorId(@Param("creatorId") Long creatorId);
+
+    @Query("SELECT COALESCE(SUM(s.pendingCount), 0) AS pending, COALESCE(SUM(s.approvedCount), 0) AS approved, " +
+           "COALESCE(SUM(s.rejectedCount), 0) AS rejected, COALESCE(SUM(s.cancelledCount), 0) AS cancelled, " +
+           "COALESCE(SUM(s.waitingCount), 0) AS waiting " +
+           "FROM EventRegistrationStats s, Event e WHERE e.id = s.eventId AND e.creator.id = :managerId")
+    RegistrationStatusTotals sumByManager(@Param("managerId") Long managerId);
+}
@@ -1,23 +1,31 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.common.IdCount;
+import com.example.demo.dto.event.EventCandidateRow;
+import com.example.demo.dto.event.EventStatusTotal;
+import com.example.demo.dto.event.EventTagRow;
 import com.example.demo.model.Event;
 import com.example.demo.model.Post;
 import com.example.demo.model.Tag;
 import org.springframework.cglib.core.Local;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event,Long> {
+public interface EventRepository extends JpaRepository<Event,Long>, EventRepositoryCustom {
     Optional<Event> findByTitleAndDescriptionAndDateAndLocationAndMaxParticipants(
             String title,
             String description,
@@ -51,6 +59,9 @@ public interface EventRepository extends JpaRepository<Event,Long> {
     Integer countEventsByManagerAndStatus(@Param("managerId") Long managerId, 
                                           @Param("status") Event.EventStatus status);
 
+    @Query("SELECT e.status AS status, COUNT(e) AS count FROM Event e WHERE e.creator.id = :managerId GROUP BY e.status")
+    List<EventStatusTotal> countEventsByManagerGroupByStatus(@Param("managerId") Long managerId);
+
         @Query("SELECT e FROM Event e WHERE e.creator.id = :managerId " +
                "AND e.date BETWEEN :startDate AND :endDate " +
                "ORDER BY e.date ASC")
@@ -102,4 +113,46 @@ public interface EventRepository extends JpaRepository<Event,Long> {
    \s""")
     List<Event> findCandidateEvents(Pageable pageable);
 
+    // Same candidates as findCandidateEvents, without materializing the entities
+    @Query("SELECT e.id AS id, e.date AS date, e.maxParticipants AS maxParticipants, e.creator.id AS creatorId " +
+           "FROM Event e WHERE e.date > CURRENT_TIMESTAMP AND e.maxParticipants > e.currentRegistrationCount " +
+           "ORDER BY e.date")
+    List<EventCandidateRow> findCandidateRows(Pageable pageable);
+
+    @Query("SELECT e.id AS eventId, t.id AS tagId FROM Event e JOIN e.tags t WHERE e.id IN :eventIds")
+    List<EventTagRow> findTagIdsByEventIds(@Param("eventIds") Collection<Long> eventIds);
+
+    @Query("SELECT e.creator.id AS id, COUNT(e) AS count FROM Event e " +
+           "WHERE e.creator.id IN :creatorIds GROUP BY e.creator.id")
+    List<IdCount> countEventsByCreatorIds(@Param("creatorIds") Collection<Long> creatorIds);
+
+    @Query("SELECT e.creator.id AS id, COUNT(e) AS count FROM Event e " +
+           "WHERE e.creator.id IN :creatorIds AND e.status = :status GROUP BY e.creator.id")
+    List<IdCount> countEventsByCreatorIdsAndStatus(@Param("creatorIds") Collection<Long> creatorIds,
+                                                   @Param("status") Event.EventStatus status);
+
+    // Capacity reservation as one conditional statement: 0 rows means the event is full
+    @Modifying
+    @Query("UPDATE Event e SET e.currentRegistrationCount = e.currentRegistrationCount + 1 " +
+           "WHERE e.id = :eventId AND e.currentRegistrationCount < e.maxParticipants")
+    int tryReserveSlot(@Param("eventId") Long eventId);
+
+    // Batch admission holds the row lock from findByIdForUpdate, so the caller already knows the slots are free
+    @Modifying
+    @Query("UPDATE Event e SET e.currentRegistrationCount = e.currentRegistrationCount + :slots WHERE e.id = :eventId")
+    int reserveSlots(@Param("eventId") Long eventId, @Param("slots") int slots);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Event e WHERE e.id = :eventId")
+    Optional<Event> findByIdForUpdate(@Param("eventId") Long eventId);
+
+    // Scalar read, so it sees bulk updates that a managed Event instance in the session would hide
+    @Query("SELECT e.maxParticipants - e.currentRegistrationCount FROM Event e WHERE e.id = :eventId")
+    Integer findFreeSlots(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.currentRegistrationCount = e.currentRegistrationCount - 1 " +
+           "WHERE e.id = :eventId AND e.currentRegistrationCount > 0")
+    int releaseSlot(@Param("eventId") Long eventId);
+
 }
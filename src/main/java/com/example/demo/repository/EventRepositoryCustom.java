@@ -0,0 +1,22 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.export.EventExportRow;
+import com.example.demo.model.Event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EventRepositoryCustom {
+
+    /**
+     * Up to {@code limit} export rows with {@code afterId < id <= toId}, in id order, creator fields and
+     * registration count included. Null filters are ignored; the date range is exclusive at both ends.
+     */
+    List<EventExportRow> findExportRows(long afterId, long toId, Event.EventStatus status,
+                                        LocalDateTime start, LocalDateTime end, int limit);
+
+    /**
+     * Lowest and highest id matching the export filters, or null when nothing matches.
+     */
+    long[] findExportIdRange(Event.EventStatus status, LocalDateTime start, LocalDateTime end);
+}
@@ -0,0 +1,95 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.export.EventExportRow;
+import com.example.demo.model.Event;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Export rows read with one statement per chunk: the creator is joined and the registration count comes from
+ * {@code event_registration_stats}, so neither the creator proxy nor a per-event COUNT is ever touched.
+ */
+@RequiredArgsConstructor
+public class EventRepositoryCustomImpl implements EventRepositoryCustom {
+
+    private static final String SELECT_EXPORT_ROWS =
+            "SELECT e.id, e.title, e.description, e.date, e.location, e.status, e.max_participants, " +
+            "COALESCE(s.pending_count + s.approved_count + s.rejected_count + s.cancelled_count + s.waiting_count, 0), " +
+            "c.username, c.email, e.created_at, e.updated_at " +
+            "FROM event e " +
+            "JOIN users c ON c.id = e.creator_id " +
+            "LEFT JOIN event_registration_stats s ON s.event_id = e.id " +
+            "WHERE e.id > ? AND e.id <= ?";
+
+    private static final String SELECT_EXPORT_ID_RANGE = "SELECT MIN(e.id), MAX(e.id) FROM event e WHERE 1 = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<EventExportRow> findExportRows(long afterId, long toId, Event.EventStatus status,
+                                               LocalDateTime start, LocalDateTime end, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_EXPORT_ROWS);
+        List<Object> args = new ArrayList<>();
+        args.add(afterId);
+        args.add(toId);
+        appendFilters(sql, args, status, start, end);
+        sql.append(" ORDER BY e.id LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new EventExportRow(
+                rs.getLong(1),
+                rs.getString(2),
+                rs.getString(3),
+                toLocalDateTime(rs, 4),
+                rs.getString(5),
+                Event.EventStatus.valueOf(rs.getString(6)),
+                rs.getInt(7),
+                rs.getLong(8),
+                rs.getString(9),
+                rs.getString(10),
+                toLocalDateTime(rs, 11),
+                toLocalDateTime(rs, 12)
+        ), args.toArray());
+    }
+
+    @Override
+    public long[] findExportIdRange(Event.EventStatus status, LocalDateTime start, LocalDateTime end) {
+        StringBuilder sql = new StringBuilder(SELECT_EXPORT_ID_RANGE);
+        List<Object> args = new ArrayList<>();
+        appendFilters(sql, args, status, start, end);
+        return jdbcTemplate.query(sql.toString(), (ResultSetExtractor<long[]>) rs -> {
+            rs.next();
+            long min = rs.getLong(1);
+            return rs.wasNull() ? null : new long[]{min, rs.getLong(2)};
+        }, args.toArray());
+    }
+
+    private static void appendFilters(StringBuilder sql, List<Object> args, Event.EventStatus status,
+                                      LocalDateTime start, LocalDateTime end) {
+        if (status != null) {
+            sql.append(" AND e.status = ?");
+            args.add(status.name());
+        }
+        if (start != null) {
+            sql.append(" AND e.date > ?");
+            args.add(Timestamp.valueOf(start));
+        }
+        if (end != null) {
+            sql.append(" AND e.date < ?");
+            args.add(Timestamp.valueOf(end));
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(ResultSet rs, int column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
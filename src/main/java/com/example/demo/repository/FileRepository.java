@@ -1,9 +1,19 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.file.PostFileView;
 import com.example.demo.model.FileRecord;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface FileRepository extends JpaRepository<FileRecord, Long> {
+
+    @Query("SELECT f.post.id AS postId, f.id AS id, f.fileName AS fileName, f.url AS url, f.fileType AS fileType " +
+           "FROM FileRecord f WHERE f.post.id IN :postIds ORDER BY f.id")
+    List<PostFileView> findPostFilesByPostIds(@Param("postIds") Collection<Long> postIds);
 }
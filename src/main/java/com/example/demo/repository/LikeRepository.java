@@ -7,9 +7,10 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface LikeRepository extends JpaRepository<Like, Long> {
+public interface LikeRepository extends JpaRepository<Like, Long>, LikeRepositoryCustom {
 
     @Query("SELECT l FROM Like l WHERE l.post.id = :postId AND l.user.id = :userId")
     Like findByPostIdAndUserId(Long postId, Long userId);
@@ -23,6 +24,9 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
     @Query("SELECT COUNT(l) FROM Like l WHERE l.comment.id = :commentId")
     Integer countLikesByCommentId(@Param("commentId") Long commentId);
 
+    @Query("SELECT l.comment.id FROM Like l WHERE l.user.id = :userId AND l.comment.id IN :commentIds")
+    List<Long> findLikedCommentIds(@Param("userId") Long userId, @Param("commentIds") Collection<Long> commentIds);
+
     @Query("SELECT COUNT(l) FROM Like l WHERE l.post.event.id = :eventId")
     Integer countAllLikePostsByEventId(Long eventId);
 
@@ -0,0 +1,21 @@
+package com.example.demo.repository;
+
+public interface LikeRepositoryCustom {
+
+    /**
+     * Take the row lock of the user until the transaction ends, so the like toggles of one user run one at a time.
+     */
+    void lockUserLikes(Long userId);
+
+    /**
+     * Insert the like unless the user already likes the post. Returns false when the row already existed,
+     * so concurrent double taps never produce duplicates.
+     */
+    boolean insertPostLikeIfAbsent(Long userId, Long postId);
+
+    boolean insertCommentLikeIfAbsent(Long userId, Long commentId);
+
+    int deletePostLike(Long userId, Long postId);
+
+    int deleteCommentLike(Long userId, Long commentId);
+}
@@ -0,0 +1,71 @@
+package com.example.demo.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Like writes as single conditional statements backed by the unique (user_id, post_id) and
+ * (user_id, comment_id) indexes on post_likes, instead of read-then-write.
+ * <p>
+ * Toggles insert first and delete only a row the insert found, so no DELETE of a missing row takes an InnoDB gap
+ * lock that a concurrent insert then waits on.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class LikeRepositoryCustomImpl implements LikeRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public void lockUserLikes(Long userId) {
+        jdbcTemplate.queryForList("SELECT id FROM users WHERE id = ? FOR UPDATE", Long.class, userId);
+    }
+
+    @Override
+    public boolean insertPostLikeIfAbsent(Long userId, Long postId) {
+        return insertIfAbsent("post_id", userId, postId);
+    }
+
+    @Override
+    public boolean insertCommentLikeIfAbsent(Long userId, Long commentId) {
+        return insertIfAbsent("comment_id", userId, commentId);
+    }
+
+    @Override
+    public int deletePostLike(Long userId, Long postId) {
+        return jdbcTemplate.update("DELETE FROM post_likes WHERE user_id = ? AND post_id = ?", userId, postId);
+    }
+
+    @Override
+    public int deleteCommentLike(Long userId, Long commentId) {
+        return jdbcTemplate.update("DELETE FROM post_likes WHERE user_id = ? AND comment_id = ?", userId, commentId);
+    }
+
+    private boolean insertIfAbsent(String targetColumn, Long userId, Long targetId) {
+        // PostgreSQL reports 0 rows on conflict without aborting the transaction; on MySQL INSERT IGNORE
+        // does the same (callers have already checked the target exists, so no FK error is swallowed)
+        String sql = isPostgres()
+                ? "INSERT INTO post_likes (user_id, " + targetColumn + ", created_at) VALUES (?, ?, ?) ON CONFLICT DO NOTHING"
+                : "INSERT IGNORE INTO post_likes (user_id, " + targetColumn + ", created_at) VALUES (?, ?, ?)";
+        return jdbcTemplate.update(sql, userId, targetId, Timestamp.valueOf(LocalDateTime.now())) == 1;
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            result = product != null && product.toLowerCase().contains("postgres");
+            postgres = result;
+            log.debug("Like upserts use {} syntax", result ? "PostgreSQL" : "MySQL");
+        }
+        return result;
+    }
+}
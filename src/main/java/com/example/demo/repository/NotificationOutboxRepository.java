@@ -0,0 +1,42 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    // Rows locked by another dispatcher are skipped instead of waited on (MySQL 8+ / PostgreSQL 9.5+)
+    @Query(value = "SELECT * FROM notification_outbox " +
+            "WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<NotificationOutbox> lockNextBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.status = :status, o.processedAt = :processedAt WHERE o.id IN :ids")
+    int markProcessed(@Param("ids") Collection<Long> ids,
+                      @Param("status") NotificationOutbox.Status status,
+                      @Param("processedAt") LocalDateTime processedAt);
+
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.status = :status, o.nextAttemptAt = :nextAttemptAt, " +
+           "o.lastError = :lastError WHERE o.id = :id")
+    int markForRetry(@Param("id") Long id,
+                     @Param("status") NotificationOutbox.Status status,
+                     @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                     @Param("lastError") String lastError);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox o WHERE o.status = 'SENT' AND o.processedAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    long countByStatus(NotificationOutbox.Status status);
+}
@@ -11,4 +11,10 @@ public interface NotificationRepositoryCustom {
     public List<Notification> findByLatestWithLimit(Long userId, int limit);
 
     public List<Notification> findByLatestWithCursorAndLimit(Long userId, LocalDateTime cursorDate, int limit);
+
+    // JDBC batch insert of the same notification for many users, returns generated ids in input order
+    public List<Long> batchInsertForUsers(Notification template, List<Long> userIds);
+
+    // JDBC batch insert of independent notifications (user must carry its id), returns generated ids in input order
+    public List<Long> batchInsert(List<Notification> notifications);
 }
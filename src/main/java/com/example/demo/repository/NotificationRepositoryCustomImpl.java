@@ -5,17 +5,34 @@ import com.example.demo.model.Notification;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
 
 @Slf4j
+@RequiredArgsConstructor
 public class NotificationRepositoryCustomImpl implements NotificationRepositoryCustom{
 
+    private static final String INSERT_NOTIFICATION_SQL =
+            "INSERT INTO notification (title, message, related_type, related_id, created_at, read_status, user_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    private final JdbcTemplate jdbcTemplate;
+
     @Override
     public List<Notification> findByLatestWithLimit(Long userId, int limit) {
         log.debug("Finding notifications ordered by latest with limit {}", limit);
@@ -43,4 +60,56 @@ public class NotificationRepositoryCustomImpl implements NotificationRepositoryC
 
         return query.getResultList();
     }
+
+    @Override
+    public List<Long> batchInsertForUsers(Notification template, List<Long> userIds) {
+        log.debug("Batch inserting notification '{}' for {} users", template.getTitle(), userIds.size());
+        return insertBatch(userIds.size(), i -> template, userIds::get);
+    }
+
+    @Override
+    public List<Long> batchInsert(List<Notification> notifications) {
+        log.debug("Batch inserting {} notifications", notifications.size());
+        return insertBatch(notifications.size(), notifications::get, i -> notifications.get(i).getUser().getId());
+    }
+
+    private List<Long> insertBatch(int size, IntFunction<Notification> notificationAt, IntFunction<Long> userIdAt) {
+        if (size == 0) {
+            return List.of();
+        }
+
+        // IDENTITY ids disable Hibernate insert batching, so go through JDBC directly
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_NOTIFICATION_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Notification notification = notificationAt.apply(i);
+                        ps.setString(1, notification.getTitle());
+                        ps.setString(2, notification.getMessage());
+                        if (notification.getRelatedType() != null) {
+                            ps.setInt(3, notification.getRelatedType().ordinal());
+                        } else {
+                            ps.setNull(3, Types.INTEGER);
+                        }
+                        ps.setObject(4, notification.getRelatedId(), Types.BIGINT);
+                        ps.setTimestamp(5, Timestamp.valueOf(notification.getCreatedAt()));
+                        ps.setBoolean(6, notification.isReadStatus());
+                        ps.setLong(7, userIdAt.apply(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return size;
+                    }
+                },
+                keyHolder);
+
+        // MySQL reports the key as GENERATED_KEY, PostgreSQL as id - take the single value either way
+        return keyHolder.getKeyList().stream()
+                .map(Map::values)
+                .map(values -> ((Number) values.iterator().next()).longValue())
+                .toList();
+    }
 }
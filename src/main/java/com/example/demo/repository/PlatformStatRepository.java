@@ -0,0 +1,7 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.PlatformStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface PlatformStatRepository extends JpaRepository<PlatformStat, String> {
+}
@@ -1,17 +1,20 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.common.IdCount;
 import com.example.demo.model.Post;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface PostRepository extends JpaRepository<Post, Long> {
+public interface PostRepository extends JpaRepository<Post, Long>, PostRepositoryCustom {
 
     @EntityGraph(attributePaths = {"fileRecords"})
     @Query("SELECT p FROM Post p WHERE p.event.id = :eventId")
@@ -23,4 +26,12 @@ public interface PostRepository extends JpaRepository<Post, Long> {
 
     @Query("SELECT p FROM Post p WHERE p.postCreator.id = :userId ORDER BY p.createdAt DESC")
     List<Post> findPostsByUserId(Long userId, Pageable pageable);
+
+    @Query("SELECT p.event.id AS id, COALESCE(SUM(p.likeCount), 0) AS count FROM Post p " +
+           "WHERE p.event.id IN :eventIds GROUP BY p.event.id")
+    List<IdCount> sumLikeCountByEventIds(@Param("eventIds") Collection<Long> eventIds);
+
+    @Query("SELECT p.event.id AS id, COALESCE(SUM(p.commentCount), 0) AS count FROM Post p " +
+           "WHERE p.event.id IN :eventIds GROUP BY p.event.id")
+    List<IdCount> sumCommentCountByEventIds(@Param("eventIds") Collection<Long> eventIds);
 }
@@ -0,0 +1,20 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.post_content.PostActivityRow;
+import com.example.demo.dto.post_content.PostFeedRow;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PostRepositoryCustom {
+
+    List<PostFeedRow> findFeedWithLimit(Long eventId, Long currentUserId, int limit);
+
+    List<PostFeedRow> findFeedWithCursorAndLimit(Long eventId, Long currentUserId, boolean cursorPinned,
+                                                 LocalDateTime cursorDate, Long cursorId, int limit);
+
+    /**
+     * Newest posts over all events of a manager, at most {@code perEvent} per event, newest first.
+     */
+    List<PostActivityRow> findLatestPostsPerEventByManager(Long managerId, int perEvent, int limit);
+}
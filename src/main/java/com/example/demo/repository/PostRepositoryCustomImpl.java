@@ -0,0 +1,95 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.post_content.PostActivityRow;
+import com.example.demo.dto.post_content.PostFeedRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+public class PostRepositoryCustomImpl implements PostRepositoryCustom {
+
+    // Everything the feed shows, including the current user's like, in one row per post
+    private static final String FEED_SELECT =
+            "SELECT new com.example.demo.dto.post_content.PostFeedRow(" +
+            "p.id, p.content, u.id, u.username, u.firstName, u.lastName, u.imageUrl, " +
+            "p.likeCount, p.commentCount, p.isPinned, " +
+            "CASE WHEN EXISTS (SELECT 1 FROM Like l WHERE l.post.id = p.id AND l.user.id = :currentUserId) " +
+            "THEN true ELSE false END, " +
+            "p.createdAt, p.updatedAt) " +
+            "FROM Post p JOIN p.postCreator u " +
+            "WHERE p.event.id = :eventId ";
+
+    // Window function keeps the newest N per event in the database instead of loading every post
+    private static final String LATEST_POSTS_PER_EVENT =
+            "SELECT x.event_id, x.title, x.username, x.created_at FROM (" +
+            "SELECT p.event_id, e.title, u.username, p.created_at, " +
+            "ROW_NUMBER() OVER (PARTITION BY p.event_id ORDER BY p.created_at DESC, p.id DESC) AS rn " +
+            "FROM post p JOIN event e ON e.id = p.event_id JOIN users u ON u.id = p.user_id " +
+            "WHERE e.creator_id = :managerId) x " +
+            "WHERE x.rn <= :perEvent ORDER BY x.created_at DESC";
+
+    private static final String FEED_ORDER = "ORDER BY p.isPinned DESC, p.createdAt DESC, p.id DESC";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PostFeedRow> findFeedWithLimit(Long eventId, Long currentUserId, int limit) {
+        log.debug("Finding feed for event {} with limit {}", eventId, limit);
+
+        TypedQuery<PostFeedRow> query = entityManager.createQuery(FEED_SELECT + FEED_ORDER, PostFeedRow.class);
+        query.setParameter("eventId", eventId);
+        query.setParameter("currentUserId", currentUserId);
+        query.setMaxResults(limit);
+
+        return query.getResultList();
+    }
+
+    @Override
+    public List<PostFeedRow> findFeedWithCursorAndLimit(Long eventId, Long currentUserId, boolean cursorPinned,
+                                                        LocalDateTime cursorDate, Long cursorId, int limit) {
+        log.debug("Finding feed for event {} with cursor (pinned={}, createdAt={}, id={}) and limit {}",
+                eventId, cursorPinned, cursorDate, cursorId, limit);
+
+        // Tuple comparison on (isPinned, createdAt, id) all descending; booleans only compare for equality
+        String after = "(p.createdAt < :cursorDate OR (p.createdAt = :cursorDate AND p.id < :cursorId))";
+        String jpql = FEED_SELECT +
+                (cursorPinned
+                        ? "AND (p.isPinned = false OR (p.isPinned = true AND " + after + ")) "
+                        : "AND p.isPinned = false AND " + after + " ") +
+                FEED_ORDER;
+
+        TypedQuery<PostFeedRow> query = entityManager.createQuery(jpql, PostFeedRow.class);
+        query.setParameter("eventId", eventId);
+        query.setParameter("currentUserId", currentUserId);
+        query.setParameter("cursorDate", cursorDate);
+        query.setParameter("cursorId", cursorId);
+        query.setMaxResults(limit);
+
+        return query.getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<PostActivityRow> findLatestPostsPerEventByManager(Long managerId, int perEvent, int limit) {
+        List<Object[]> rows = entityManager.createNativeQuery(LATEST_POSTS_PER_EVENT)
+                .setParameter("managerId", managerId)
+                .setParameter("perEvent", perEvent)
+                .setMaxResults(limit)
+                .getResultList();
+
+        return rows.stream()
+                .map(row -> new PostActivityRow(
+                        ((Number) row[0]).longValue(),
+                        (String) row[1],
+                        (String) row[2],
+                        row[3] instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) row[3]))
+                .toList();
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.common.IdCount;
 import com.example.demo.dto.event.EventDTO;
+import com.example.demo.dto.notification.NotificationRecipient;
 import com.example.demo.model.Event;
 import com.example.demo.model.Registration;
 import org.springframework.data.domain.Page;
@@ -11,6 +13,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import org.springframework.data.domain.Pageable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,9 +37,21 @@ public interface RegistrationRepository extends JpaRepository<Registration, Long
     
     Integer countByUserId(Long userId);
 
-    @Query("SELECT r FROM Registration r WHERE r.event.id = :eventId AND r.status = 'WAITING' " +
-            "ORDER BY r.registeredAt ASC ")
-    List<Registration> findEarliestWaitingRegistration(Long eventId);
+    @Query("SELECT r.user.id AS id, COUNT(r) AS count FROM Registration r WHERE r.user.id IN :userIds GROUP BY r.user.id")
+    List<IdCount> countByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    // Waitlist head over the (event_id, status, registered_at) index
+    @Query("SELECT r.id FROM Registration r WHERE r.event.id = :eventId AND r.status = 'WAITING' " +
+            "ORDER BY r.registeredAt ASC, r.id ASC")
+    List<Long> findEarliestWaitingIds(@Param("eventId") Long eventId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Registration r SET r.status = 'PENDING' WHERE r.id IN :ids AND r.status = 'WAITING'")
+    int promoteWaiting(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.example.demo.dto.notification.NotificationRecipient(u.id, u.username) " +
+           "FROM Registration r JOIN r.user u WHERE r.id IN :ids")
+    List<NotificationRecipient> findRecipientsByRegistrationIds(@Param("ids") Collection<Long> ids);
 
     @Modifying
     @Query("DELETE FROM Registration r WHERE r.event.id = :eventId AND r.user.id = :userId")
@@ -70,11 +85,27 @@ public interface RegistrationRepository extends JpaRepository<Registration, Long
     // Find all registrations for a specific event with a given status (no pagination)
     List<Registration> findByEventIdAndStatus(Long eventId, Registration.RegistrationStatus status);
 
+    // Notification fan-out: recipients as (id, username) projections, no entity loading
+    @Query("SELECT DISTINCT new com.example.demo.dto.notification.NotificationRecipient(u.id, u.username) " +
+           "FROM Registration r JOIN r.user u WHERE r.event.id = :eventId")
+    List<NotificationRecipient> findRecipientsByEventId(@Param("eventId") Long eventId);
+
+    @Query("SELECT new com.example.demo.dto.notification.NotificationRecipient(u.id, u.username) " +
+           "FROM Registration r JOIN r.user u " +
+           "WHERE r.event.id = :eventId AND r.status = :status AND u.id <> :excludedUserId")
+    List<NotificationRecipient> findRecipientsByEventIdAndStatusExcludingUser(@Param("eventId") Long eventId,
+                                                                              @Param("status") Registration.RegistrationStatus status,
+                                                                              @Param("excludedUserId") Long excludedUserId);
+
     @Query("SELECT r FROM Registration r WHERE r.user.id = :userId AND r.status = :registrationStatus")
     List<Registration> findRecentRegistrations(@Param("userId") Long userId, Registration.RegistrationStatus registrationStatus,
                                                         Pageable pageable);
     
     Page<Registration> findByUserId(Long userId, Pageable pageable);
+
+    // The user's registrations on events of other creators; the ones on their own events go with the events
+    @Query("SELECT r FROM Registration r JOIN FETCH r.event e WHERE r.user.id = :userId AND e.creator.id <> :userId")
+    List<Registration> findByUserIdOnOtherCreatorsEvents(@Param("userId") Long userId);
     
     // Admin Dashboard queries
     @Query("SELECT COUNT(r) FROM Registration r WHERE r.status = :status")
@@ -86,4 +117,9 @@ public interface RegistrationRepository extends JpaRepository<Registration, Long
     @Query("SELECT r FROM Registration r ORDER BY r.registeredAt DESC")
     List<Registration> findRecentRegistrations(Pageable pageable);
 
+    @Query("SELECT r.user.id FROM Registration r WHERE r.event.id = :eventId AND r.user.id IN :userIds")
+    List<Long> findRegisteredUserIds(@Param("eventId") Long eventId, @Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT r.user.id FROM Registration r WHERE r.event.id = :eventId")
+    List<Long> findUserIdsByEventId(@Param("eventId") Long eventId);
 }
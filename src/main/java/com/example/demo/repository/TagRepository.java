@@ -16,4 +16,7 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
     @Query("SELECT t FROM Tag t JOIN t.users u WHERE u.id = :userId")
     Set<Tag> findAllVolunteerTags(Long userId);
 
+    @Query("SELECT t.id FROM User u JOIN u.tags t WHERE u.id = :userId")
+    List<Long> findTagIdsByUserId(Long userId);
+
 }
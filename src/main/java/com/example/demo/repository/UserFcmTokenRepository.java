@@ -4,8 +4,10 @@ import com.example.demo.model.User;
 import com.example.demo.model.UserFcmToken;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +18,7 @@ public interface UserFcmTokenRepository extends JpaRepository<UserFcmToken, Long
     Optional<UserFcmToken> findByUser(User user);
 
     List<UserFcmToken> findAllByUser(User user);
+
+    @Query("SELECT u.token FROM UserFcmToken u WHERE u.user.id IN :userIds")
+    List<String> findTokensByUserIds(@Param("userIds") Collection<Long> userIds);
 }
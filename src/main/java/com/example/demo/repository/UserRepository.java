@@ -1,5 +1,6 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.notification.NotificationRecipient;
 import com.example.demo.model.Role;
 import com.example.demo.model.User;
 import org.springframework.data.domain.Page;
@@ -13,7 +14,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 
     Optional<User> findUserByUsername(String username);
 
@@ -43,6 +44,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u JOIN u.roles r WHERE r.name = 'ADMIN'")
     List<User> findAllAdmin();
 
+    @Query("SELECT u.id FROM User u JOIN u.roles r WHERE r.name = 'ADMIN'")
+    List<Long> findAdminIds();
+
+    @Query("SELECT new com.example.demo.dto.notification.NotificationRecipient(u.id, u.username) " +
+           "FROM User u JOIN u.roles r WHERE r.name = 'ADMIN'")
+    List<NotificationRecipient> findAllAdminRecipients();
+
     Optional<User> getUserByUsername(String username);
 
     User getUserById(Long id);
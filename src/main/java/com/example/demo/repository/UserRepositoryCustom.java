@@ -0,0 +1,20 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.export.UserExportRow;
+import com.example.demo.model.Role;
+
+import java.util.List;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Up to {@code limit} export rows with {@code afterId < id <= toId}, in id order, with events created and
+     * registrations counted. Null filters are ignored.
+     */
+    List<UserExportRow> findExportRows(long afterId, long toId, Role.RoleName role, Boolean enabled, int limit);
+
+    /**
+     * Lowest and highest id matching the export filters, or null when nothing matches.
+     */
+    long[] findExportIdRange(Role.RoleName role, Boolean enabled);
+}
@@ -0,0 +1,146 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.export.UserExportRow;
+import com.example.demo.model.Role;
+import com.example.demo.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Export rows read with three statements per chunk, whatever its size: the user columns, their roles, and the
+ * events-created and registration counts from grouped subqueries over the chunk's id range.
+ */
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final String SELECT_EXPORT_ROWS =
+            "SELECT u.id, u.username, u.email, u.first_name, u.last_name, u.phone_number, u.address, " +
+            "u.active_role, u.enabled, u.auth_provider, u.created_at, u.updated_at " +
+            "FROM users u WHERE u.id > ? AND u.id <= ?";
+
+    private static final String SELECT_EXPORT_ID_RANGE = "SELECT MIN(u.id), MAX(u.id) FROM users u WHERE 1 = 1";
+
+    private static final String ROLE_FILTER =
+            " AND EXISTS (SELECT 1 FROM user_roles fr JOIN roles r ON r.id = fr.role_id " +
+            "WHERE fr.user_id = u.id AND r.name = ?)";
+
+    private static final String SELECT_ROLES =
+            "SELECT ur.user_id, r.name FROM user_roles ur JOIN roles r ON r.id = ur.role_id " +
+            "WHERE ur.user_id BETWEEN ? AND ?";
+
+    private static final String SELECT_COUNTS =
+            "SELECT u.id, COALESCE(ec.events_created, 0), COALESCE(rc.registrations, 0) FROM users u " +
+            "LEFT JOIN (SELECT creator_id, COUNT(*) AS events_created FROM event " +
+            "WHERE creator_id BETWEEN ? AND ? GROUP BY creator_id) ec ON ec.creator_id = u.id " +
+            "LEFT JOIN (SELECT user_id, COUNT(*) AS registrations FROM registration " +
+            "WHERE user_id BETWEEN ? AND ? GROUP BY user_id) rc ON rc.user_id = u.id " +
+            "WHERE u.id BETWEEN ? AND ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserExportRow> findExportRows(long afterId, long toId, Role.RoleName role, Boolean enabled, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_EXPORT_ROWS);
+        List<Object> args = new ArrayList<>();
+        args.add(afterId);
+        args.add(toId);
+        appendFilters(sql, args, role, enabled);
+        sql.append(" ORDER BY u.id LIMIT ?");
+        args.add(limit);
+
+        Map<Long, String> activeRoles = new HashMap<>();
+        Map<Long, UserExportRow> rows = new LinkedHashMap<>();
+        jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> {
+            long id = rs.getLong(1);
+            activeRoles.put(id, rs.getString(8));
+            rows.put(id, new UserExportRow(
+                    id,
+                    rs.getString(2),
+                    rs.getString(3),
+                    rs.getString(4),
+                    rs.getString(5),
+                    rs.getString(6),
+                    rs.getString(7),
+                    null,
+                    rs.getBoolean(9),
+                    rs.getString(10) != null ? User.AuthProvider.valueOf(rs.getString(10)) : null,
+                    0,
+                    0,
+                    toLocalDateTime(rs, 11),
+                    toLocalDateTime(rs, 12)));
+        }, args.toArray());
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        // Filtered chunks can be sparse; ids in the range that are not in the chunk are simply ignored
+        List<Long> ids = new ArrayList<>(rows.keySet());
+        long firstId = ids.get(0);
+        long lastId = ids.get(ids.size() - 1);
+
+        Map<Long, Set<Role.RoleName>> roles = new HashMap<>();
+        jdbcTemplate.query(SELECT_ROLES, (RowCallbackHandler) rs -> roles
+                        .computeIfAbsent(rs.getLong(1), id -> EnumSet.noneOf(Role.RoleName.class))
+                        .add(Role.RoleName.valueOf(rs.getString(2))),
+                firstId, lastId);
+        rows.forEach((id, row) -> {
+            String activeRole = activeRoles.get(id);
+            row.setRole(User.resolveRole(activeRole != null ? Role.RoleName.valueOf(activeRole) : null,
+                    roles.getOrDefault(id, Set.of())));
+        });
+
+        jdbcTemplate.query(SELECT_COUNTS, (RowCallbackHandler) rs -> {
+            UserExportRow row = rows.get(rs.getLong(1));
+            if (row != null) {
+                row.setEventsCreated(rs.getLong(2));
+                row.setRegistrations(rs.getLong(3));
+            }
+        }, firstId, lastId, firstId, lastId, firstId, lastId);
+
+        return new ArrayList<>(rows.values());
+    }
+
+    @Override
+    public long[] findExportIdRange(Role.RoleName role, Boolean enabled) {
+        StringBuilder sql = new StringBuilder(SELECT_EXPORT_ID_RANGE);
+        List<Object> args = new ArrayList<>();
+        appendFilters(sql, args, role, enabled);
+        return jdbcTemplate.query(sql.toString(), (ResultSetExtractor<long[]>) rs -> {
+            rs.next();
+            long min = rs.getLong(1);
+            return rs.wasNull() ? null : new long[]{min, rs.getLong(2)};
+        }, args.toArray());
+    }
+
+    private static void appendFilters(StringBuilder sql, List<Object> args, Role.RoleName role, Boolean enabled) {
+        if (role != null) {
+            sql.append(ROLE_FILTER);
+            args.add(role.name());
+        }
+        if (enabled != null) {
+            sql.append(" AND u.enabled = ?");
+            args.add(enabled);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(ResultSet rs, int column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
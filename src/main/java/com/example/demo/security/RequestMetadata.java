@@ -0,0 +1,25 @@
+package com.example.demo.security;
+
+/**
+ * Origin of the request being handled on this thread, captured by {@link RequestMetadataFilter}.
+ * Empty outside of a request (scheduled jobs, async executors).
+ */
+public record RequestMetadata(String ipAddress) {
+
+    private static final RequestMetadata NONE = new RequestMetadata(null);
+
+    private static final ThreadLocal<RequestMetadata> CURRENT = new ThreadLocal<>();
+
+    public static RequestMetadata current() {
+        RequestMetadata metadata = CURRENT.get();
+        return metadata != null ? metadata : NONE;
+    }
+
+    static void set(RequestMetadata metadata) {
+        CURRENT.set(metadata);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.demo.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Captures the client address for audit entries written while the request is handled.
+ * <p>
+ * The address is {@link HttpServletRequest#getRemoteAddr()}; behind a proxy set
+ * {@code server.forward-headers-strategy} so it reflects the trusted X-Forwarded-For instead of the proxy.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestMetadataFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestMetadata.set(new RequestMetadata(request.getRemoteAddr()));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestMetadata.clear();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.demo.service;
+
+public interface AnalyticsExportService {
+
+    enum Dataset {
+        EVENTS,
+        REGISTRATIONS,
+        POSTS,
+        COMMENTS,
+        LIKES
+    }
+
+    /**
+     * Stream a whole table in the gzip-compressed columnar format of {@link com.example.demo.utils.ColumnarWriter}
+     */
+    ExportService.ExportWriter streamColumnar(Dataset dataset);
+}
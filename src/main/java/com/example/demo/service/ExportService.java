@@ -1,9 +1,74 @@
 package com.example.demo.service;
 
-import java.io.ByteArrayOutputStream;
+import com.example.demo.dto.export.ExportRequest;
+
 import java.io.IOException;
+import java.io.OutputStream;
 
 public interface ExportService {
+
+    /**
+     * An export that is written when the response body is, in chunks, with constant memory.
+     */
+    @FunctionalInterface
+    interface ExportWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * One export with its filters parsed and validated, split so that id ranges can be rendered separately
+     * (in parallel by export jobs) and stitched back together: header, ranges joined by separators, footer.
+     */
+    interface ExportPlan {
+
+        ExportRequest.Format getFormat();
+
+        /**
+         * Lowest and highest id matching the filters, or null when nothing matches
+         */
+        long[] idRange();
+
+        void writeHeader(OutputStream out) throws IOException;
+
+        /**
+         * Write the rows with {@code afterId < id <= toId}; nothing is written before the first or after the last
+         *
+         * @return number of rows written
+         */
+        long writeRows(long afterId, long toId, OutputStream out) throws IOException;
+
+        /**
+         * Goes between two non-empty ranges
+         */
+        void writeSeparator(OutputStream out) throws IOException;
+
+        void writeFooter(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Plan an export; invalid filters are rejected here, before anything is written
+     */
+    ExportPlan plan(ExportRequest request);
+
+    /**
+     * Stream events to CSV; filters are validated now and applied in the query. Null filters match all
+     */
+    ExportWriter streamEventsCSV(String status, String startDate, String endDate);
+
+    /**
+     * Stream all events to JSON
+     */
+    ExportWriter streamEventsJSON();
+
+    /**
+     * Stream users to CSV; filters are validated now and applied in the query. Null filters match all
+     */
+    ExportWriter streamUsersCSV(String role, Boolean enabled);
+
+    /**
+     * Stream all users to JSON
+     */
+    ExportWriter streamUsersJSON();
     
     /**
      * Export all events to CSV format
@@ -17,5 +17,7 @@ public interface FirebaseService {
 
     ApiFuture<String> sendToTopic(String topic, String title, String body);
 
+    void sendToTokens(List<String> tokens, String title, String body);
+
     UserFcmToken registerTokenForUser(UserFcmTokenDTO userFcmTokenDTO);
 }
@@ -0,0 +1,102 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.repository.ActivityRollupRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind counts of newly created users, events and registrations per hour.
+ * Creation paths record after commit; the buffer is upserted into {@code activity_rollup_hourly}
+ * every {@code admin.rollup.flush-interval-ms}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ActivityRollupBuffer {
+
+    public enum Activity {
+        USER, EVENT, REGISTRATION
+    }
+
+    private final ActivityRollupRepository activityRollupRepository;
+
+    // Counts are only mutated inside compute(), so remove() in flush hands over a stable array
+    private final ConcurrentHashMap<LocalDateTime, long[]> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Record {@code count} new rows of a kind created now. Inside a transaction this only counts once it commits.
+     */
+    public void record(Activity activity, int count) {
+        if (count <= 0) {
+            return;
+        }
+        LocalDateTime bucket = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(bucket, activity.ordinal(), count);
+                }
+            });
+        } else {
+            add(bucket, activity.ordinal(), count);
+        }
+    }
+
+    // Synchronized with discard, so a failed flush cannot put back deltas that a recount already covers
+    @Scheduled(fixedDelayString = "${admin.rollup.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        if (buckets.isEmpty()) {
+            return;
+        }
+        Map<LocalDateTime, long[]> batch = new HashMap<>();
+        for (LocalDateTime bucket : buckets.keySet()) {
+            long[] counts = buckets.remove(bucket);
+            if (counts != null) {
+                batch.put(bucket, counts);
+            }
+        }
+        try {
+            activityRollupRepository.addToBuckets(batch);
+        } catch (DataAccessException ex) {
+            log.warn("Failed to flush {} activity buckets, will retry: {}", batch.size(), ex.getMessage());
+            batch.forEach((bucket, values) -> {
+                for (int i = 0; i < values.length; i++) {
+                    add(bucket, i, values[i]);
+                }
+            });
+        }
+    }
+
+    /**
+     * Drop the buffered deltas of the buckets in {@code [from, to)}, once those have been recounted from the source tables.
+     */
+    public synchronized void discard(LocalDateTime from, LocalDateTime to) {
+        buckets.keySet().removeIf(bucket -> !bucket.isBefore(from) && bucket.isBefore(to));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void add(LocalDateTime bucket, int slot, long count) {
+        buckets.compute(bucket, (key, counts) -> {
+            long[] result = counts != null ? counts : new long[Activity.values().length];
+            result[slot] += count;
+            return result;
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.service.Impl;
 
+import com.example.demo.dto.common.IdCount;
 import com.example.demo.dto.dashboard_manager.AdminDashboardDTO;
 import com.example.demo.dto.dashboard_manager.PendingEventDTO;
 import com.example.demo.dto.dashboard_manager.SystemActivityDTO;
@@ -21,7 +22,6 @@ import com.example.demo.service.*;
 import com.google.firebase.messaging.FirebaseMessagingException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -31,8 +31,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -54,11 +56,16 @@ public class AdminServiceImpl implements AdminService {
     private final UserFcmTokenRepository userFcmTokenRepository;
     private final UserService userService;
     private final RoleRepository roleRepository;
+    private final PlatformStatRepository platformStatRepository;
+    private final ActivityRollupRepository activityRollupRepository;
+    private final DashboardCacheInvalidator dashboardCacheInvalidator;
+    private final RegistrationService registrationService;
+    private final RegistrationStatsRecorder registrationStatsRecorder;
+    private final EventRegistrationStatsRepository eventRegistrationStatsRepository;
 
 
-    @CacheEvict(value = "dashboard", allEntries = true)
     public Event approveEvent(Long eventId) throws FirebaseMessagingException {
-        log.info("Approve event with ID: {} (clearing dashboard cache)", eventId);
+        log.info("Approve event with ID: {}", eventId);
 
         Event event = eventRepository.getEventById(eventId)
                 .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
@@ -67,12 +74,13 @@ public class AdminServiceImpl implements AdminService {
         notificationService.notifyManagerOnEventApproved(event, "Your request of creating new event has been approved");
         sendApprovalNotification(event);
 
-        return eventRepository.save(event);
+        Event savedEvent = eventRepository.save(event);
+        dashboardCacheInvalidator.eventChanged(savedEvent);
+        return savedEvent;
     }
 
-    @CacheEvict(value = "dashboard", allEntries = true)
     public Event rejectEvent(Long eventId, String reason) throws FirebaseMessagingException {
-        log.info("Reject event with ID: {} (clearing dashboard cache)", eventId);
+        log.info("Reject event with ID: {}", eventId);
         Event event = eventRepository.getEventById(eventId)
 
                 .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
@@ -82,7 +90,9 @@ public class AdminServiceImpl implements AdminService {
         notificationService.notifyManagerOnEventRejected(event, reason);
         sendRejectNotification(event);
 
-        return eventRepository.save(event);
+        Event savedEvent = eventRepository.save(event);
+        dashboardCacheInvalidator.eventChanged(savedEvent);
+        return savedEvent;
     }
 
     private void sendApprovalNotification(Event event) throws FirebaseMessagingException {
@@ -119,7 +129,7 @@ public class AdminServiceImpl implements AdminService {
     }
 
     @Override
-    @Cacheable(value = "dashboard", key = "'admin:' + #root.target.getCurrentUser().id")
+    @Cacheable(value = "dashboard", key = "'admin:' + #root.target.getCurrentUser().id", sync = true)
     public AdminDashboardDTO getAdminDashboard() {
         log.info("Fetching admin dashboard data");
         
@@ -130,26 +140,30 @@ public class AdminServiceImpl implements AdminService {
         LocalDateTime startOfLastMonth = YearMonth.now().minusMonths(1).atDay(1).atStartOfDay();
         LocalDateTime endOfLastMonth = YearMonth.now().atDay(1).atStartOfDay().minusSeconds(1);
         
-        Long totalUsers = userRepository.count();
-        Long totalEvents = (long) eventRepository.countAllEvents();
-        Long totalRegistrations = registrationRepository.count();
+        // KPIs come from the periodically refreshed platform_stats snapshot: one primary-key scan
+        Map<String, Long> stats = platformStatRepository.findAll().stream()
+            .collect(Collectors.toMap(PlatformStat::getName, PlatformStat::getValue));
         
-        Long totalVolunteers = userRepository.countByRoleName(Role.RoleName.VOLUNTEER);
-        Long totalEventManagers = userRepository.countByRoleName(Role.RoleName.EVENT_MANAGER);
-        Long totalAdmins = userRepository.countByRoleName(Role.RoleName.ADMIN);
+        Long totalUsers = stats.getOrDefault(AdminStatsRollupJob.USERS_TOTAL, 0L);
+        Long totalEvents = stats.getOrDefault(AdminStatsRollupJob.EVENTS_TOTAL, 0L);
+        Long totalRegistrations = stats.getOrDefault(AdminStatsRollupJob.REGISTRATIONS_TOTAL, 0L);
         
-        Long plannedEvents = eventRepository.countByStatus(Event.EventStatus.PLANNED);
-        Long ongoingEvents = eventRepository.countByStatus(Event.EventStatus.ONGOING);
-        Long completedEvents = eventRepository.countByStatus(Event.EventStatus.COMPLETED);
-        Long cancelledEvents = eventRepository.countByStatus(Event.EventStatus.CANCELLED);
+        Long totalVolunteers = stats.getOrDefault(AdminStatsRollupJob.userRole(Role.RoleName.VOLUNTEER), 0L);
+        Long totalEventManagers = stats.getOrDefault(AdminStatsRollupJob.userRole(Role.RoleName.EVENT_MANAGER), 0L);
+        Long totalAdmins = stats.getOrDefault(AdminStatsRollupJob.userRole(Role.RoleName.ADMIN), 0L);
         
-        Long pendingRegistrations = registrationRepository.countByStatus(Registration.RegistrationStatus.PENDING);
-        Long approvedRegistrations = registrationRepository.countByStatus(Registration.RegistrationStatus.APPROVED);
-        Long rejectedRegistrations = registrationRepository.countByStatus(Registration.RegistrationStatus.REJECTED);
-        Long cancelledRegistrations = registrationRepository.countByStatus(Registration.RegistrationStatus.CANCELLED);
+        Long plannedEvents = stats.getOrDefault(AdminStatsRollupJob.eventStatus(Event.EventStatus.PLANNED), 0L);
+        Long ongoingEvents = stats.getOrDefault(AdminStatsRollupJob.eventStatus(Event.EventStatus.ONGOING), 0L);
+        Long completedEvents = stats.getOrDefault(AdminStatsRollupJob.eventStatus(Event.EventStatus.COMPLETED), 0L);
+        Long cancelledEvents = stats.getOrDefault(AdminStatsRollupJob.eventStatus(Event.EventStatus.CANCELLED), 0L);
         
-        Long enabledUsers = userRepository.countByEnabled(true);
-        Long disabledUsers = userRepository.countByEnabled(false);
+        Long pendingRegistrations = stats.getOrDefault(AdminStatsRollupJob.registrationStatus(Registration.RegistrationStatus.PENDING), 0L);
+        Long approvedRegistrations = stats.getOrDefault(AdminStatsRollupJob.registrationStatus(Registration.RegistrationStatus.APPROVED), 0L);
+        Long rejectedRegistrations = stats.getOrDefault(AdminStatsRollupJob.registrationStatus(Registration.RegistrationStatus.REJECTED), 0L);
+        Long cancelledRegistrations = stats.getOrDefault(AdminStatsRollupJob.registrationStatus(Registration.RegistrationStatus.CANCELLED), 0L);
+        
+        Long enabledUsers = stats.getOrDefault(AdminStatsRollupJob.USERS_ENABLED, 0L);
+        Long disabledUsers = stats.getOrDefault(AdminStatsRollupJob.USERS_DISABLED, 0L);
         
         Pageable pendingPageable = PageRequest.of(0, 10);
         List<Event> pendingEventsList = eventRepository.findPendingEventsForApproval(pendingPageable);
@@ -169,21 +183,38 @@ public class AdminServiceImpl implements AdminService {
         
         List<SystemActivityDTO> recentActivities = buildSystemActivities(now);
         
-        Long newUsersLast7Days = userRepository.countUsersCreatedAfter(last7Days);
-        Long newEventsLast7Days = eventRepository.countEventsCreatedAfter(last7Days);
-        Long newRegistrationsLast7Days = registrationRepository.countRegistrationsCreatedAfter(last7Days);
+        // Growth windows are sums over the hourly rollup buckets, read in one query
+        long[] last7 = new long[3];
+        long[] last30 = new long[3];
+        long[] thisMonth = new long[3];
+        long[] lastMonth = new long[3];
+        LocalDateTime from7 = last7Days.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime from30 = last30Days.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime from = from30.isBefore(startOfLastMonth) ? from30 : startOfLastMonth;
+        for (ActivityRollup bucket : activityRollupRepository.findByBucketStartGreaterThanEqual(from)) {
+            LocalDateTime bucketStart = bucket.getBucketStart();
+            long[] counts = {bucket.getNewUsers(), bucket.getNewEvents(), bucket.getNewRegistrations()};
+            if (!bucketStart.isBefore(from7)) addCounts(last7, counts);
+            if (!bucketStart.isBefore(from30)) addCounts(last30, counts);
+            if (!bucketStart.isBefore(startOfMonth)) addCounts(thisMonth, counts);
+            else if (!bucketStart.isBefore(startOfLastMonth)) addCounts(lastMonth, counts);
+        }
+        
+        Long newUsersLast7Days = last7[0];
+        Long newEventsLast7Days = last7[1];
+        Long newRegistrationsLast7Days = last7[2];
         
-        Long newUsersLast30Days = userRepository.countUsersCreatedAfter(last30Days);
-        Long newEventsLast30Days = eventRepository.countEventsCreatedAfter(last30Days);
-        Long newRegistrationsLast30Days = registrationRepository.countRegistrationsCreatedAfter(last30Days);
+        Long newUsersLast30Days = last30[0];
+        Long newEventsLast30Days = last30[1];
+        Long newRegistrationsLast30Days = last30[2];
         
-        Long usersThisMonth = userRepository.countUsersCreatedAfter(startOfMonth);
-        Long eventsThisMonth = eventRepository.countEventsCreatedAfter(startOfMonth);
-        Long registrationsThisMonth = registrationRepository.countRegistrationsCreatedAfter(startOfMonth);
+        Long usersThisMonth = thisMonth[0];
+        Long eventsThisMonth = thisMonth[1];
+        Long registrationsThisMonth = thisMonth[2];
         
-        Long usersLastMonth = userRepository.countUsersCreatedAfter(startOfLastMonth) - usersThisMonth;
-        Long eventsLastMonth = eventRepository.countEventsCreatedAfter(startOfLastMonth) - eventsThisMonth;
-        Long registrationsLastMonth = registrationRepository.countRegistrationsCreatedAfter(startOfLastMonth) - registrationsThisMonth;
+        Long usersLastMonth = lastMonth[0];
+        Long eventsLastMonth = lastMonth[1];
+        Long registrationsLastMonth = lastMonth[2];
         
         Double userGrowthRate = calculateGrowthRate(usersThisMonth, usersLastMonth);
         Double eventGrowthRate = calculateGrowthRate(eventsThisMonth, eventsLastMonth);
@@ -206,11 +237,14 @@ public class AdminServiceImpl implements AdminService {
         
         Pageable userPageable = PageRequest.of(0, 20);
         List<User> recentUsersList = userRepository.findRecentUsers(userPageable);
+        List<Long> recentUserIds = recentUsersList.stream().map(User::getId).toList();
+        // Per-user counts for the whole page in two grouped queries
+        Map<Long, Long> eventsCreatedByUser = toCountMap(eventRepository.countEventsByCreatorIds(recentUserIds));
+        Map<Long, Long> registrationsByUser = toCountMap(registrationRepository.countByUserIds(recentUserIds));
         List<UserManagementDTO> recentUsers = recentUsersList.stream()
             .map(user -> {
-                int eventsCreated = user.getEvents() != null ? user.getEvents().size() : 0;
-                int registrationsCount = user.getId() != null ? 
-                    registrationRepository.countByUserId(user.getId()) : 0;
+                int eventsCreated = eventsCreatedByUser.getOrDefault(user.getId(), 0L).intValue();
+                int registrationsCount = registrationsByUser.getOrDefault(user.getId(), 0L).intValue();
                 
                 return UserManagementDTO.builder()
                     .userId(user.getId())
@@ -286,6 +320,16 @@ public class AdminServiceImpl implements AdminService {
 
     }
     
+    private static void addCounts(long[] total, long[] counts) {
+        for (int i = 0; i < total.length; i++) {
+            total[i] += counts[i];
+        }
+    }
+    
+    private static Map<Long, Long> toCountMap(List<IdCount> rows) {
+        return rows.stream().collect(Collectors.toMap(IdCount::getId, IdCount::getCount));
+    }
+    
     private Double calculateGrowthRate(Long currentPeriod, Long previousPeriod) {
         if (previousPeriod == null || previousPeriod == 0) {
             return currentPeriod > 0 ? 100.0 : 0.0;
@@ -437,7 +481,28 @@ public class AdminServiceImpl implements AdminService {
                 admin
         );
         
+        // The delete cascades to the user's registrations and events; keep slot counts and stats in step first
+        List<Registration> registrations = registrationRepository.findByUserIdOnOtherCreatorsEvents(userId);
+        for (Registration registration : registrations) {
+            Event event = registration.getEvent();
+            Registration.RegistrationStatus status = registration.getStatus();
+            // Event row before stats row, the lock order every registration write follows
+            if (status == Registration.RegistrationStatus.APPROVED || status == Registration.RegistrationStatus.PENDING) {
+                eventRepository.releaseSlot(event.getId());
+            }
+            registrationStatsRecorder.removed(event.getId(), status);
+            dashboardCacheInvalidator.registrationChanged(event, userId);
+        }
+        eventRegistrationStatsRepository.deleteByEventCreatorId(userId);
+
         userRepository.delete(user);
+
+        for (Registration registration : registrations) {
+            Registration.RegistrationStatus status = registration.getStatus();
+            if (status == Registration.RegistrationStatus.APPROVED || status == Registration.RegistrationStatus.PENDING) {
+                registrationService.promoteWaitingRegistration(registration.getEvent().getId());
+            }
+        }
         
         log.info("User ID: {} deleted successfully by admin: {}", userId, admin.getUsername());
     }
@@ -0,0 +1,139 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.PlatformStat;
+import com.example.demo.model.Registration;
+import com.example.demo.model.Role;
+import com.example.demo.repository.ActivityRollupRepository;
+import com.example.demo.repository.PlatformStatRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the admin dashboard aggregates current:
+ * <ul>
+ *     <li>{@code platform_stats}: users by role and enabled flag, events and registrations by status,
+ *     recomputed with a few grouped queries every {@code admin.stats.refresh-interval-ms}</li>
+ *     <li>{@code activity_rollup_hourly}: filled incrementally by {@link ActivityRollupBuffer}; the 48
+ *     closed hours before the previous one are recounted hourly to repair lost deltas, and the full history
+ *     is backfilled on first start</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AdminStatsRollupJob {
+
+    public static final String USERS_TOTAL = "users.total";
+    public static final String USERS_ENABLED = "users.enabled";
+    public static final String USERS_DISABLED = "users.disabled";
+    public static final String EVENTS_TOTAL = "events.total";
+    public static final String REGISTRATIONS_TOTAL = "registrations.total";
+
+    private static final int REBUILD_HOURS = 48;
+    private static final int REBUILD_MARGIN_HOURS = 1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PlatformStatRepository platformStatRepository;
+    private final ActivityRollupRepository activityRollupRepository;
+    private final ActivityRollupBuffer activityRollupBuffer;
+
+    public static String userRole(Role.RoleName role) {
+        return "users.role." + role.name();
+    }
+
+    public static String eventStatus(Event.EventStatus status) {
+        return "events.status." + status.name();
+    }
+
+    public static String registrationStatus(Registration.RegistrationStatus status) {
+        return "registrations.status." + status.name();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (activityRollupRepository.count() == 0) {
+            LocalDateTime from = LocalDateTime.of(1970, 1, 1, 0, 0);
+            LocalDateTime to = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+            int buckets = activityRollupRepository.rebuild(from, to);
+            activityRollupBuffer.discard(from, to);
+            log.info("Backfilled {} hourly activity buckets", buckets);
+        }
+        refreshSnapshot();
+    }
+
+    @Scheduled(cron = "${admin.rollup.rebuild-cron:0 5 * * * *}")
+    public void rebuildRecentBuckets() {
+        // Only buckets closed for a while: the open ones still receive deltas from transactions committing now
+        LocalDateTime to = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(REBUILD_MARGIN_HOURS);
+        LocalDateTime from = to.minusHours(REBUILD_HOURS);
+        activityRollupBuffer.flush();
+        int buckets = activityRollupRepository.rebuild(from, to);
+        // Whatever is still buffered for them (a failed flush) is part of the recount
+        activityRollupBuffer.discard(from, to);
+        log.debug("Recounted {} hourly activity buckets in [{}, {})", buckets, from, to);
+    }
+
+    @Scheduled(fixedDelayString = "${admin.stats.refresh-interval-ms:300000}",
+            initialDelayString = "${admin.stats.refresh-interval-ms:300000}")
+    public void refreshSnapshot() {
+        long start = System.nanoTime();
+        Map<String, Long> stats = new LinkedHashMap<>();
+        for (Role.RoleName role : Role.RoleName.values()) {
+            stats.put(userRole(role), 0L);
+        }
+        for (Event.EventStatus status : Event.EventStatus.values()) {
+            stats.put(eventStatus(status), 0L);
+        }
+
+        stats.put(USERS_TOTAL, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class));
+        stats.put(USERS_ENABLED, 0L);
+        stats.put(USERS_DISABLED, 0L);
+        jdbcTemplate.query("SELECT enabled, COUNT(*) FROM users GROUP BY enabled", (RowCallbackHandler) rs ->
+                stats.put(rs.getBoolean(1) ? USERS_ENABLED : USERS_DISABLED, rs.getLong(2)));
+        jdbcTemplate.query("SELECT r.name, COUNT(DISTINCT ur.user_id) FROM user_roles ur " +
+                        "JOIN roles r ON r.id = ur.role_id GROUP BY r.name",
+                (RowCallbackHandler) rs -> stats.put("users.role." + rs.getString(1), rs.getLong(2)));
+
+        long[] events = {0};
+        jdbcTemplate.query("SELECT status, COUNT(*) FROM event GROUP BY status", (RowCallbackHandler) rs -> {
+            stats.put("events.status." + rs.getString(1), rs.getLong(2));
+            events[0] += rs.getLong(2);
+        });
+        stats.put(EVENTS_TOTAL, events[0]);
+
+        // Registration counts come from the maintained per-event stats, not the registration table
+        jdbcTemplate.query("SELECT COALESCE(SUM(pending_count), 0), COALESCE(SUM(approved_count), 0), " +
+                "COALESCE(SUM(rejected_count), 0), COALESCE(SUM(cancelled_count), 0), " +
+                "COALESCE(SUM(waiting_count), 0) FROM event_registration_stats", (RowCallbackHandler) rs -> {
+            long total = 0;
+            for (Registration.RegistrationStatus status : Registration.RegistrationStatus.values()) {
+                long count = rs.getLong(status.ordinal() + 1);
+                stats.put(registrationStatus(status), count);
+                total += count;
+            }
+            stats.put(REGISTRATIONS_TOTAL, total);
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        List<PlatformStat> rows = stats.entrySet().stream()
+                .map(entry -> new PlatformStat(entry.getKey(), entry.getValue(), now))
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> platformStatRepository.saveAll(rows));
+        log.debug("Refreshed {} platform stats in {} ms", rows.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
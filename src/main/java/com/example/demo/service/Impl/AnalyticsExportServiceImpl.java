@@ -0,0 +1,148 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.service.AnalyticsExportService;
+import com.example.demo.service.ExportService;
+import com.example.demo.utils.ColumnarWriter;
+import com.example.demo.utils.ColumnarWriter.Column;
+import com.example.demo.utils.ColumnarWriter.Type;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Columnar analytics exports for the data team's nightly pulls. Each table is read in id-ordered keyset chunks
+ * of one row group and written straight to the response as column chunks, dictionary-encoded where it pays,
+ * so memory stays at one row group however large the table is.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AnalyticsExportServiceImpl implements AnalyticsExportService {
+
+    private record TableSpec(String table, List<Column> columns) {
+
+        String selectChunk() {
+            return "SELECT " + columns.stream().map(Column::name).collect(Collectors.joining(", ")) +
+                   " FROM " + table + " WHERE id > ? ORDER BY id LIMIT ?";
+        }
+    }
+
+    private static final Map<Dataset, TableSpec> TABLES = Map.of(
+            Dataset.EVENTS, new TableSpec("event", List.of(
+                    new Column("id", Type.LONG),
+                    new Column("creator_id", Type.LONG),
+                    new Column("title", Type.STRING),
+                    new Column("description", Type.STRING),
+                    new Column("location", Type.STRING),
+                    new Column("status", Type.STRING),
+                    new Column("date", Type.TIMESTAMP),
+                    new Column("max_participants", Type.INT),
+                    new Column("created_at", Type.TIMESTAMP),
+                    new Column("updated_at", Type.TIMESTAMP))),
+            Dataset.REGISTRATIONS, new TableSpec("registration", List.of(
+                    new Column("id", Type.LONG),
+                    new Column("event_id", Type.LONG),
+                    new Column("user_id", Type.LONG),
+                    new Column("status", Type.STRING),
+                    new Column("registered_at", Type.TIMESTAMP),
+                    new Column("completed_at", Type.TIMESTAMP),
+                    new Column("is_event_completed", Type.BOOLEAN))),
+            Dataset.POSTS, new TableSpec("post", List.of(
+                    new Column("id", Type.LONG),
+                    new Column("event_id", Type.LONG),
+                    new Column("user_id", Type.LONG),
+                    new Column("content", Type.STRING),
+                    new Column("is_pinned", Type.BOOLEAN),
+                    new Column("like_count", Type.INT),
+                    new Column("comment_count", Type.INT),
+                    new Column("created_at", Type.TIMESTAMP),
+                    new Column("updated_at", Type.TIMESTAMP))),
+            Dataset.COMMENTS, new TableSpec("comment", List.of(
+                    new Column("id", Type.LONG),
+                    new Column("post_id", Type.LONG),
+                    new Column("user_id", Type.LONG),
+                    new Column("parent_comment_id", Type.LONG),
+                    new Column("content", Type.STRING),
+                    new Column("like_count", Type.INT),
+                    new Column("reply_count", Type.INT),
+                    new Column("created_at", Type.TIMESTAMP),
+                    new Column("updated_at", Type.TIMESTAMP))),
+            Dataset.LIKES, new TableSpec("post_likes", List.of(
+                    new Column("id", Type.LONG),
+                    new Column("user_id", Type.LONG),
+                    new Column("post_id", Type.LONG),
+                    new Column("comment_id", Type.LONG),
+                    new Column("created_at", Type.TIMESTAMP)))
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${export.analytics.row-group-size:4096}")
+    private int rowGroupSize;
+
+    @Override
+    public ExportService.ExportWriter streamColumnar(Dataset dataset) {
+        TableSpec spec = TABLES.get(dataset);
+        String sql = spec.selectChunk();
+
+        return out -> {
+            long startedAt = System.currentTimeMillis();
+            GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024);
+            ColumnarWriter writer = new ColumnarWriter(gzip, spec.table(), spec.columns(), rowGroupSize);
+            Object[] row = new Object[spec.columns().size()];
+            long[] lastId = {0};
+            int rows;
+            do {
+                long before = writer.getTotalRows();
+                try {
+                    jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+                        for (int i = 0; i < row.length; i++) {
+                            row[i] = read(rs, i + 1, spec.columns().get(i).type());
+                        }
+                        lastId[0] = (Long) row[0];
+                        try {
+                            writer.addRow(row);
+                        } catch (IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                    }, lastId[0], rowGroupSize);
+                } catch (UncheckedIOException ex) {
+                    throw ex.getCause();
+                }
+                rows = (int) (writer.getTotalRows() - before);
+            } while (rows == rowGroupSize);
+            writer.finish();
+            gzip.finish();
+            gzip.flush();
+            log.info("Exported {} {} rows as columnar in {} ms",
+                    writer.getTotalRows(), dataset, System.currentTimeMillis() - startedAt);
+        };
+    }
+
+    private static Object read(ResultSet rs, int index, Type type) throws SQLException {
+        Object value = switch (type) {
+            case LONG -> rs.getLong(index);
+            case INT -> rs.getInt(index);
+            case BOOLEAN -> rs.getBoolean(index);
+            case STRING -> rs.getString(index);
+            case TIMESTAMP -> {
+                Timestamp timestamp = rs.getTimestamp(index);
+                yield timestamp != null ? timestamp.toLocalDateTime() : null;
+            }
+        };
+        return rs.wasNull() ? null : value;
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.model.AuditLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for audit entries, so a bulk admin operation does not pay one INSERT per action.
+ * <p>
+ * Entries are queued after their transaction commits in a bounded ring buffer and inserted as one JDBC batch
+ * every {@code audit.buffer.flush-interval-ms}, or as soon as {@code audit.buffer.batch-size} entries are waiting.
+ * Nothing is dropped: when the buffer stays full for {@code audit.buffer.offer-timeout-ms} the caller inserts its
+ * entry itself, which slows producers down to the database's pace; if that insert fails too the entry joins the
+ * retried batch. The buffer is drained on shutdown.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AuditLogBuffer {
+
+    private static final String INSERT_AUDIT_LOG =
+            "INSERT INTO audit_logs (action_type, entity_type, entity_id, performed_by, performed_by_username, " +
+            "description, old_value, new_value, reason, ip_address, timestamp) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Executor taskExecutor;
+
+    @Value("${audit.buffer.capacity:10000}")
+    private int capacity;
+
+    @Value("${audit.buffer.batch-size:200}")
+    private int batchSize;
+
+    @Value("${audit.buffer.offer-timeout-ms:500}")
+    private long offerTimeoutMs;
+
+    private BlockingQueue<AuditLog> queue;
+
+    // One flush at a time; a batch that failed to insert is retried first by the next one
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final List<AuditLog> retry = new ArrayList<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private volatile boolean closed;
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(capacity);
+        meterRegistry.gauge("audit.buffer.queued", queue, Collection::size);
+    }
+
+    /**
+     * Queue an entry. Inside a transaction it is only queued once the transaction commits.
+     */
+    public void append(AuditLog entry) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(entry);
+                }
+            });
+        } else {
+            offer(entry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${audit.buffer.flush-interval-ms:1000}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            flushRequested.set(false);
+            drain();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        closed = true;
+        log.info("Flushing {} pending audit entries before shutdown", queue.size());
+        flushLock.lock();
+        try {
+            if (!drain()) {
+                List<AuditLog> unwritten = new ArrayList<>(retry);
+                queue.drainTo(unwritten);
+                log.error("Could not write {} audit entries before shutdown: {}", unwritten.size(), unwritten);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void offer(AuditLog entry) {
+        if (!closed) {
+            try {
+                if (queue.offer(entry, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    if (queue.size() >= batchSize) {
+                        requestFlush();
+                    }
+                    return;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Full for too long (the database is behind) or shutting down: write it on the caller's thread
+        meterRegistry.counter("audit.buffer.overflow").increment();
+        try {
+            insert(List.of(entry));
+        } catch (DataAccessException ex) {
+            // Runs from afterCommit, so it must not throw; the next flush writes it with the retried batch
+            log.warn("Failed to write overflowing audit entry, keeping it for retry: {}", ex.getMessage());
+            flushLock.lock();
+            try {
+                retry.add(entry);
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            try {
+                taskExecutor.execute(this::flush);
+            } catch (RejectedExecutionException ex) {
+                // The scheduled flush picks it up
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    /**
+     * Insert everything queued, one batch after another. Caller holds the flush lock.
+     *
+     * @return false if a batch failed and was kept for retry
+     */
+    private boolean drain() {
+        while (true) {
+            List<AuditLog> batch = new ArrayList<>(retry);
+            retry.clear();
+            if (batch.size() < batchSize) {
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+            if (batch.isEmpty()) {
+                return true;
+            }
+            try {
+                insert(batch);
+            } catch (DataAccessException ex) {
+                log.warn("Failed to write {} audit entries, will retry: {}", batch.size(), ex.getMessage());
+                retry.addAll(batch);
+                return false;
+            }
+        }
+    }
+
+    private void insert(List<AuditLog> batch) {
+        long start = System.nanoTime();
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (AuditLog entry : batch) {
+            rows.add(new Object[]{
+                    entry.getActionType().name(),
+                    entry.getEntityType(),
+                    entry.getEntityId(),
+                    entry.getPerformedBy(),
+                    entry.getPerformedByUsername(),
+                    entry.getDescription(),
+                    entry.getOldValue(),
+                    entry.getNewValue(),
+                    entry.getReason(),
+                    entry.getIpAddress(),
+                    Timestamp.valueOf(entry.getTimestamp())
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_AUDIT_LOG, rows);
+        meterRegistry.counter("audit.buffer.written").increment(batch.size());
+        meterRegistry.timer("audit.buffer.flush").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
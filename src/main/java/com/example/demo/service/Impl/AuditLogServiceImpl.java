@@ -2,22 +2,25 @@ package com.example.demo.service.Impl;
 
 import com.example.demo.model.AuditLog;
 import com.example.demo.model.User;
-import com.example.demo.repository.AuditLogRepository;
+import com.example.demo.security.RequestMetadata;
 import com.example.demo.service.AuditLogService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
+/**
+ * Audit entries are written behind the admin transaction by {@link AuditLogBuffer}, once it commits.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class AuditLogServiceImpl implements AuditLogService {
     
-    private final AuditLogRepository auditLogRepository;
+    private final AuditLogBuffer auditLogBuffer;
     
     @Override
-    @Transactional
     public void logUserAction(AuditLog.ActionType actionType, Long userId, String oldValue, 
                               String newValue, String reason, User performedBy) {
         log.info("Logging user action: {} for user ID: {} by admin: {}", 
@@ -33,13 +36,14 @@ public class AuditLogServiceImpl implements AuditLogService {
                 .oldValue(oldValue)
                 .newValue(newValue)
                 .reason(reason)
+                .ipAddress(RequestMetadata.current().ipAddress())
+                .timestamp(LocalDateTime.now())
                 .build();
         
-        auditLogRepository.save(auditLog);
+        auditLogBuffer.append(auditLog);
     }
     
     @Override
-    @Transactional
     public void logEventAction(AuditLog.ActionType actionType, Long eventId, 
                                String description, User performedBy) {
         log.info("Logging event action: {} for event ID: {} by admin: {}", 
@@ -52,13 +56,14 @@ public class AuditLogServiceImpl implements AuditLogService {
                 .performedBy(performedBy.getId())
                 .performedByUsername(performedBy.getUsername())
                 .description(description)
+                .ipAddress(RequestMetadata.current().ipAddress())
+                .timestamp(LocalDateTime.now())
                 .build();
         
-        auditLogRepository.save(auditLog);
+        auditLogBuffer.append(auditLog);
     }
     
     @Override
-    @Transactional
     public void logRegistrationAction(AuditLog.ActionType actionType, Long registrationId, 
                                       String description, User performedBy) {
         log.info("Logging registration action: {} for registration ID: {} by admin: {}", 
@@ -71,9 +76,11 @@ public class AuditLogServiceImpl implements AuditLogService {
                 .performedBy(performedBy.getId())
                 .performedByUsername(performedBy.getUsername())
                 .description(description)
+                .ipAddress(RequestMetadata.current().ipAddress())
+                .timestamp(LocalDateTime.now())
                 .build();
         
-        auditLogRepository.save(auditLog);
+        auditLogBuffer.append(auditLog);
     }
     
     private String buildDescription(AuditLog.ActionType actionType, Long userId) {
@@ -56,6 +56,7 @@ public class AuthServiceImpl implements AuthService {
     private final JavaMailSender javaMailSender;
     private final PasswordResetTokenService passwordResetTokenService;
     private final RoleRepository roleRepository;
+    private final ActivityRollupBuffer activityRollupBuffer;
 
 
     @Override
@@ -80,6 +81,7 @@ public class AuthServiceImpl implements AuthService {
         user.setActiveRole(Role.RoleName.VOLUNTEER);
 
         User savedUser = userRepository.save(user);
+        activityRollupBuffer.record(ActivityRollupBuffer.Activity.USER, 1);
         UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
                 new UsernamePasswordAuthenticationToken(
                         savedUser, null, savedUser.getAuthorities()
@@ -0,0 +1,52 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.model.Comment;
+import com.example.demo.repository.CommentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills {@link Comment#getPath()} for comments created before the column existed.
+ * Runs top-down in batches (a comment is only filled once its parent has a path) and is a no-op
+ * once every row has one.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CommentPathBackfill {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final CommentRepository commentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (commentRepository.countByPathIsNull() == 0) {
+            return;
+        }
+        log.info("Backfilling comment paths");
+
+        int total = 0;
+        int updated;
+        do {
+            updated = transactionTemplate.execute(status -> {
+                List<Comment> batch = commentRepository.findCommentsReadyForPathBackfill(PageRequest.of(0, BATCH_SIZE));
+                batch.forEach(comment -> comment.setPath(Comment.childPath(
+                        comment.getParentComment() != null ? comment.getParentComment().getPath() : null,
+                        comment.getId())));
+                return batch.size();
+            });
+            total += updated;
+        } while (updated > 0);
+
+        log.info("Backfilled paths for {} comments", total);
+    }
+}
@@ -27,8 +27,10 @@ import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 @Service
 @Slf4j
@@ -45,6 +47,7 @@ public class CommentServiceImpl implements CommentService {
     private final LikeRepository likeRepository;
     private final NotificationService notificationService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final CounterDeltaBuffer counterDeltaBuffer;
 
     @Override
     @CacheEvict(value = "dashboard", key = "'volunteer:' + #root.target.getCurrentUser().id")
@@ -73,14 +76,26 @@ public class CommentServiceImpl implements CommentService {
         if(createCommentDTO.getParentCommentId() != null) {
             Comment parentcomment = commentRepository.findById(createCommentDTO.getParentCommentId())
                     .orElseThrow(() -> new ResourceNotFoundException("Comment not found"));
-            comment.setParentComment(parentcomment);
-            // Only notify if not replying to own comment
-            if (!parentcomment.getUser().getId().equals(user.getId())) {
-                notificationService.notifyUserOnNewChildComment(parentcomment.getUser(), comment);
+            // Threads never span posts; the post counters and the reply count reconciliation rely on it
+            if (!parentcomment.getPost().getId().equals(post.getId())) {
+                throw new IllegalArgumentException("Parent comment belongs to another post");
             }
+            comment.setParentComment(parentcomment);
         }
 
         Comment savedComment = commentRepository.save(comment);
+        // The path ends with the comment's own id, so it can only be set once the id is generated
+        savedComment.setPath(Comment.childPath(
+                savedComment.getParentComment() != null ? savedComment.getParentComment().getPath() : null,
+                savedComment.getId()));
+        // Only notify if not replying to own comment; after the save so the notification carries the comment id
+        Comment parent = savedComment.getParentComment();
+        if (parent != null && !parent.getUser().getId().equals(user.getId())) {
+            notificationService.notifyUserOnNewChildComment(parent.getUser(), savedComment);
+        }
+        counterDeltaBuffer.increment(CounterDeltaBuffer.Counter.POST_COMMENTS, post.getId());
+        savedComment.ancestorIds().forEach(ancestorId ->
+                counterDeltaBuffer.increment(CounterDeltaBuffer.Counter.COMMENT_REPLIES, ancestorId));
 
         // Upload files if provided
         if (files != null && !files.isEmpty()) {
@@ -209,7 +224,15 @@ public class CommentServiceImpl implements CommentService {
             throw new UnauthorizedException("You are not authorized to delete this comment");
         }
 
+        // Replies cascade with the comment, so the counters drop by the whole subtree
+        long removed = 1 + commentRepository.countDescendants(comment);
+        List<Long> ancestorIds = comment.ancestorIds();
+
         commentRepository.delete(comment);
+
+        counterDeltaBuffer.add(CounterDeltaBuffer.Counter.POST_COMMENTS, comment.getPost().getId(), -removed);
+        ancestorIds.forEach(ancestorId ->
+                counterDeltaBuffer.add(CounterDeltaBuffer.Counter.COMMENT_REPLIES, ancestorId, -removed));
         log.info("Comment deleted successfully: {}", commentId);
     }
 
@@ -232,12 +255,12 @@ public class CommentServiceImpl implements CommentService {
             comments = comments.subList(0, limit);
         }
 
-        List<CommentDTO> commentDTOS = comments.stream().map(this::toCommentDTOWithCounts)
-                .toList();
+        List<CommentDTO> commentDTOS = toCommentDTOsWithCounts(comments);
 
+        // The cursor is built from the entity: the query orders by the stored like count, not the DTO's buffered one
         Comment nextCursor = null;
-        if (hasNext && !comments.isEmpty() && !commentDTOS.isEmpty()) {
-            nextCursor = comments.get(commentDTOS.size() - 1);
+        if (hasNext && !comments.isEmpty()) {
+            nextCursor = comments.get(comments.size() - 1);
         }
 
         String encodedCursor = nextCursor != null 
@@ -262,12 +285,11 @@ public class CommentServiceImpl implements CommentService {
             replyComments = replyComments.subList(0, limit);
         }
 
-        List<CommentDTO> commentDTOs = replyComments.stream().map(this::toCommentDTOWithCounts).toList();
+        List<CommentDTO> commentDTOs = toCommentDTOsWithCounts(replyComments);
 
         String nextCursor = null;
-        if (!replyComments.isEmpty() && hasNext) {
-            Comment lastReplyComment = replyComments.get(replyComments.size() - 1);
-            nextCursor = encodeCursor(lastReplyComment, CommentSortType.LATEST);
+        if (!commentDTOs.isEmpty() && hasNext) {
+            nextCursor = encodeCursor(replyComments.get(replyComments.size() - 1), CommentSortType.LATEST);
         }
         
         return CommentCursorPageResponse.of(commentDTOs, nextCursor, hasNext);
@@ -282,63 +304,34 @@ public class CommentServiceImpl implements CommentService {
             limit = 20;
         }
 
-        // Get all replies flattened (all nested replies at same level)
-        List<Comment> allReplies = getAllRepliesRecursive(commentId);
-        
-        // Sort by createdAt DESC
-        allReplies.sort((a, b) -> {
-            int dateCompare = b.getCreatedAt().compareTo(a.getCreatedAt());
-            if (dateCompare != 0) return dateCompare;
-            return Long.compare(b.getId(), a.getId());
-        });
-
-        // Apply cursor pagination if provided
+        Comment rootComment = commentRepository.findById(commentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Comment not found"));
+
+        // Whole subtree in one keyset-paginated query over the materialized path
+        List<Comment> allReplies;
         if (cursor != null && !cursor.isEmpty()) {
-            LocalDateTime cursorDate = decodeDateCursor(cursor);
-            allReplies = allReplies.stream()
-                .filter(c -> c.getCreatedAt().isBefore(cursorDate) || 
-                            (c.getCreatedAt().equals(cursorDate) && c.getId() < Long.parseLong(cursor.split("_")[1])))
-                .toList();
+            String[] part = decodeFlattenedCursor(cursor);
+            allReplies = commentRepository.findAllRepliesFlattened(rootComment, LocalDateTime.parse(part[0]),
+                    Long.parseLong(part[1]), limit + 1);
+        } else {
+            allReplies = commentRepository.findAllRepliesFlattened(rootComment, null, null, limit + 1);
         }
 
-        // Apply limit
         boolean hasNext = allReplies.size() > limit;
         if (hasNext) {
             allReplies = allReplies.subList(0, limit);
         }
 
-        List<CommentDTO> commentDTOs = allReplies.stream()
-            .map(this::toCommentDTOWithCounts)
-            .toList();
+        List<CommentDTO> commentDTOs = toCommentDTOsWithCounts(allReplies);
 
         String nextCursor = null;
-        if (!allReplies.isEmpty() && hasNext) {
-            Comment lastReply = allReplies.get(allReplies.size() - 1);
-            nextCursor = encodeCursor(lastReply, CommentSortType.LATEST);
+        if (!commentDTOs.isEmpty() && hasNext) {
+            nextCursor = encodeFlattenedCursor(commentDTOs.get(commentDTOs.size() - 1));
         }
         
         return CommentCursorPageResponse.of(commentDTOs, nextCursor, hasNext);
     }
 
-    /**
-     * Recursively get all replies (flattened) for a comment
-     * This includes all nested replies at any level
-     */
-    private List<Comment> getAllRepliesRecursive(Long commentId) {
-        List<Comment> allReplies = new java.util.ArrayList<>();
-        
-        // Get direct replies
-        List<Comment> directReplies = commentRepository.findRepliesByParentCommentIdOrderByLatestWithLimit(commentId, 1000);
-        allReplies.addAll(directReplies);
-        
-        // Recursively get replies of each direct reply
-        for (Comment reply : directReplies) {
-            allReplies.addAll(getAllRepliesRecursive(reply.getId()));
-        }
-        
-        return allReplies;
-    }
-
     private List<Comment> getRepliesByLatest(Long commentId, String cursor, int limit) {
         if(cursor == null || cursor.isEmpty()) {
             return commentRepository.findRepliesByParentCommentIdOrderByLatestWithLimit(commentId, limit + 1);
@@ -369,10 +362,48 @@ public class CommentServiceImpl implements CommentService {
     }
 
     private CommentDTO toCommentDTOWithCounts(Comment comment) {
+        return toCommentDTOsWithCounts(List.of(comment)).get(0);
+    }
+
+    /**
+     * Page-level enrichment: like and nested reply counts come from the denormalized columns
+     * (plus deltas not flushed yet), the current user's likes from one grouped query.
+     */
+    private List<CommentDTO> toCommentDTOsWithCounts(List<Comment> comments) {
+        if (comments.isEmpty()) {
+            return List.of();
+        }
+        List<Long> commentIds = comments.stream().map(Comment::getId).toList();
+        Set<Long> likedByCurrentUser = findLikedByCurrentUser(commentIds);
+
+        return comments.stream()
+                .map(comment -> toCommentDTO(comment,
+                        (int) (comment.getLikeCount()
+                                + counterDeltaBuffer.pending(CounterDeltaBuffer.Counter.COMMENT_LIKES, comment.getId())),
+                        (int) (comment.getReplyCount()
+                                + counterDeltaBuffer.pending(CounterDeltaBuffer.Counter.COMMENT_REPLIES, comment.getId())),
+                        likedByCurrentUser.contains(comment.getId())))
+                .toList();
+    }
+
+    private Set<Long> findLikedByCurrentUser(List<Long> commentIds) {
+        try {
+            User currentUser = userService.getCurrentUser();
+            if (currentUser == null) {
+                return Set.of();
+            }
+            return new HashSet<>(likeRepository.findLikedCommentIds(currentUser.getId(), commentIds));
+        } catch (Exception e) {
+            // In case there is no authenticated user (e.g. public access), default to false
+            return Set.of();
+        }
+    }
+
+    private CommentDTO toCommentDTO(Comment comment, int likeCount, int replyCount, boolean likedByCurrentUser) {
         CommentDTO commentDTO = commentMapper.toCommentDTO(comment);
-        commentDTO.setLikeCount(likeRepository.countLikesByCommentId(comment.getId()));
-        // Use total replies (all nested) instead of only direct replies
-        commentDTO.setReplyCount(getAllRepliesRecursive(comment.getId()).size());
+        commentDTO.setLikeCount(likeCount);
+        commentDTO.setReplyCount(replyCount);
+        commentDTO.setIsLikedByCurrentUser(likedByCurrentUser);
 
         // Ensure parent author name is populated
         if (commentDTO.getParentAuthorName() == null && comment.getParentComment() != null && comment.getParentComment().getUser() != null) {
@@ -395,19 +426,6 @@ public class CommentServiceImpl implements CommentService {
                 .toList();
             commentDTO.setFileRecords(fileRecordDTOs);
         }
-
-        try {
-            User currentUser = userService.getCurrentUser();
-            if (currentUser != null) {
-                boolean liked = likeRepository.findByCommentIdAndUserId(comment.getId(), currentUser.getId()) != null;
-                commentDTO.setIsLikedByCurrentUser(liked);
-            } else {
-                commentDTO.setIsLikedByCurrentUser(false);
-            }
-        } catch (Exception e) {
-            // In case there is no authenticated user (e.g. public access), default to false
-            commentDTO.setIsLikedByCurrentUser(false);
-        }
         return commentDTO;
     }
 
@@ -423,8 +441,7 @@ public class CommentServiceImpl implements CommentService {
             cursorData = comment.getCreatedAt().toString();
         }
         else {
-            Integer likeCount = likeRepository.countLikesByCommentId(comment.getId());
-            cursorData = likeCount + ":" + comment.getId();
+            cursorData = comment.getLikeCount() + ":" + comment.getId();
         }
         return Base64.getEncoder().encodeToString(cursorData.getBytes());
     }
@@ -435,6 +452,18 @@ public class CommentServiceImpl implements CommentService {
         return LocalDateTime.parse(decodeString);
     }
 
+    // Flattened replies share timestamps across branches, so the cursor carries the id tie-breaker too
+    private String encodeFlattenedCursor(CommentDTO comment) {
+        String cursorData = comment.getCreatedAt() + "_" + comment.getId();
+        return Base64.getEncoder().encodeToString(cursorData.getBytes());
+    }
+
+    private String[] decodeFlattenedCursor(String cursor) {
+        byte[] decodeBytes = Base64.getDecoder().decode(cursor);
+        String decodeString = new String(decodeBytes);
+        return decodeString.split("_");
+    }
+
     private String[] decodeTopLikedCursor(String cursor) {
         byte[] decodeBytes = Base64.getDecoder().decode(cursor);
         String decodeString = new String(decodeBytes);
@@ -0,0 +1,168 @@
+package com.example.demo.service.Impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind buffer for the denormalized like/comment counters on Post and Comment.
+ * <p>
+ * Writers add deltas after their transaction commits; deltas for the same row are merged in a
+ * lock-striped {@link ConcurrentHashMap} and flushed as one JDBC batch of
+ * {@code UPDATE ... SET x = x + ?} per counter every {@code counters.flush-interval-ms}.
+ * A hot post liked a thousand times between flushes costs one UPDATE.
+ * <p>
+ * Flushes and {@link #recount recounts} hold the same lock, so a recount can drop the deltas it already
+ * covers without a flush writing them in between.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CounterDeltaBuffer {
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Counter {
+        POST_LIKES("UPDATE post SET like_count = like_count + ? WHERE id = ?"),
+        POST_COMMENTS("UPDATE post SET comment_count = comment_count + ? WHERE id = ?"),
+        COMMENT_LIKES("UPDATE comment SET like_count = like_count + ? WHERE id = ?"),
+        COMMENT_REPLIES("UPDATE comment SET reply_count = reply_count + ? WHERE id = ?");
+
+        private final String flushSql;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Counter, ConcurrentHashMap<Long, Long>> deltas = new EnumMap<>(Counter.class);
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    {
+        for (Counter counter : Counter.values()) {
+            deltas.put(counter, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Record a counter change. Inside a transaction the delta is only buffered once it commits.
+     */
+    public void add(Counter counter, Long id, long delta) {
+        if (id == null || delta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    merge(counter, id, delta);
+                }
+            });
+        } else {
+            merge(counter, id, delta);
+        }
+    }
+
+    public void increment(Counter counter, Long id) {
+        add(counter, id, 1);
+    }
+
+    public void decrement(Counter counter, Long id) {
+        add(counter, id, -1);
+    }
+
+    /**
+     * Delta buffered on this node and not flushed yet; added to the stored value for read-your-writes.
+     */
+    public long pending(Counter counter, Long id) {
+        return deltas.get(counter).getOrDefault(id, 0L);
+    }
+
+    @Scheduled(fixedDelayString = "${counters.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            for (Counter counter : Counter.values()) {
+                flush(counter);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Run {@code recount}, which sets the counters of rows {@code [fromId, toId]} to absolute values computed from
+     * the committed source rows, then drop the buffered deltas of those rows: the recount already includes them.
+     * No flush runs in between.
+     */
+    public <T> T recount(Set<Counter> counters, long fromId, long toId, Supplier<T> recount) {
+        flushLock.lock();
+        try {
+            T result = recount.get();
+            for (Counter counter : counters) {
+                deltas.get(counter).keySet().removeIf(id -> id >= fromId && id <= toId);
+            }
+            return result;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Flushing pending counter deltas before shutdown");
+        flush();
+    }
+
+    private void flush(Counter counter) {
+        ConcurrentHashMap<Long, Long> pending = deltas.get(counter);
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // remove() hands over exactly what was accumulated; later deltas start a fresh entry
+        List<Object[]> batch = new ArrayList<>();
+        for (Long id : pending.keySet()) {
+            Long delta = pending.remove(id);
+            if (delta != null && delta != 0) {
+                batch.add(new Object[]{delta, id});
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(counter.getFlushSql(), batch);
+            meterRegistry.counter("counters.flushed.rows", "counter", counter.name()).increment(batch.size());
+            log.debug("Flushed {} {} deltas", batch.size(), counter);
+        } catch (DataAccessException ex) {
+            // Put the deltas back so the next flush retries them
+            log.warn("Failed to flush {} {} deltas, will retry: {}", batch.size(), counter, ex.getMessage());
+            batch.forEach(row -> merge(counter, (Long) row[1], (Long) row[0]));
+        }
+    }
+
+    private void merge(Counter counter, Long id, long delta) {
+        deltas.get(counter).merge(id, delta, (current, added) -> {
+            long sum = current + added;
+            return sum == 0 ? null : sum;
+        });
+    }
+}
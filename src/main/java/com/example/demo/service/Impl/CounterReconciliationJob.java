@@ -0,0 +1,132 @@
+package com.example.demo.service.Impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Nightly repair of the denormalized counters against the source rows (likes, comments).
+ * Catches drift from lost buffered deltas (crashed node, failed flush) and from cascade deletes that
+ * bypass the services. Works in id ranges so no statement locks a whole table; each range is recounted through
+ * {@link CounterDeltaBuffer#recount}, which drops the deltas buffered for it so they are not added on top.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CounterReconciliationJob {
+
+    private static final String RECONCILE_POST_COUNTS =
+            "UPDATE post p SET " +
+            "like_count = (SELECT COUNT(*) FROM post_likes l WHERE l.post_id = p.id), " +
+            "comment_count = (SELECT COUNT(*) FROM comment c WHERE c.post_id = p.id) " +
+            "WHERE p.id BETWEEN ? AND ?";
+
+    private static final String RECONCILE_COMMENT_LIKES =
+            "UPDATE comment c SET like_count = (SELECT COUNT(*) FROM post_likes l WHERE l.comment_id = c.id) " +
+            "WHERE c.id BETWEEN ? AND ?";
+
+    // Replies are always on the post of the comment they answer, so the threads of the chunk's posts hold
+    // every descendant. Counted from parent ids in memory: no per-ancestor LIKE, and rows without a path count too
+    private static final String FIND_CHUNK_THREADS =
+            "SELECT c.id, c.parent_comment_id, c.reply_count FROM comment c " +
+            "WHERE c.post_id IN (SELECT DISTINCT post_id FROM comment WHERE id BETWEEN ? AND ?)";
+
+    private static final String UPDATE_REPLY_COUNT = "UPDATE comment SET reply_count = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CounterDeltaBuffer counterDeltaBuffer;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${counters.reconcile-chunk-size:5000}")
+    private int chunkSize;
+
+    @Scheduled(cron = "${counters.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        long start = System.nanoTime();
+        int posts = reconcileInChunks("post", RECONCILE_POST_COUNTS,
+                EnumSet.of(CounterDeltaBuffer.Counter.POST_LIKES, CounterDeltaBuffer.Counter.POST_COMMENTS));
+        int commentLikes = reconcileInChunks("comment", RECONCILE_COMMENT_LIKES,
+                EnumSet.of(CounterDeltaBuffer.Counter.COMMENT_LIKES));
+        int replyDrift = reconcileReplyCounts();
+
+        meterRegistry.counter("counters.reconciled.reply_drift").increment(replyDrift);
+        log.info("Reconciled counters for {} posts and {} comments ({} reply counts corrected) in {} ms",
+                posts, commentLikes, replyDrift, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int reconcileInChunks(String table, String sql, Set<CounterDeltaBuffer.Counter> counters) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (maxId == null) {
+            return 0;
+        }
+        int updated = 0;
+        for (long start = 1; start <= maxId; start += chunkSize) {
+            long from = start;
+            long to = start + chunkSize - 1;
+            updated += counterDeltaBuffer.recount(counters, from, to, () -> jdbcTemplate.update(sql, from, to));
+        }
+        return updated;
+    }
+
+    private int reconcileReplyCounts() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM comment", Long.class);
+        if (maxId == null) {
+            return 0;
+        }
+        int corrected = 0;
+        for (long start = 1; start <= maxId; start += chunkSize) {
+            long from = start;
+            long to = start + chunkSize - 1;
+            corrected += counterDeltaBuffer.recount(EnumSet.of(CounterDeltaBuffer.Counter.COMMENT_REPLIES), from, to, () -> {
+                List<Object[]> drift = findReplyCountDrift(from, to);
+                if (!drift.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPDATE_REPLY_COUNT, drift);
+                }
+                return drift.size();
+            });
+        }
+        return corrected;
+    }
+
+    // {descendants, id} of the chunk's comments whose reply_count is off
+    private List<Object[]> findReplyCountDrift(long from, long to) {
+        Map<Long, Long> parents = new HashMap<>();
+        Map<Long, Long> stored = new HashMap<>();
+        jdbcTemplate.query(FIND_CHUNK_THREADS, (RowCallbackHandler) rs -> {
+            long id = rs.getLong(1);
+            long parentId = rs.getLong(2);
+            if (!rs.wasNull()) {
+                parents.put(id, parentId);
+            }
+            stored.put(id, rs.getLong(3));
+        }, from, to);
+
+        Map<Long, Long> descendants = new HashMap<>();
+        for (Long id : stored.keySet()) {
+            for (Long ancestor = parents.get(id); ancestor != null; ancestor = parents.get(ancestor)) {
+                descendants.merge(ancestor, 1L, Long::sum);
+            }
+        }
+
+        List<Object[]> drift = new ArrayList<>();
+        stored.forEach((id, replyCount) -> {
+            long actual = descendants.getOrDefault(id, 0L);
+            if (id >= from && id <= to && actual != replyCount) {
+                drift.add(new Object[]{actual, id});
+            }
+        });
+        return drift;
+    }
+}
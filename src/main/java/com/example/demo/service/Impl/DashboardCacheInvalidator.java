@@ -0,0 +1,108 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.model.Event;
+import com.example.demo.repository.RegistrationRepository;
+import com.example.demo.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Evicts only the dashboard entries a change can affect instead of clearing the whole {@code dashboard} cache.
+ * <ul>
+ *     <li>registration change: the volunteer's dashboard, the event creator's manager dashboard and the admin dashboards</li>
+ *     <li>event change: the creator's manager dashboard, the admin dashboards and the dashboards of everyone registered</li>
+ *     <li>post change: the author's dashboard and the event creator's manager dashboard (recent activity)</li>
+ * </ul>
+ * The cache manager is transaction aware, so evictions made inside a transaction only happen after it commits.
+ * Recommendations on volunteer dashboards are not tracked per event; they follow the cache TTL.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DashboardCacheInvalidator {
+
+    public static final String CACHE_NAME = "dashboard";
+
+    private static final String VOLUNTEER = "volunteer";
+    private static final String MANAGER = "manager";
+    private static final String ADMIN = "admin";
+
+    private final CacheManager cacheManager;
+    private final UserRepository userRepository;
+    private final RegistrationRepository registrationRepository;
+    private final MeterRegistry meterRegistry;
+
+    // Admin dashboards are keyed per admin; the set of admins rarely changes
+    private volatile List<Long> adminIds;
+
+    public void registrationChanged(Event event, Long userId) {
+        volunteer(userId);
+        manager(event.getCreator().getId());
+        admins();
+    }
+
+    public void registrationsChanged(Event event, Collection<Long> userIds) {
+        volunteers(userIds);
+        manager(event.getCreator().getId());
+        admins();
+    }
+
+    public void eventChanged(Event event) {
+        manager(event.getCreator().getId());
+        admins();
+        volunteers(registrationRepository.findUserIdsByEventId(event.getId()));
+    }
+
+    public void postChanged(Event event, Long authorId) {
+        volunteer(authorId);
+        manager(event.getCreator().getId());
+    }
+
+    public void volunteer(Long userId) {
+        evict(VOLUNTEER, userId);
+    }
+
+    public void volunteers(Collection<Long> userIds) {
+        Set.copyOf(userIds).forEach(this::volunteer);
+    }
+
+    public void manager(Long managerId) {
+        evict(MANAGER, managerId);
+    }
+
+    public void admins() {
+        List<Long> ids = adminIds;
+        if (ids == null) {
+            ids = userRepository.findAdminIds();
+            adminIds = ids;
+        }
+        ids.forEach(id -> evict(ADMIN, id));
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.cache.admin-ids-refresh-ms:600000}")
+    public void refreshAdminIds() {
+        adminIds = null;
+    }
+
+    private void evict(String region, Long id) {
+        if (id == null) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return;
+        }
+        cache.evict(region + ":" + id);
+        meterRegistry.counter("dashboard.cache.evictions", "region", region).increment();
+        log.debug("Evicted {} dashboard of {}", region, id);
+    }
+}
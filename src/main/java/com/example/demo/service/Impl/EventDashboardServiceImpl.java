@@ -1,17 +1,23 @@
 package com.example.demo.service.Impl;
 
 import com.example.demo.dto.dashboard_manager.*;
+import com.example.demo.dto.post_content.PostActivityRow;
+import com.example.demo.dto.registration.RegistrationStatusTotals;
+import com.example.demo.exception.ServiceUnavailableException;
 import com.example.demo.model.Event;
-import com.example.demo.model.Post;
+import com.example.demo.model.EventRegistrationStats;
 import com.example.demo.model.Registration;
 import com.example.demo.model.User;
 import com.example.demo.repository.*;
 import com.example.demo.service.EventDashboardService;
 import com.example.demo.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.annotations.Cache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -19,7 +25,15 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,61 +42,111 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class EventDashboardServiceImpl implements EventDashboardService {
 
+    private static final int RECENT_ACTIVITY_LIMIT = 20;
+    private static final int POSTS_PER_EVENT = 5;
+
     private final EventRepository eventRepository;
     private final RegistrationRepository registrationRepository;
     private final PostRepository postRepository;
     private final CommentRepository commentRepository;
     private final UserService userService;
+    private final EventRegistrationStatsRepository eventRegistrationStatsRepository;
+    private final ParticipantCountAggregator participantCountAggregator;
+    private final MeterRegistry meterRegistry;
+    private final Executor dashboardExecutor;
+
+    @Value("${dashboard.section-timeout-ms:5000}")
+    private long sectionTimeoutMs;
 
     @Override
-    @Cacheable(value = "dashboard", key = "'manager:' + #root.target.userService.getCurrentUser().id")
+    @Cacheable(value = "dashboard", key = "'manager:' + #root.target.userService.getCurrentUser().id", sync = true)
     public EventDashboardDTO getManagerDashboard() {
         log.info("Getting dashboard for event manager");
         
         User currentUser = userService.getCurrentUser();
         Long managerId = currentUser.getId();
         
+        Timer.Sample build = Timer.start(meterRegistry);
+
+        // Sections are independent queries keyed by manager id, so they run side by side
+        CompletableFuture<Map<Event.EventStatus, Integer>> overviewFuture =
+                section("overview", () -> getEventOverview(managerId));
+        CompletableFuture<RegistrationStatisticsDTO> statisticsFuture =
+                section("registrationStatistics", () -> getRegistrationStatistics(managerId));
+        CompletableFuture<List<EventWithPendingRegistrationsDTO>> approvalFuture =
+                section("eventsNeedingApproval", () -> getEventsNeedingApproval(managerId));
+        CompletableFuture<List<EventActivityDTO>> activitiesFuture =
+                section("recentActivities", () -> getRecentActivities(managerId));
+        CompletableFuture<List<UpcomingEventDTO>> upcomingFuture =
+                section("upcomingEvents", () -> getUpcomingEventsNeedPreparation(managerId));
+
+        try {
+            CompletableFuture.allOf(overviewFuture, statisticsFuture, approvalFuture, activitiesFuture, upcomingFuture)
+                    .join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof TimeoutException) {
+                log.warn("Dashboard of manager {} not built within {} ms", managerId, sectionTimeoutMs);
+                throw new ServiceUnavailableException("Dashboard is taking too long to load, please try again");
+            }
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+
         EventDashboardDTO dashboard = new EventDashboardDTO();
         
         // 1. Tổng quan sự kiện
-        dashboard.setTotalManagedEvents(eventRepository.countEventsByManager(managerId));
-        dashboard.setActiveEvents(eventRepository.countEventsByManagerAndStatus(managerId, Event.EventStatus.ONGOING));
-        dashboard.setCompletedEvents(eventRepository.countEventsByManagerAndStatus(managerId, Event.EventStatus.COMPLETED));
+        Map<Event.EventStatus, Integer> overview = overviewFuture.join();
+        dashboard.setTotalManagedEvents(overview.values().stream().mapToInt(Integer::intValue).sum());
+        dashboard.setActiveEvents(overview.getOrDefault(Event.EventStatus.ONGOING, 0));
+        dashboard.setCompletedEvents(overview.getOrDefault(Event.EventStatus.COMPLETED, 0));
         
         // Count upcoming events (PLANNED status)
-        dashboard.setUpcomingEvents(eventRepository.countEventsByManagerAndStatus(managerId, Event.EventStatus.PLANNED));
+        dashboard.setUpcomingEvents(overview.getOrDefault(Event.EventStatus.PLANNED, 0));
         
         // 2. Thống kê đăng ký
-        dashboard.setRegistrationStatistics(getRegistrationStatistics(managerId));
+        dashboard.setRegistrationStatistics(statisticsFuture.join());
         
         // 3. Sự kiện cần duyệt đăng ký
-        dashboard.setEventsNeedingApproval(getEventsNeedingApproval(managerId));
+        dashboard.setEventsNeedingApproval(approvalFuture.join());
         
         // 4. Hoạt động gần đây
-        dashboard.setRecentActivities(getRecentActivities(managerId));
+        dashboard.setRecentActivities(activitiesFuture.join());
         
         // 5. Sự kiện sắp tới cần chuẩn bị (7 ngày tới)
-        dashboard.setUpcomingEventsNeedPreparation(getUpcomingEventsNeedPreparation(managerId));
+        dashboard.setUpcomingEventsNeedPreparation(upcomingFuture.join());
         
         // 6. Báo cáo tham dự
         //dashboard.setAttendanceReports(getAttendanceReports(managerId));
         
+        build.stop(meterRegistry.timer("dashboard.manager.build"));
         log.info("Dashboard generated successfully for manager: {}", managerId);
         return dashboard;
     }
 
+    // Bounded from submission, so time spent queued behind other dashboards counts too
+    private <T> CompletableFuture<T> section(String name, Supplier<T> supplier) {
+        Timer timer = meterRegistry.timer("dashboard.manager.section", "section", name);
+        return CompletableFuture.supplyAsync(() -> timer.record(supplier), dashboardExecutor)
+                .orTimeout(sectionTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private Map<Event.EventStatus, Integer> getEventOverview(Long managerId) {
+        Map<Event.EventStatus, Integer> overview = new EnumMap<>(Event.EventStatus.class);
+        eventRepository.countEventsByManagerGroupByStatus(managerId)
+                .forEach(row -> overview.put(row.getStatus(), row.getCount().intValue()));
+        return overview;
+    }
+
     private RegistrationStatisticsDTO getRegistrationStatistics(Long managerId) {
 
-        Integer totalRegistrations = registrationRepository.countAllRegistrationsByManager(managerId);
+        // One sum over the maintained per-event stats instead of five COUNT queries over registrations
+        RegistrationStatusTotals totals = eventRegistrationStatsRepository.sumByManager(managerId);
 
-        Integer pendingRegistrations = registrationRepository.countRegistrationsByManagerAndStatus(
-                managerId, Registration.RegistrationStatus.PENDING);
-        Integer approvedRegistrations = registrationRepository.countRegistrationsByManagerAndStatus(
-                managerId, Registration.RegistrationStatus.APPROVED);
-        Integer rejectedRegistrations = registrationRepository.countRegistrationsByManagerAndStatus(
-                managerId, Registration.RegistrationStatus.REJECTED);
-        Integer cancelledRegistrations = registrationRepository.countRegistrationsByManagerAndStatus(
-                managerId, Registration.RegistrationStatus.CANCELLED);;
+        Integer pendingRegistrations = totals.getPending().intValue();
+        Integer approvedRegistrations = totals.getApproved().intValue();
+        Integer rejectedRegistrations = totals.getRejected().intValue();
+        Integer cancelledRegistrations = totals.getCancelled().intValue();
+        Integer totalRegistrations = pendingRegistrations + approvedRegistrations + rejectedRegistrations
+                + cancelledRegistrations + totals.getWaiting().intValue();
 
         Double approvalRate = (totalRegistrations > 0) ? (approvedRegistrations * 100.0 / totalRegistrations ) : 0.0;
 
@@ -97,13 +161,14 @@ public class EventDashboardServiceImpl implements EventDashboardService {
 
 
         List<Event> events = eventRepository.findEventsWithPendingRegistrations(managerId);
+        Map<Long, EventRegistrationStats> stats = participantCountAggregator.getStats(
+                events.stream().map(Event::getId).toList());
 
         return events.stream().map(event -> {
             Long eventId = event.getId();
             String eventTitle = event.getTitle();
-            Integer pendingCount = registrationRepository.countPendingByEventId(eventId);
-            Integer approvedCount = registrationRepository.countByEventIdAndStatus(eventId,
-                    Registration.RegistrationStatus.APPROVED);
+            Integer pendingCount = stats.get(eventId).getPendingCount();
+            Integer approvedCount = stats.get(eventId).getApprovedCount();
             Integer maxParticipants = event.getMaxParticipants();
             LocalDateTime eventDate = event.getDate();
             Boolean isFull = approvedCount >= maxParticipants;
@@ -118,7 +183,7 @@ public class EventDashboardServiceImpl implements EventDashboardService {
         List<EventActivityDTO> activities = new ArrayList<>();
 
         List<Registration> registrations = registrationRepository.findRecentRegistrationsByManager(
-                managerId, PageRequest.of(0, 20));
+                managerId, PageRequest.of(0, RECENT_ACTIVITY_LIMIT));
 
         for(Registration registration : registrations) {
             EventActivityDTO eventActivityDTO = new EventActivityDTO();
@@ -135,31 +200,23 @@ public class EventDashboardServiceImpl implements EventDashboardService {
             activities.add(eventActivityDTO);
         }
 
-        List<Event> events = eventRepository.getMyEvents(managerId);
-
-        for(Event event : events) {
-            List<Post> posts = postRepository.getAllPostByEvent(event.getId())
-                    .stream()
-                    .sorted((p1,p2) -> p2.getCreatedAt().compareTo(p1.getCreatedAt()))
-                    .limit(5)
-                    .toList();
-
-            for(Post post : posts) {
-                EventActivityDTO activity = new EventActivityDTO();
-                activity.setEventId(event.getId());
-                activity.setEventTitle(event.getTitle());
-                activity.setActivityType(EventActivityDTO.ActivityType.NEW_POST);
-                activity.setActivityDescription("created a new post");
-                activity.setActivityTime(post.getCreatedAt());
-                activity.setUserName(post.getPostCreator().getUsername());
-                activities.add(activity);
-            }
+        // Latest posts per event in one windowed query; no more than the feed can show are fetched
+        for (PostActivityRow post : postRepository.findLatestPostsPerEventByManager(
+                managerId, POSTS_PER_EVENT, RECENT_ACTIVITY_LIMIT)) {
+            EventActivityDTO activity = new EventActivityDTO();
+            activity.setEventId(post.getEventId());
+            activity.setEventTitle(post.getEventTitle());
+            activity.setActivityType(EventActivityDTO.ActivityType.NEW_POST);
+            activity.setActivityDescription("created a new post");
+            activity.setActivityTime(post.getCreatedAt());
+            activity.setUserName(post.getUsername());
+            activities.add(activity);
         }
 
         return activities
                 .stream()
                 .sorted((a1, a2) -> a2.getActivityTime().compareTo(a1.getActivityTime()))
-                .limit(20)
+                .limit(RECENT_ACTIVITY_LIMIT)
                 .toList();
     }
 
@@ -169,11 +226,12 @@ public class EventDashboardServiceImpl implements EventDashboardService {
 
         List<Event> upcomingEvents = eventRepository.findUpcomingEventsByManager(
                 managerId, now, sevenDaysLater);
+        Map<Long, EventRegistrationStats> stats = participantCountAggregator.getStats(
+                upcomingEvents.stream().map(Event::getId).toList());
 
         return upcomingEvents.stream()
                 .map(event -> {
-                    Integer approvedCount = registrationRepository.countByEventIdAndStatus(
-                            event.getId(), Registration.RegistrationStatus.APPROVED);
+                    Integer approvedCount = stats.get(event.getId()).getApprovedCount();
 
                     long daysUntil = ChronoUnit.DAYS.between(now, event.getDate());
 
@@ -11,7 +11,6 @@ import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.exception.UnauthorizedException;
 import com.example.demo.mapper.EventMapper;
 import com.example.demo.model.Event;
-import com.example.demo.model.Registration;
 import com.example.demo.model.Tag;
 import com.example.demo.model.User;
 import com.example.demo.repository.*;
@@ -24,7 +23,6 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -34,8 +32,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -44,22 +42,27 @@ import java.util.stream.Collectors;
 @Transactional
 public class EventServiceImpl implements EventService {
 
+    private static final int RECOMMENDATION_LIMIT = 5;
+    // Spare candidates in case some filled up since the last feature refresh
+    private static final int RECOMMENDATION_OVERFETCH = 10;
+
     private final EventMapper eventMapper;
     private final EventRepository eventRepository;
-    private final RegistrationRepository registrationRepository;
     private final NotificationService notificationService;
     private final UserRepository userRepository;
     private final TagRepository tagRepository;
-    private final LikeRepository likeRepository;
-    private final CommentRepository commentRepository;
-    private final TagService tagService;
+    private final WaitlistPromotionEngine waitlistPromotionEngine;
+    private final ParticipantCountAggregator participantCountAggregator;
+    private final RecommendationScoringEngine recommendationScoringEngine;
+    private final RegistrationStatsRecorder registrationStatsRecorder;
+    private final RegistrationStatsReconciliationJob registrationStatsReconciliationJob;
+    private final ActivityRollupBuffer activityRollupBuffer;
+    private final DashboardCacheInvalidator dashboardCacheInvalidator;
     private final Cloudinary cloudinary;
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = "dashboard", allEntries = true),
-            @CacheEvict(value = "events", allEntries = true),
-    })
+    @CacheEvict(value = "events", allEntries = true)
+    @Transactional
     public EventDTO createEvent(CreateEventDTO createEventDTO) {
         log.info("Creating event: title={}", createEventDTO.getTitle());
 
@@ -70,6 +73,10 @@ public class EventServiceImpl implements EventService {
         User user = getCurrentUser();
         Event event = buildEventFromDTO(createEventDTO, user);
         Event savedEvent = eventRepository.save(event);
+        registrationStatsRecorder.created(savedEvent.getId());
+        activityRollupBuffer.record(ActivityRollupBuffer.Activity.EVENT, 1);
+        dashboardCacheInvalidator.manager(user.getId());
+        dashboardCacheInvalidator.admins();
         EventDTO eventDTO = eventMapper.toEventDTO(savedEvent);
         // New event has 0 participants
         eventDTO.setCurrentParticipants(0);
@@ -110,71 +117,47 @@ public class EventServiceImpl implements EventService {
         log.info("Check if event is available for registering");
         Event event = eventRepository.getEventById(eventId)
                 .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
-        long numberOfParticipants = registrationRepository.countByEventIdAndStatus(eventId, Registration.RegistrationStatus.APPROVED);
         return (!event.getStatus().equals(Event.EventStatus.ONGOING));
     }
 
     @Override
     public Page<EventDTO> getAllEvents(Pageable pageable) {
         log.info("Get event titles");
-        return eventRepository.findAllEvent(pageable).map(event -> {
-            EventDTO dto = eventMapper.toEventDTO(event);
-            // Calculate real-time count from registrations
-            int actualCount = calculateParticipantCount(event.getId());
-            dto.setCurrentParticipants(actualCount);
-            return dto;
-        });
+        Page<EventDTO> events = eventRepository.findAllEvent(pageable).map(eventMapper::toEventDTO);
+        // Counts from the maintained event_registration_stats rows, one lookup for the page
+        participantCountAggregator.fillParticipants(events.getContent());
+        return events;
     }
 
     @Override
     public Page<EventDTO> getMyEvents(Pageable pageable) {
         log.info("Get my events");
         User user = getCurrentUser();
-        return eventRepository.getMyEvents(user.getId(), pageable)
-                .map(event -> {
-                    EventDTO dto = eventMapper.toEventDTO(event);
-                    // Calculate real-time count from registrations
-                    int actualCount = calculateParticipantCount(event.getId());
-                    dto.setCurrentParticipants(actualCount);
-                    return dto;
-                });
+        Page<EventDTO> events = eventRepository.getMyEvents(user.getId(), pageable).map(eventMapper::toEventDTO);
+        // Counts from the maintained event_registration_stats rows, one lookup for the page
+        participantCountAggregator.fillParticipants(events.getContent());
+        return events;
     }
 
     @Override
-    // Disable cache to ensure participant count is always real-time
-    // Cache is evicted when registrations change, but to be safe, we calculate count fresh each time
+    // Count comes from the maintained event_registration_stats row, so it is fresh without a COUNT query
     public EventDTO getEventDetails(Long eventId) {
         log.info("Get event details with ID : {}", eventId);
         Event event = eventRepository.getEventById(eventId)
                 .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
         EventDTO dto = eventMapper.toEventDTO(event);
-        // Calculate real-time count from registrations (always fresh, not cached)
-        int actualCount = calculateParticipantCount(eventId);
-        dto.setCurrentParticipants(actualCount);
+        dto.setCurrentParticipants(participantCountAggregator.getStats(eventId).getParticipantCount());
         return dto;
     }
 
-    /**
-     * Calculate actual participant count from registrations (APPROVED + PENDING)
-     * This ensures count is always accurate, regardless of DB field sync
-     */
-    private int calculateParticipantCount(Long eventId) {
-        int approvedCount = registrationRepository.countByEventIdAndStatus(eventId, Registration.RegistrationStatus.APPROVED);
-        int pendingCount = registrationRepository.countByEventIdAndStatus(eventId, Registration.RegistrationStatus.PENDING);
-        return approvedCount + pendingCount;
-    }
-
     @Override
-    @Cacheable(value = "events", key = "'pending'")
+    @Cacheable(value = "events", key = "'pending'", sync = true)
     public List<EventDTO> getPendingEvents() {
         log.info("Get pending events");
-        return eventRepository.getPendingEvents().stream().map(event -> {
-            EventDTO dto = eventMapper.toEventDTO(event);
-            // Calculate real-time count from registrations
-            int actualCount = calculateParticipantCount(event.getId());
-            dto.setCurrentParticipants(actualCount);
-            return dto;
-        }).toList();
+        List<EventDTO> events = eventRepository.getPendingEvents().stream().map(eventMapper::toEventDTO).toList();
+        // Counts from the maintained event_registration_stats rows, one lookup for the list
+        participantCountAggregator.fillParticipants(events);
+        return events;
     }
 
 
@@ -192,23 +175,34 @@ public class EventServiceImpl implements EventService {
                     @CacheEvict(value = "recommendations", allEntries = true)
             }
     )
+    @Transactional
     public Event updateEvent(EventUpdateDTO eventUpdateDTO) {
         log.info("Update event: {}", eventUpdateDTO.getTitle());
-        Event event = new Event()
-                .setDate(eventUpdateDTO.getDate())
+        Event event = eventRepository.findById(eventUpdateDTO.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
+        int previousMaxParticipants = event.getMaxParticipants();
+
+        event.setDate(eventUpdateDTO.getDate())
                 .setDescription(eventUpdateDTO.getDescription())
                 .setLocation(eventUpdateDTO.getLocation())
                 .setTitle(eventUpdateDTO.getTitle())
                 .setMaxParticipants(eventUpdateDTO.getMaxParticipants());
         notificationService.notifyVolunteerOnEventUpdated(event);
-        return eventRepository.save(event);
+        Event savedEvent = eventRepository.saveAndFlush(event);
+        dashboardCacheInvalidator.eventChanged(savedEvent);
+
+        // Extra capacity goes to the waiting list in one bulk promotion
+        if (savedEvent.getMaxParticipants() > previousMaxParticipants) {
+            waitlistPromotionEngine.promoteToCapacity(savedEvent.getId());
+        }
+        return savedEvent;
     }
 
 
 
     @Override
     public long getRegistrationCount(Long eventId) {
-        return registrationRepository.countByEventId(eventId);
+        return participantCountAggregator.getStats(eventId).getTotalCount();
     }
 
 
@@ -247,66 +241,18 @@ public class EventServiceImpl implements EventService {
     // DON'T cache entities! They have lazy-loaded relationships
     // Cache at the DTO level instead (in VolunteerDashboardService)
     public List<Event> recommendEvent() {
-        List<Event> candidates = eventRepository.findCandidateEvents(PageRequest.of(0,200));
-        return candidates
-                .stream()
-                .sorted(Comparator.comparingDouble(this::calculateEventScore).reversed())
-                .limit(5)
-                .toList();
-    }
-
-    /*
-    Event's Dashboard helper method
-     */
-
-    private double calculateEventScore(Event event) {
-        User user = getCurrentUser();
-        double tagScore = tagService.calculateTagScore(user, event);
-        double capacityScore = calculateCapacityScore(event);
-        double popularityScore = calculatePopularityScore(event);
-        double organizerScore = calculateOrganizerScore(event.getCreator());
-        double timeScore = calculateTimeScore(event);
-
-        return 0.4 * tagScore
-                + 0.1 * capacityScore
-                + 0.2 * popularityScore
-                + 0.1 * organizerScore
-                + 0.2 * timeScore;
-    }
-
-    private double calculateCapacityScore(Event event) {
-        if (event.getMaxParticipants() == 0) return 0.0;
-        int approvedCount = registrationRepository
-                .countRegistrationsByEventIdAndStatus(event.getId(), Registration.RegistrationStatus.APPROVED);
-        return 1 - Math.min(1.0, (double) approvedCount / event.getMaxParticipants());
-    }
-
-    private double calculatePopularityScore(Event event) {
-        int likes = likeRepository.countAllLikeCommentsByEventId(event.getId()) +
-                likeRepository.countAllLikePostsByEventId(event.getId());
-        int comments = commentRepository.countAllCommentByEventId(event.getId());
-        int participants = event.getMaxParticipants();
-
-        double score = likes * 0.4 + comments * 0.3 + participants * 0.3;
-        return Math.min(score / 100.0, 1.0);
-    }
-
-    private double calculateOrganizerScore(User organizer) {
-        int totalEvents = organizer.getEvents().size();
-        if (totalEvents == 0) return 0.0;
-
-        long successful = organizer.getEvents().stream()
-                .filter(event -> event.getStatus() == Event.EventStatus.COMPLETED)
-                .count();
-
-        return (double) successful / totalEvents;
-    }
-
-    private double calculateTimeScore(Event event) {
+        List<Long> eventIds = recommendationScoringEngine.topK(getCurrentUser(), RECOMMENDATION_OVERFETCH);
+        Map<Long, Event> events = eventRepository.findAllById(eventIds).stream()
+                .collect(Collectors.toMap(Event::getId, Function.identity()));
+        // Features are refreshed periodically, so drop events that filled up or started since
         LocalDateTime now = LocalDateTime.now();
-        long daysDiff = ChronoUnit.DAYS.between(now, event.getDate());
-        if (daysDiff <= 0 || daysDiff >= 30) return 0.0;
-        return 1 - (daysDiff / 30.0);
+        return eventIds.stream()
+                .map(events::get)
+                .filter(event -> event != null
+                        && event.getDate().isAfter(now)
+                        && event.getMaxParticipants() > event.getCurrentRegistrationCount())
+                .limit(RECOMMENDATION_LIMIT)
+                .toList();
     }
 
     /*
@@ -333,26 +279,11 @@ public class EventServiceImpl implements EventService {
     }
 
     @Override
-    @Transactional
     public void syncEventParticipantCount(Long eventId) {
         log.info("Syncing participant count for event: {}", eventId);
-        
-        Event event = eventRepository.findById(eventId)
+        eventRepository.findById(eventId)
                 .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
-        
-        // Count APPROVED + PENDING registrations (those who occupy slots)
-        int approvedCount = registrationRepository.countByEventIdAndStatus(eventId, Registration.RegistrationStatus.APPROVED);
-        int pendingCount = registrationRepository.countByEventIdAndStatus(eventId, Registration.RegistrationStatus.PENDING);
-        int actualCount = approvedCount + pendingCount;
-        
-        log.info("Event {}: Current count in DB = {}, Actual count (APPROVED+PENDING) = {}", 
-                 eventId, event.getCurrentRegistrationCount(), actualCount);
-        
-        if (event.getCurrentRegistrationCount() != actualCount) {
-            event.setCurrentRegistrationCount(actualCount);
-            eventRepository.save(event);
-            log.info("Synced event {} participant count from {} to {}", 
-                     eventId, event.getCurrentRegistrationCount(), actualCount);
-        }
+        // Counters are maintained on every transition; this only repairs drift from out-of-band writes
+        registrationStatsReconciliationJob.reconcileEvent(eventId);
     }
 }
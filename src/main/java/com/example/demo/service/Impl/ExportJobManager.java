@@ -0,0 +1,454 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.dto.export.ExportJobDTO;
+import com.example.demo.dto.export.ExportRequest;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.exception.TooManyRequestsException;
+import com.example.demo.model.User;
+import com.example.demo.service.ExportService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Background admin exports, so multi-GB files hold neither a request thread nor heap.
+ * <p>
+ * The matching id range is split into parts rendered in parallel on the bounded export executor, each into its
+ * own gzip member on disk. The finished file is the members concatenated in id order (a valid multi-member gzip
+ * stream), copied channel to channel. Progress is pushed to {@code /user/queue/exports} and can also be polled
+ * by job id; the file is served with Range support so interrupted downloads can resume.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ExportJobManager {
+
+    private static final DateTimeFormatter FILENAME_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    // Tomcat serves the file itself with sendfile when these request attributes are set
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ExportService exportService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Executor exportExecutor;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger active = new AtomicInteger();
+
+    @Value("${export.jobs.dir:${java.io.tmpdir}/exports}")
+    private String jobsDir;
+
+    @Value("${export.jobs.part-size-ids:50000}")
+    private long partSizeIds;
+
+    @Value("${export.jobs.max-parts:32}")
+    private int maxParts;
+
+    @Value("${export.jobs.max-active:4}")
+    private int maxActive;
+
+    @Value("${export.jobs.ttl-minutes:60}")
+    private int ttlMinutes;
+
+    private Path directory;
+
+    @PostConstruct
+    void init() throws IOException {
+        directory = Files.createDirectories(Path.of(jobsDir));
+        meterRegistry.gauge("export.jobs.active", active);
+    }
+
+    public ExportJobDTO start(ExportRequest request, User user) {
+        // Invalid filters fail the request, not the job
+        ExportService.ExportPlan plan = exportService.plan(request);
+
+        if (active.incrementAndGet() > maxActive) {
+            active.decrementAndGet();
+            meterRegistry.counter("export.jobs.rejected").increment();
+            throw new TooManyRequestsException("Too many exports are running, please retry shortly.");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        ExportJobDTO status = new ExportJobDTO()
+                .setJobId(UUID.randomUUID().toString())
+                .setUserId(user.getId())
+                .setDataset(request.getDataset())
+                .setFormat(request.getFormat())
+                .setStatus(ExportJobDTO.JobStatus.QUEUED)
+                .setFilename(request.getDataset().name().toLowerCase() + "_" + now.format(FILENAME_TIMESTAMP) + "."
+                        + request.getFormat().name().toLowerCase() + ".gz")
+                .setCreatedAt(now);
+        Job job = new Job(status, user.getUsername(), plan,
+                directory.resolve(status.getJobId()), directory.resolve(status.getJobId() + ".gz"));
+        jobs.put(status.getJobId(), job);
+
+        try {
+            exportExecutor.execute(() -> run(job));
+        } catch (RejectedExecutionException ex) {
+            jobs.remove(status.getJobId());
+            active.decrementAndGet();
+            throw new TooManyRequestsException("Export queue is full, please retry shortly.");
+        }
+        log.info("Started export job {} ({} {}) for user {}",
+                status.getJobId(), request.getDataset(), request.getFormat(), user.getUsername());
+        return status;
+    }
+
+    public ExportJobDTO getJob(String jobId, Long userId) {
+        return findJob(jobId, userId).status;
+    }
+
+    /**
+     * Send the finished file, or the single byte range asked for. Multiple ranges are answered with the whole
+     * file, which RFC 9110 allows.
+     */
+    public void download(String jobId, Long userId, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Job job = findJob(jobId, userId);
+        if (job.status.getStatus() != ExportJobDTO.JobStatus.COMPLETED) {
+            throw new BadRequestException("Export " + jobId + " is not ready yet");
+        }
+
+        long size = Files.size(job.file);
+        String etag = "\"" + jobId + "\"";
+        long start = 0;
+        long end = size - 1;
+
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        boolean partial = range != null && range.startsWith("bytes=") && !range.contains(",")
+                && (ifRange == null || ifRange.equals(etag));
+        if (partial) {
+            long[] bounds = parseRange(range.substring("bytes=".length()), size);
+            if (bounds == null) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+            start = bounds[0];
+            end = bounds[1];
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+
+        long length = end - start + 1;
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(job.status.getFilename()).build().toString());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setContentLengthLong(length);
+        if (length == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, job.file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel source = FileChannel.open(job.file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            transfer(source, start, length, target);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${export.jobs.cleanup-interval-ms:300000}")
+    public void evictExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(ttlMinutes);
+        jobs.values().removeIf(job -> {
+            boolean expired = job.status.getCompletedAt() != null && job.status.getCompletedAt().isBefore(cutoff);
+            if (expired) {
+                deleteQuietly(job.file);
+            }
+            return expired;
+        });
+
+        // Files left behind by a restart
+        Instant fileCutoff = Instant.now().minusSeconds(TimeUnit.MINUTES.toSeconds(ttlMinutes));
+        try (Stream<Path> entries = Files.list(directory)) {
+            entries.filter(path -> !jobs.containsKey(path.getFileName().toString().replace(".gz", "")))
+                    .filter(path -> {
+                        try {
+                            return Files.getLastModifiedTime(path).toInstant().isBefore(fileCutoff);
+                        } catch (IOException ex) {
+                            return false;
+                        }
+                    })
+                    .forEach(this::deleteQuietly);
+        } catch (IOException ex) {
+            log.warn("Could not list export directory {}: {}", directory, ex.getMessage());
+        }
+    }
+
+    private void run(Job job) {
+        long startedAt = System.nanoTime();
+        try {
+            long[] idRange = job.plan.idRange();
+            List<Part> parts = partition(idRange);
+            Files.createDirectories(job.partsDir);
+            synchronized (job) {
+                job.status.setStatus(ExportJobDTO.JobStatus.RUNNING).setTotalParts(parts.size());
+                push(job);
+            }
+
+            CompletableFuture<?>[] rendered = new CompletableFuture<?>[parts.size()];
+            for (int i = 0; i < parts.size(); i++) {
+                Part part = parts.get(i);
+                part.file = job.partsDir.resolve("part-" + i + ".gz");
+                rendered[i] = CompletableFuture.runAsync(() -> render(job, part), exportExecutor);
+            }
+            // Runs once every part is done, also when one of them failed
+            CompletableFuture.allOf(rendered).whenComplete((ignored, failure) -> {
+                if (failure == null) {
+                    assemble(job, parts, startedAt);
+                } else {
+                    fail(job, failure, startedAt);
+                }
+            });
+        } catch (RuntimeException | IOException ex) {
+            fail(job, ex, startedAt);
+        }
+    }
+
+    private List<Part> partition(long[] idRange) {
+        List<Part> parts = new ArrayList<>();
+        if (idRange == null) {
+            return parts;
+        }
+        long span = idRange[1] - idRange[0] + 1;
+        long count = Math.min(maxParts, Math.max(1, (span + partSizeIds - 1) / partSizeIds));
+        long step = (span + count - 1) / count;
+        for (long afterId = idRange[0] - 1; afterId < idRange[1]; afterId += step) {
+            parts.add(new Part(afterId, Math.min(idRange[1], afterId + step)));
+        }
+        return parts;
+    }
+
+    private void render(Job job, Part part) {
+        // Another part already failed, the job will be failed once all parts are done
+        if (job.failed) {
+            return;
+        }
+        try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(part.file)), 64 * 1024)) {
+            part.rows = job.plan.writeRows(part.afterId, part.toId, out);
+        } catch (IOException ex) {
+            job.failed = true;
+            throw new UncheckedIOException(ex);
+        } catch (RuntimeException ex) {
+            job.failed = true;
+            throw ex;
+        }
+        synchronized (job) {
+            job.status.setCompletedParts(job.status.getCompletedParts() + 1)
+                    .setRows(job.status.getRows() + part.rows);
+            push(job);
+        }
+    }
+
+    private void assemble(Job job, List<Part> parts, long startedAt) {
+        try (FileChannel target = FileChannel.open(job.file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            appendMember(target, job.plan::writeHeader);
+            boolean first = true;
+            for (Part part : parts) {
+                if (part.rows == 0) {
+                    continue;
+                }
+                if (!first) {
+                    appendMember(target, job.plan::writeSeparator);
+                }
+                first = false;
+                try (FileChannel source = FileChannel.open(part.file, StandardOpenOption.READ)) {
+                    transfer(source, 0, source.size(), target);
+                }
+            }
+            appendMember(target, job.plan::writeFooter);
+
+            synchronized (job) {
+                job.status.setStatus(ExportJobDTO.JobStatus.COMPLETED)
+                        .setSizeBytes(target.size())
+                        .setCompletedAt(LocalDateTime.now());
+                push(job);
+            }
+            log.info("Export job {} finished: {} rows, {} bytes", job.status.getJobId(),
+                    job.status.getRows(), job.status.getSizeBytes());
+            finish(job, "completed", startedAt);
+        } catch (RuntimeException | IOException ex) {
+            fail(job, ex, startedAt);
+        }
+    }
+
+    private void fail(Job job, Throwable failure, long startedAt) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        log.error("Export job {} failed", job.status.getJobId(), cause);
+        deleteQuietly(job.file);
+        synchronized (job) {
+            job.status.setStatus(ExportJobDTO.JobStatus.FAILED)
+                    .setMessage(cause.getMessage())
+                    .setCompletedAt(LocalDateTime.now());
+            push(job);
+        }
+        finish(job, "failed", startedAt);
+    }
+
+    private void finish(Job job, String outcome, long startedAt) {
+        deleteQuietly(job.partsDir);
+        active.decrementAndGet();
+        meterRegistry.timer("export.jobs", "dataset", job.status.getDataset().name(), "outcome", outcome)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    private void push(Job job) {
+        try {
+            messagingTemplate.convertAndSendToUser(job.username, "/queue/exports", job.status);
+        } catch (Exception e) {
+            // The client can still poll the job
+            log.error("Failed to push export job {} to user {}", job.status.getJobId(), job.username, e);
+        }
+    }
+
+    private Job findJob(String jobId, Long userId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.status.getUserId().equals(userId)) {
+            throw new ResourceNotFoundException("Export job not found");
+        }
+        return job;
+    }
+
+    // Header, separator and footer are tiny; each becomes its own gzip member between the parts
+    private static void appendMember(FileChannel target, ExportService.ExportWriter writer) throws IOException {
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        writer.writeTo(plain);
+        if (plain.size() == 0) {
+            return;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            plain.writeTo(gzip);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(compressed.toByteArray());
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+    }
+
+    private static void transfer(FileChannel source, long position, long count, WritableByteChannel target)
+            throws IOException {
+        long end = position + count;
+        while (position < end) {
+            long sent = source.transferTo(position, end - position, target);
+            if (sent <= 0) {
+                throw new IOException("File ended before the requested range");
+            }
+            position += sent;
+        }
+    }
+
+    /**
+     * Single range {@code start-end}, {@code start-} or {@code -suffix}; null when unsatisfiable or malformed.
+     */
+    static long[] parseRange(String spec, long size) {
+        int dash = spec.indexOf('-');
+        if (dash < 0 || size == 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                return suffix > 0 ? new long[]{Math.max(0, size - suffix), size - 1} : null;
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            return start <= end ? new long[]{start, end} : null;
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            FileSystemUtils.deleteRecursively(path);
+        } catch (IOException ex) {
+            log.warn("Could not delete export file {}: {}", path, ex.getMessage());
+        }
+    }
+
+    private static class Job {
+        private final ExportJobDTO status;
+        private final String username;
+        private final ExportService.ExportPlan plan;
+        private final Path partsDir;
+        private final Path file;
+        private volatile boolean failed;
+
+        private Job(ExportJobDTO status, String username, ExportService.ExportPlan plan, Path partsDir, Path file) {
+            this.status = status;
+            this.username = username;
+            this.plan = plan;
+            this.partsDir = partsDir;
+            this.file = file;
+        }
+    }
+
+    private static class Part {
+        private final long afterId;
+        private final long toId;
+        private Path file;
+        private volatile long rows;
+
+        private Part(long afterId, long toId) {
+            this.afterId = afterId;
+            this.toId = toId;
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package com.example.demo.service.Impl;
 
+import com.example.demo.dto.export.EventExportRow;
+import com.example.demo.dto.export.ExportRequest;
+import com.example.demo.dto.export.UserExportRow;
+import com.example.demo.exception.BadRequestException;
 import com.example.demo.model.Event;
-import com.example.demo.model.Registration;
 import com.example.demo.model.Role;
-import com.example.demo.model.User;
 import com.example.demo.repository.EventRepository;
-import com.example.demo.repository.RegistrationRepository;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.service.ExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.core.util.Separators;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -15,237 +19,343 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 
+/**
+ * Exports are written in keyset chunks of {@link #EXPORT_CHUNK_SIZE} rows: each chunk is read as detached row
+ * projections with a fixed number of statements, and the connection is released before the rows are written to
+ * the client. Memory stays constant however large the table is.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class ExportServiceImpl implements ExportService {
-    
+
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
+    private static final String EVENTS_CSV_HEADER =
+            "ID,Title,Description,Date,Location,Status,Max Participants,Current Registrations,Creator,Created At";
+    private static final String USERS_CSV_HEADER =
+            "ID,Username,Email,First Name,Last Name,Phone,Role,Enabled,Auth Provider,Events Created,Registrations,Created At";
+    private static final DateTimeFormatter CSV_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String JSON_ROW_SEPARATOR = "," + System.lineSeparator();
+
+    private static final ObjectMapper EXPORT_MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
-    private final RegistrationRepository registrationRepository;
-    private final ObjectMapper objectMapper;
-    
+
+    @FunctionalInterface
+    private interface ChunkWriter<R> {
+        void write(List<R> rows) throws IOException;
+    }
+
     @Override
     public byte[] exportEventsToCSV() throws IOException {
         log.info("Exporting all events to CSV");
-        List<Event> events = eventRepository.findAll();
-        return generateEventsCSV(events);
+        return toBytes(streamEventsCSV(null, null, null));
     }
-    
+
     @Override
     public byte[] exportEventsToJSON() throws IOException {
         log.info("Exporting all events to JSON");
-        List<Event> events = eventRepository.findAll();
-        return generateEventsJSON(events);
+        return toBytes(streamEventsJSON());
     }
-    
+
     @Override
     public byte[] exportUsersToCSV() throws IOException {
         log.info("Exporting all users to CSV");
-        List<User> users = userRepository.findAll();
-        return generateUsersCSV(users);
+        return toBytes(streamUsersCSV(null, null));
     }
-    
+
     @Override
     public byte[] exportUsersToJSON() throws IOException {
         log.info("Exporting all users to JSON");
-        List<User> users = userRepository.findAll();
-        return generateUsersJSON(users);
+        return toBytes(streamUsersJSON());
     }
-    
+
     @Override
     public byte[] exportEventsToCSV(String status, String startDate, String endDate) throws IOException {
-        log.info("Exporting filtered events to CSV - status: {}, startDate: {}, endDate: {}", 
+        log.info("Exporting filtered events to CSV - status: {}, startDate: {}, endDate: {}",
                 status, startDate, endDate);
-        
-        List<Event> events = eventRepository.findAll();
-        
-        if (status != null && !status.isEmpty()) {
-            Event.EventStatus eventStatus = Event.EventStatus.valueOf(status.toUpperCase());
-            events = events.stream()
-                    .filter(e -> e.getStatus() == eventStatus)
-                    .collect(Collectors.toList());
-        }
-        
-        if (startDate != null && !startDate.isEmpty()) {
-            LocalDateTime start = LocalDateTime.parse(startDate + "T00:00:00");
-            events = events.stream()
-                    .filter(e -> e.getDate().isAfter(start))
-                    .collect(Collectors.toList());
-        }
-        
-        if (endDate != null && !endDate.isEmpty()) {
-            LocalDateTime end = LocalDateTime.parse(endDate + "T23:59:59");
-            events = events.stream()
-                    .filter(e -> e.getDate().isBefore(end))
-                    .collect(Collectors.toList());
-        }
-        
-        return generateEventsCSV(events);
+        return toBytes(streamEventsCSV(status, startDate, endDate));
     }
-    
+
     @Override
     public byte[] exportUsersToCSV(String role, Boolean enabled) throws IOException {
         log.info("Exporting filtered users to CSV - role: {}, enabled: {}", role, enabled);
-        
-        List<User> users = userRepository.findAll();
-        
-        // Apply filters
-        if (role != null && !role.isEmpty()) {
-            Role.RoleName userRole = Role.RoleName.valueOf(role.toUpperCase());
-            users = users.stream()
-                    .filter(u -> u.hasRole(userRole))
-                    .collect(Collectors.toList());
+        return toBytes(streamUsersCSV(role, enabled));
+    }
+
+    @Override
+    public ExportWriter streamEventsCSV(String status, String startDate, String endDate) {
+        return stream(plan(new ExportRequest().setDataset(ExportRequest.Dataset.EVENTS).setFormat(ExportRequest.Format.CSV)
+                .setStatus(status).setStartDate(startDate).setEndDate(endDate)));
+    }
+
+    @Override
+    public ExportWriter streamEventsJSON() {
+        return stream(plan(new ExportRequest().setDataset(ExportRequest.Dataset.EVENTS).setFormat(ExportRequest.Format.JSON)));
+    }
+
+    @Override
+    public ExportWriter streamUsersCSV(String role, Boolean enabled) {
+        return stream(plan(new ExportRequest().setDataset(ExportRequest.Dataset.USERS).setFormat(ExportRequest.Format.CSV)
+                .setRole(role).setEnabled(enabled)));
+    }
+
+    @Override
+    public ExportWriter streamUsersJSON() {
+        return stream(plan(new ExportRequest().setDataset(ExportRequest.Dataset.USERS).setFormat(ExportRequest.Format.JSON)));
+    }
+
+    @Override
+    public ExportPlan plan(ExportRequest request) {
+        return switch (request.getDataset()) {
+            case EVENTS -> {
+                Event.EventStatus status = hasText(request.getStatus())
+                        ? Event.EventStatus.valueOf(request.getStatus().toUpperCase()) : null;
+                LocalDateTime start = parseDate(request.getStartDate(), "T00:00:00");
+                LocalDateTime end = parseDate(request.getEndDate(), "T23:59:59");
+                yield new RowPlan<>(request.getFormat(), EVENTS_CSV_HEADER,
+                        () -> eventRepository.findExportIdRange(status, start, end),
+                        (afterId, toId) -> eventRepository.findExportRows(afterId, toId, status, start, end,
+                                EXPORT_CHUNK_SIZE),
+                        EventExportRow::getId, this::writeEventCsv, this::writeEventJson);
+            }
+            case USERS -> {
+                Role.RoleName role = hasText(request.getRole())
+                        ? Role.RoleName.valueOf(request.getRole().toUpperCase()) : null;
+                Boolean enabled = request.getEnabled();
+                yield new RowPlan<>(request.getFormat(), USERS_CSV_HEADER,
+                        () -> userRepository.findExportIdRange(role, enabled),
+                        (afterId, toId) -> userRepository.findExportRows(afterId, toId, role, enabled,
+                                EXPORT_CHUNK_SIZE),
+                        UserExportRow::getId, this::writeUserCsv, this::writeUserJson);
+            }
+        };
+    }
+
+    private ExportWriter stream(ExportPlan plan) {
+        return out -> {
+            plan.writeHeader(out);
+            long rows = plan.writeRows(0, Long.MAX_VALUE, out);
+            plan.writeFooter(out);
+            out.flush();
+            log.info("Exported {} rows to {}", rows, plan.getFormat());
+        };
+    }
+
+    private static LocalDateTime parseDate(String date, String time) {
+        if (!hasText(date)) {
+            return null;
         }
-        
-        if (enabled != null) {
-            users = users.stream()
-                    .filter(u -> u.isEnabled() == enabled)
-                    .collect(Collectors.toList());
+        try {
+            return LocalDateTime.parse(date + time);
+        } catch (DateTimeParseException ex) {
+            throw new BadRequestException("Invalid date: " + date + ", expected yyyy-MM-dd");
         }
-        
-        return generateUsersCSV(users);
     }
-    
-    
-    private byte[] generateEventsCSV(List<Event> events) throws IOException {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        PrintWriter writer = new PrintWriter(outputStream);
-        
-        // CSV Header
-        writer.println("ID,Title,Description,Date,Location,Status,Max Participants,Current Registrations,Creator,Created At");
-        
-        // CSV Data
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        for (Event event : events) {
-            int registrationCount = registrationRepository.countByEventId(event.getId());
-            
-            writer.printf("%d,\"%s\",\"%s\",%s,\"%s\",%s,%d,%d,\"%s\",%s%n",
-                    event.getId(),
-                    escapeCsv(event.getTitle()),
-                    escapeCsv(event.getDescription()),
-                    event.getDate().format(formatter),
-                    escapeCsv(event.getLocation()),
-                    event.getStatus(),
-                    event.getMaxParticipants(),
-                    registrationCount,
-                    event.getCreator().getUsername(),
-                    event.getCreatedAt() != null ? event.getCreatedAt().format(formatter) : ""
-            );
+
+    @FunctionalInterface
+    private interface RangeLoader<R> {
+        List<R> load(long afterId, long toId);
+    }
+
+    @FunctionalInterface
+    private interface CsvRowWriter<R> {
+        void write(Writer writer, R row) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface JsonRowWriter<R> {
+        void write(JsonGenerator generator, R row) throws IOException;
+    }
+
+    /**
+     * CSV is a header line followed by rows; JSON is an array whose elements are pretty printed one after
+     * another, so a range is just its rows joined by commas.
+     */
+    @RequiredArgsConstructor
+    private static class RowPlan<R> implements ExportPlan {
+
+        private final ExportRequest.Format format;
+        private final String csvHeader;
+        private final Supplier<long[]> idRange;
+        private final RangeLoader<R> loader;
+        private final ToLongFunction<R> idOf;
+        private final CsvRowWriter<R> csvRowWriter;
+        private final JsonRowWriter<R> jsonRowWriter;
+
+        @Override
+        public ExportRequest.Format getFormat() {
+            return format;
         }
-        
-        writer.flush();
-        writer.close();
-        
-        return outputStream.toByteArray();
+
+        @Override
+        public long[] idRange() {
+            return idRange.get();
+        }
+
+        @Override
+        public void writeHeader(OutputStream out) throws IOException {
+            String header = (format == ExportRequest.Format.CSV ? csvHeader : "[") + System.lineSeparator();
+            out.write(header.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public long writeRows(long afterId, long toId, OutputStream out) throws IOException {
+            if (format == ExportRequest.Format.CSV) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                return writeInChunks(afterId, toId, chunk -> {
+                    for (R row : chunk) {
+                        csvRowWriter.write(writer, row);
+                    }
+                    writer.flush();
+                });
+            }
+            try (JsonGenerator generator = EXPORT_MAPPER.createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setPrettyPrinter(new DefaultPrettyPrinter(
+                        Separators.createDefaultInstance().withRootSeparator(JSON_ROW_SEPARATOR)));
+                return writeInChunks(afterId, toId, chunk -> {
+                    for (R row : chunk) {
+                        jsonRowWriter.write(generator, row);
+                    }
+                    generator.flush();
+                });
+            }
+        }
+
+        @Override
+        public void writeSeparator(OutputStream out) throws IOException {
+            if (format == ExportRequest.Format.JSON) {
+                out.write(JSON_ROW_SEPARATOR.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        @Override
+        public void writeFooter(OutputStream out) throws IOException {
+            if (format == ExportRequest.Format.JSON) {
+                out.write((System.lineSeparator() + "]" + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        /**
+         * Walk the range in id order, one chunk after another, until a chunk comes back short.
+         *
+         * @return number of rows written
+         */
+        private long writeInChunks(long afterId, long toId, ChunkWriter<R> chunkWriter) throws IOException {
+            long total = 0;
+            List<R> chunk;
+            do {
+                chunk = loader.load(afterId, toId);
+                if (!chunk.isEmpty()) {
+                    chunkWriter.write(chunk);
+                    afterId = idOf.applyAsLong(chunk.get(chunk.size() - 1));
+                    total += chunk.size();
+                }
+            } while (chunk.size() == EXPORT_CHUNK_SIZE);
+            return total;
+        }
+    }
+
+    private void writeEventCsv(Writer writer, EventExportRow row) throws IOException {
+        writer.write(String.format("%d,\"%s\",\"%s\",%s,\"%s\",%s,%d,%d,\"%s\",%s%n",
+                row.getId(),
+                escapeCsv(row.getTitle()),
+                escapeCsv(row.getDescription()),
+                row.getDate().format(CSV_DATE_FORMAT),
+                escapeCsv(row.getLocation()),
+                row.getStatus(),
+                row.getMaxParticipants(),
+                row.getRegistrations(),
+                row.getCreatorUsername(),
+                row.getCreatedAt() != null ? row.getCreatedAt().format(CSV_DATE_FORMAT) : ""
+        ));
+    }
+
+    private void writeUserCsv(Writer writer, UserExportRow row) throws IOException {
+        writer.write(String.format("%d,\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",%s,%s,%s,%d,%d,%s%n",
+                row.getId(),
+                escapeCsv(row.getUsername()),
+                escapeCsv(row.getEmail()),
+                escapeCsv(row.getFirstName()),
+                escapeCsv(row.getLastName()),
+                escapeCsv(row.getPhoneNumber() != null ? row.getPhoneNumber() : ""),
+                row.getRole(),
+                row.isEnabled(),
+                row.getAuthProvider(),
+                row.getEventsCreated(),
+                row.getRegistrations(),
+                row.getCreatedAt() != null ? row.getCreatedAt().format(CSV_DATE_FORMAT) : ""
+        ));
+    }
+
+    private void writeEventJson(JsonGenerator generator, EventExportRow row) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", row.getId());
+        generator.writeStringField("title", row.getTitle());
+        generator.writeStringField("description", row.getDescription());
+        generator.writeObjectField("date", row.getDate());
+        generator.writeStringField("location", row.getLocation());
+        generator.writeObjectField("status", row.getStatus());
+        generator.writeObjectField("maxParticipants", row.getMaxParticipants());
+        generator.writeNumberField("currentRegistrations", row.getRegistrations());
+        generator.writeStringField("creatorUsername", row.getCreatorUsername());
+        generator.writeStringField("creatorEmail", row.getCreatorEmail());
+        generator.writeObjectField("createdAt", row.getCreatedAt());
+        generator.writeObjectField("updatedAt", row.getUpdatedAt());
+        generator.writeEndObject();
+    }
+
+    private void writeUserJson(JsonGenerator generator, UserExportRow row) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", row.getId());
+        generator.writeStringField("username", row.getUsername());
+        generator.writeStringField("email", row.getEmail());
+        generator.writeStringField("firstName", row.getFirstName());
+        generator.writeStringField("lastName", row.getLastName());
+        generator.writeStringField("phoneNumber", row.getPhoneNumber());
+        generator.writeStringField("address", row.getAddress());
+        generator.writeObjectField("role", row.getRole());
+        generator.writeBooleanField("enabled", row.isEnabled());
+        generator.writeObjectField("authProvider", row.getAuthProvider());
+        generator.writeNumberField("eventsCreated", row.getEventsCreated());
+        generator.writeNumberField("registrationsCount", row.getRegistrations());
+        generator.writeObjectField("createdAt", row.getCreatedAt());
+        generator.writeObjectField("updatedAt", row.getUpdatedAt());
+        generator.writeEndObject();
     }
-    
-    private byte[] generateUsersCSV(List<User> users) throws IOException {
+
+    private static byte[] toBytes(ExportWriter exportWriter) throws IOException {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        PrintWriter writer = new PrintWriter(outputStream);
-        
-        // CSV Header
-        writer.println("ID,Username,Email,First Name,Last Name,Phone,Role,Enabled,Auth Provider,Events Created,Registrations,Created At");
-        
-        // CSV Data
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        for (User user : users) {
-            int eventsCreated = user.getEvents() != null ? user.getEvents().size() : 0;
-            int registrationsCount = registrationRepository.countByUserId(user.getId());
-            
-            writer.printf("%d,\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",%s,%s,%s,%d,%d,%s%n",
-                    user.getId(),
-                    escapeCsv(user.getUsername()),
-                    escapeCsv(user.getEmail()),
-                    escapeCsv(user.getFirstName()),
-                    escapeCsv(user.getLastName()),
-                    escapeCsv(user.getPhoneNumber() != null ? user.getPhoneNumber() : ""),
-                    user.getRole(),
-                    user.isEnabled(),
-                    user.getAuthProvider(),
-                    eventsCreated,
-                    registrationsCount,
-                    user.getCreatedAt() != null ? user.getCreatedAt().format(formatter) : ""
-            );
-        }
-        
-        writer.flush();
-        writer.close();
-        
+        exportWriter.writeTo(outputStream);
         return outputStream.toByteArray();
     }
-    
-    private byte[] generateEventsJSON(List<Event> events) throws IOException {
-        List<Map<String, Object>> eventList = events.stream()
-                .map(event -> {
-                    Map<String, Object> eventMap = new HashMap<>();
-                    eventMap.put("id", event.getId());
-                    eventMap.put("title", event.getTitle());
-                    eventMap.put("description", event.getDescription());
-                    eventMap.put("date", event.getDate());
-                    eventMap.put("location", event.getLocation());
-                    eventMap.put("status", event.getStatus());
-                    eventMap.put("maxParticipants", event.getMaxParticipants());
-                    eventMap.put("currentRegistrations", registrationRepository.countByEventId(event.getId()));
-                    eventMap.put("creatorUsername", event.getCreator().getUsername());
-                    eventMap.put("creatorEmail", event.getCreator().getEmail());
-                    eventMap.put("createdAt", event.getCreatedAt());
-                    eventMap.put("updatedAt", event.getUpdatedAt());
-                    return eventMap;
-                })
-                .collect(Collectors.toList());
-        
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        mapper.enable(SerializationFeature.INDENT_OUTPUT);
-        
-        return mapper.writeValueAsBytes(eventList);
-    }
-    
-    private byte[] generateUsersJSON(List<User> users) throws IOException {
-        List<Map<String, Object>> userList = users.stream()
-                .map(user -> {
-                    Map<String, Object> userMap = new HashMap<>();
-                    userMap.put("id", user.getId());
-                    userMap.put("username", user.getUsername());
-                    userMap.put("email", user.getEmail());
-                    userMap.put("firstName", user.getFirstName());
-                    userMap.put("lastName", user.getLastName());
-                    userMap.put("phoneNumber", user.getPhoneNumber());
-                    userMap.put("address", user.getAddress());
-                    userMap.put("role", user.getRole());
-                    userMap.put("enabled", user.isEnabled());
-                    userMap.put("authProvider", user.getAuthProvider());
-                    userMap.put("eventsCreated", user.getEvents() != null ? user.getEvents().size() : 0);
-                    userMap.put("registrationsCount", registrationRepository.countByUserId(user.getId()));
-                    userMap.put("createdAt", user.getCreatedAt());
-                    userMap.put("updatedAt", user.getUpdatedAt());
-                    return userMap;
-                })
-                .collect(Collectors.toList());
-        
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        mapper.enable(SerializationFeature.INDENT_OUTPUT);
-        
-        return mapper.writeValueAsBytes(userList);
-    }
-    
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isEmpty();
+    }
+
     private String escapeCsv(String value) {
         if (value == null) return "";
         return value.replace("\"", "\"\"");
     }
 }
-
@@ -22,6 +22,8 @@ import java.util.Optional;
 @Slf4j
 public class FirebaseServiceImpl implements FirebaseService {
 
+    private static final int MULTICAST_LIMIT = 500;
+
     private final UserService userService;
     private final UserFcmTokenRepository userFcmTokenRepository;
 
@@ -57,6 +59,22 @@ public class FirebaseServiceImpl implements FirebaseService {
         return FirebaseMessaging.getInstance().sendAsync(message);
     }
 
+    // FCM accepts at most 500 tokens per multicast request
+    public void sendToTokens(List<String> tokens, String title, String body) {
+        Notification notification = Notification.builder()
+                .setTitle(title)
+                .setBody(body)
+                .build();
+
+        for (int from = 0; from < tokens.size(); from += MULTICAST_LIMIT) {
+            MulticastMessage message = MulticastMessage.builder()
+                    .addAllTokens(tokens.subList(from, Math.min(from + MULTICAST_LIMIT, tokens.size())))
+                    .setNotification(notification)
+                    .build();
+            FirebaseMessaging.getInstance().sendEachForMulticastAsync(message);
+        }
+    }
+
     @Transactional
     public UserFcmToken registerTokenForUser(UserFcmTokenDTO userFcmTokenDTO) {
         User currentUser = userService.getCurrentUser();
@@ -28,34 +28,36 @@ public class LikeServiceImpl implements LikeService {
     private final LikeRepository likeRepository;
     private final UserService userService;
     private final NotificationService notificationService;
+    private final CounterDeltaBuffer counterDeltaBuffer;
 
+    /**
+     * Toggle without read-then-write: an insert guarded by the unique index decides "like"; when the row already
+     * exists the DELETE decides "unlike". Toggles of one user are serialized on the user's row lock, so a
+     * concurrent double tap never creates a duplicate row, a double counter change or a deadlock.
+     */
     @Transactional
     @CacheEvict(value = "dashboard", key = "'volunteer:' + #root.target.getCurrentUser().id")
     public void likePost(Long postId) {
         log.info("Toggling like for post: {}", postId);
 
         User user = userService.getCurrentUser();
-        Like existingLike = likeRepository.findByPostIdAndUserId(postId, user.getId());
-
-        if (existingLike != null) {
-            likeRepository.delete(existingLike);
-            log.info("User {} unliked post {}", user.getId(), postId);
-            return;
-        }
-
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
+        likeRepository.lockUserLikes(user.getId());
 
-        Like newLike = new Like()
-                .setPost(post)
-                .setUser(user);
-
-        likeRepository.save(newLike);
+        if (!likeRepository.insertPostLikeIfAbsent(user.getId(), postId)) {
+            if (likeRepository.deletePostLike(user.getId(), postId) > 0) {
+                counterDeltaBuffer.decrement(CounterDeltaBuffer.Counter.POST_LIKES, postId);
+                log.info("User {} unliked post {}", user.getId(), postId);
+            }
+            return;
+        }
+        counterDeltaBuffer.increment(CounterDeltaBuffer.Counter.POST_LIKES, postId);
         log.info("User {} liked post {}", user.getId(), postId);
         
         // Notify post creator (only if not liking own post)
         if (!post.getPostCreator().getId().equals(user.getId())) {
-            notificationService.notifyUserOnNewLike(post.getPostCreator(), newLike);
+            notificationService.notifyUserOnNewLike(post.getPostCreator(), new Like().setPost(post).setUser(user));
         }
     }
 
@@ -64,35 +66,32 @@ public class LikeServiceImpl implements LikeService {
     @CacheEvict(value = "dashboard", key = "'volunteer:' + #root.target.getCurrentUser().id")
     public void likeComment(Long commentId) {
         User user = userService.getCurrentUser();
-
-        Like existingLike = likeRepository.findByCommentIdAndUserId(commentId, user.getId());
-
-        if (existingLike != null) {
-            likeRepository.delete(existingLike);
-            log.info("User {} unliked comment {}", user.getId(), commentId);
-        } else {
-            Comment comment = commentRepository.findById(commentId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Comment not found"));
-
-            Like like = new Like()
-                    .setComment(comment)
-                    .setUser(user);
-
-            likeRepository.save(like);
-            log.info("User {} liked comment {}", user.getId(), commentId);
-            
-            // Notify comment creator (only if not liking own comment)
-            if (!comment.getUser().getId().equals(user.getId())) {
-                notificationService.notifyUserOnCommentLike(comment.getUser(), like);
+        Comment comment = commentRepository.findById(commentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Comment not found"));
+        likeRepository.lockUserLikes(user.getId());
+
+        if (!likeRepository.insertCommentLikeIfAbsent(user.getId(), commentId)) {
+            if (likeRepository.deleteCommentLike(user.getId(), commentId) > 0) {
+                counterDeltaBuffer.decrement(CounterDeltaBuffer.Counter.COMMENT_LIKES, commentId);
+                log.info("User {} unliked comment {}", user.getId(), commentId);
             }
+            return;
+        }
+        counterDeltaBuffer.increment(CounterDeltaBuffer.Counter.COMMENT_LIKES, commentId);
+        log.info("User {} liked comment {}", user.getId(), commentId);
+
+        // Notify comment creator (only if not liking own comment)
+        if (!comment.getUser().getId().equals(user.getId())) {
+            notificationService.notifyUserOnCommentLike(comment.getUser(), new Like().setComment(comment).setUser(user));
         }
     }
 
     public void unLikeComment(Long commentId) {
         log.info("Unlike comment: {}", commentId);
 
-        Like like = likeRepository.findByCommentIdAndUserId(commentId, userService.getCurrentUser().getId());
-        likeRepository.delete(like);
+        if (likeRepository.deleteCommentLike(userService.getCurrentUser().getId(), commentId) > 0) {
+            counterDeltaBuffer.decrement(CounterDeltaBuffer.Counter.COMMENT_LIKES, commentId);
+        }
     }
 
     public int countLikesByPostId(Long postId) {
@@ -0,0 +1,144 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.dto.notification.NotificationDTO;
+import com.example.demo.dto.notification.NotificationRecipient;
+import com.example.demo.model.Notification;
+import com.example.demo.repository.NotificationRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Set-based notification fan-out: one notification template, many recipients.
+ * Recipients are written in JDBC batches of {@code notification.fanout.batch-size};
+ * the WebSocket push happens once all batches are written, so callers that
+ * persist inside a transaction can push after commit.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationFanoutEngine {
+
+    private final NotificationRepository notificationRepository;
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${notification.fanout.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Persist and push {@code template} to every recipient.
+     *
+     * @param fanOutType metric tag identifying the kind of fan-out (e.g. "new-post")
+     * @return number of notifications delivered
+     */
+    public int fanOut(String fanOutType, List<NotificationRecipient> recipients, Notification template) {
+        List<Delivery> deliveries = persist(fanOutType, recipients, template);
+        push(deliveries);
+        return deliveries.size();
+    }
+
+    /**
+     * Write one copy of {@code template} per recipient in chunked JDBC batches.
+     * Runs in the caller's transaction when there is one.
+     */
+    public List<Delivery> persist(String fanOutType, List<NotificationRecipient> recipients, Notification template) {
+        if (recipients.isEmpty()) {
+            log.debug("Fan-out {} skipped: no recipients", fanOutType);
+            return List.of();
+        }
+
+        long start = System.nanoTime();
+        // One timestamp for the whole fan-out so every copy sorts identically
+        template.setCreatedAt(LocalDateTime.now());
+        int chunkSize = Math.max(1, batchSize);
+        int batches = 0;
+        List<Delivery> deliveries = new ArrayList<>(recipients.size());
+
+        for (int from = 0; from < recipients.size(); from += chunkSize) {
+            List<NotificationRecipient> chunk = recipients.subList(from, Math.min(from + chunkSize, recipients.size()));
+            List<Long> userIds = chunk.stream()
+                    .map(NotificationRecipient::getUserId)
+                    .toList();
+
+            List<Long> ids = notificationRepository.batchInsertForUsers(template, userIds);
+            batches++;
+            for (int i = 0; i < chunk.size(); i++) {
+                // Some drivers do not return keys for batches; the client refetches by cursor in that case
+                Long id = i < ids.size() ? ids.get(i) : null;
+                deliveries.add(toDelivery(chunk.get(i).getUsername(), id, template));
+            }
+        }
+
+        recordMetrics(fanOutType, recipients.size(), batches, System.nanoTime() - start);
+        return deliveries;
+    }
+
+    public void push(List<Delivery> deliveries) {
+        for (Delivery delivery : deliveries) {
+            simpMessagingTemplate.convertAndSendToUser(
+                    delivery.getUsername(),
+                    "/queue/notifications",
+                    delivery.getNotification()
+            );
+        }
+    }
+
+    public Delivery toDelivery(String username, Long notificationId, Notification notification) {
+        NotificationDTO notificationDTO = new NotificationDTO(
+                notificationId,
+                notification.getTitle(),
+                notification.getMessage(),
+                notification.getRelatedType(),
+                notification.getRelatedId(),
+                notification.getCreatedAt(),
+                false
+        );
+        return new Delivery(username, notificationDTO);
+    }
+
+    private void recordMetrics(String fanOutType, int recipients, int batches, long elapsedNanos) {
+        Timer.builder("notification.fanout.duration")
+                .description("Time to persist one notification fan-out")
+                .tag("type", fanOutType)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("notification.fanout.recipients")
+                .description("Recipients per notification fan-out")
+                .tag("type", fanOutType)
+                .register(meterRegistry)
+                .record(recipients);
+        DistributionSummary.builder("notification.fanout.batches")
+                .description("JDBC insert batches (database round trips) per notification fan-out")
+                .tag("type", fanOutType)
+                .register(meterRegistry)
+                .record(batches);
+
+        double elapsedMs = elapsedNanos / 1_000_000.0;
+        double throughput = elapsedMs > 0 ? recipients / (elapsedMs / 1000.0) : recipients;
+        log.info("Fan-out {} persisted {} notifications in {} batches ({} ms, {} notifications/s)",
+                fanOutType, recipients, batches, String.format("%.1f", elapsedMs), String.format("%.0f", throughput));
+    }
+
+    /**
+     * A persisted notification waiting to be pushed to its recipient.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Delivery {
+        private final String username;
+        private final NotificationDTO notification;
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.dto.notification.NotificationRecipient;
+import com.example.demo.model.Notification;
+import com.example.demo.model.NotificationOutbox;
+import com.example.demo.model.Registration;
+import com.example.demo.model.User;
+import com.example.demo.repository.NotificationOutboxRepository;
+import com.example.demo.repository.NotificationRepository;
+import com.example.demo.repository.RegistrationRepository;
+import com.example.demo.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Polls the notification outbox and delivers pending rows.
+ * <p>
+ * Rows are claimed with {@code FOR UPDATE SKIP LOCKED} and leased by pushing {@code nextAttemptAt}
+ * forward, so several nodes can dispatch concurrently and a crashed node's claims are picked up again
+ * once the lease expires. Single-user rows of one poll are persisted in one JDBC batch; audience rows go
+ * through {@link NotificationFanoutEngine}. WebSocket pushes happen only after the delivery commits.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationOutboxDispatcher {
+
+    private static final Duration CLAIM_LEASE = Duration.ofMinutes(1);
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(10);
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationRepository notificationRepository;
+    private final RegistrationRepository registrationRepository;
+    private final UserRepository userRepository;
+    private final NotificationFanoutEngine notificationFanoutEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${notification.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${notification.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${notification.outbox.retention-hours:24}")
+    private int retentionHours;
+
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval-ms:500}")
+    public void dispatch() {
+        List<NotificationOutbox> claimed = claimBatch();
+        if (claimed.isEmpty()) {
+            return;
+        }
+        log.debug("Dispatching {} outbox entries", claimed.size());
+
+        List<NotificationOutbox> direct = new ArrayList<>();
+        for (NotificationOutbox entry : claimed) {
+            if (entry.getAudience() == NotificationOutbox.Audience.USER) {
+                direct.add(entry);
+            } else {
+                dispatchFanOut(entry);
+            }
+        }
+        if (!direct.isEmpty()) {
+            dispatchDirect(direct);
+        }
+    }
+
+    @Scheduled(cron = "${notification.outbox.purge-cron:0 0 * * * *}")
+    public void purgeSent() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        Integer deleted = transactionTemplate.execute(status -> outboxRepository.deleteSentBefore(cutoff));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} delivered outbox entries older than {}", deleted, cutoff);
+        }
+    }
+
+    private List<NotificationOutbox> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<NotificationOutbox> batch = outboxRepository.lockNextBatch(now, batchSize);
+            // Lease instead of holding the row lock while delivering; flushed on commit
+            batch.forEach(entry -> entry
+                    .setAttempts(entry.getAttempts() + 1)
+                    .setNextAttemptAt(now.plus(CLAIM_LEASE)));
+            return batch;
+        });
+    }
+
+    private void dispatchDirect(List<NotificationOutbox> entries) {
+        List<NotificationFanoutEngine.Delivery> deliveries;
+        try {
+            deliveries = transactionTemplate.execute(status -> {
+                List<Notification> notifications = entries.stream()
+                        .map(entry -> toNotification(entry).setUser(new User().setId(entry.getAudienceId())))
+                        .toList();
+                List<Long> ids = notificationRepository.batchInsert(notifications);
+                outboxRepository.markProcessed(
+                        entries.stream().map(NotificationOutbox::getId).toList(),
+                        NotificationOutbox.Status.SENT,
+                        LocalDateTime.now());
+
+                List<NotificationFanoutEngine.Delivery> result = new ArrayList<>(entries.size());
+                for (int i = 0; i < entries.size(); i++) {
+                    Long id = i < ids.size() ? ids.get(i) : null;
+                    result.add(notificationFanoutEngine.toDelivery(
+                            entries.get(i).getRecipientUsername(), id, notifications.get(i)));
+                }
+                return result;
+            });
+        } catch (RuntimeException ex) {
+            if (entries.size() == 1) {
+                scheduleRetry(entries.get(0), ex);
+                return;
+            }
+            // One bad row must not hold back the rest of the batch
+            log.warn("Outbox batch of {} failed, retrying entries individually: {}", entries.size(), ex.getMessage());
+            entries.forEach(entry -> dispatchDirect(List.of(entry)));
+            return;
+        }
+        meterRegistry.counter("notification.outbox.dispatched", "audience", "USER").increment(entries.size());
+        push(deliveries, "USER");
+    }
+
+    private void dispatchFanOut(NotificationOutbox entry) {
+        List<NotificationFanoutEngine.Delivery> deliveries;
+        try {
+            deliveries = transactionTemplate.execute(status -> {
+                List<NotificationRecipient> recipients = resolveRecipients(entry);
+                List<NotificationFanoutEngine.Delivery> result = notificationFanoutEngine.persist(
+                        entry.getAudience().name().toLowerCase(), recipients, toNotification(entry));
+                outboxRepository.markProcessed(List.of(entry.getId()), NotificationOutbox.Status.SENT, LocalDateTime.now());
+                return result;
+            });
+        } catch (RuntimeException ex) {
+            scheduleRetry(entry, ex);
+            return;
+        }
+        meterRegistry.counter("notification.outbox.dispatched", "audience", entry.getAudience().name()).increment();
+        push(deliveries, entry.getAudience().name());
+    }
+
+    // The notifications are committed and the entries SENT; a failed push must not send them again
+    private void push(List<NotificationFanoutEngine.Delivery> deliveries, String audience) {
+        try {
+            notificationFanoutEngine.push(deliveries);
+        } catch (RuntimeException ex) {
+            log.warn("Real-time push of {} {} notifications failed, they stay in the inbox: {}",
+                    deliveries.size(), audience, ex.getMessage());
+            meterRegistry.counter("notification.outbox.push.failed", "audience", audience).increment();
+        }
+    }
+
+    private List<NotificationRecipient> resolveRecipients(NotificationOutbox entry) {
+        return switch (entry.getAudience()) {
+            case EVENT_REGISTRANTS -> registrationRepository.findRecipientsByEventId(entry.getAudienceId());
+            case EVENT_APPROVED_MEMBERS -> registrationRepository.findRecipientsByEventIdAndStatusExcludingUser(
+                    entry.getAudienceId(),
+                    Registration.RegistrationStatus.APPROVED,
+                    entry.getExcludedUserId() != null ? entry.getExcludedUserId() : -1L);
+            case ADMINS -> userRepository.findAllAdminRecipients();
+            case USER -> List.of(new NotificationRecipient(entry.getAudienceId(), entry.getRecipientUsername()));
+        };
+    }
+
+    private void scheduleRetry(NotificationOutbox entry, RuntimeException ex) {
+        boolean exhausted = entry.getAttempts() >= maxAttempts;
+        // Exponential backoff: 2s, 4s, 8s ... capped
+        long backoffSeconds = Math.min(MAX_BACKOFF.getSeconds(), 1L << Math.min(entry.getAttempts(), 20));
+        String error = ex.getMessage() != null && ex.getMessage().length() > 1000
+                ? ex.getMessage().substring(0, 1000)
+                : ex.getMessage();
+
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.markForRetry(
+                entry.getId(),
+                exhausted ? NotificationOutbox.Status.FAILED : NotificationOutbox.Status.PENDING,
+                LocalDateTime.now().plusSeconds(backoffSeconds),
+                error));
+
+        if (exhausted) {
+            log.error("Outbox entry {} failed after {} attempts, giving up", entry.getId(), entry.getAttempts(), ex);
+            meterRegistry.counter("notification.outbox.failed", "audience", entry.getAudience().name()).increment();
+        } else {
+            log.warn("Outbox entry {} failed (attempt {}), retrying in {}s: {}",
+                    entry.getId(), entry.getAttempts(), backoffSeconds, ex.getMessage());
+            meterRegistry.counter("notification.outbox.retried", "audience", entry.getAudience().name()).increment();
+        }
+    }
+
+    private Notification toNotification(NotificationOutbox entry) {
+        return new Notification()
+                .setTitle(entry.getTitle())
+                .setMessage(entry.getMessage())
+                .setRelatedType(entry.getRelatedType())
+                .setRelatedId(entry.getRelatedId())
+                .setCreatedAt(entry.getCreatedAt());
+    }
+}
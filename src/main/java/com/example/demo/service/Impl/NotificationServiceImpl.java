@@ -6,6 +6,7 @@ import com.example.demo.dto.comment.CommentSortType;
 import com.example.demo.dto.event.EventDTO;
 import com.example.demo.dto.notification.NotificationCursorPageResponse;
 import com.example.demo.dto.notification.NotificationDTO;
+import com.example.demo.dto.notification.NotificationRecipient;
 import com.example.demo.dto.registration.RegistrationDTO;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.mapper.NotificationMapper;
@@ -17,7 +18,6 @@ import com.example.demo.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
@@ -45,165 +45,79 @@ public class NotificationServiceImpl implements NotificationService {
     private final CommentRepository commentRepository;
     private final LikeRepository likeRepository;
     private final PostRepository postRepository;
+    private final NotificationOutboxRepository notificationOutboxRepository;
+
+    /*
+    Notify methods only write an outbox row, in the caller's transaction when there is one.
+    NotificationOutboxDispatcher persists and pushes them once that transaction has committed.
+     */
 
-    @Async("notificationExecutor")
     public void notifyAdminsOfNewEvent(EventDTO eventDTO) {
         Map<String, Object> message = new HashMap<>();
         message.put("event_manager", eventDTO);
         simpMessagingTemplate.convertAndSend("/topic/admin", message);
-        List<User> admins = userRepository.findAllAdmin();
-        for (User admin : admins) {
-            Notification notification = new Notification()
-                    .setTitle("New Event Pending Approval")
-                    .setMessage("A new event: " + eventDTO.getTitle() + " created by " + eventDTO.getCreatorUsername() + " is pending your approval.")
-                    .setUser(admin)
-                    .setRelatedType(Notification.RelatedType.EVENT)
-                    .setRelatedId(eventDTO.getEventId());
-            notificationRepository.save(notification);
-        }
+        enqueueForAudience(NotificationOutbox.Audience.ADMINS, null, null,
+                "New Event Pending Approval",
+                "A new event: " + eventDTO.getTitle() + " created by " + eventDTO.getCreatorUsername() + " is pending your approval.",
+                Notification.RelatedType.EVENT,
+                eventDTO.getEventId());
     }
 
-    @Async("notificationExecutor")
     public void notifyManagerOnEventRejected(Event event, String message) {
         log.info("Notify event manager on rejection");
-        User eventCreator = event.getCreator();
-        Notification notification = new Notification()
-                .setUser(eventCreator)
-                .setTitle("Event Creation Request Rejected")
-                .setMessage(message)
-                .setRelatedType(Notification.RelatedType.EVENT)
-                .setRelatedId(event.getId());
-        notificationRepository.save(notification);
-        simpMessagingTemplate.convertAndSendToUser(eventCreator.getUsername(), "/queue/notification", notification);
+        enqueue(event.getCreator(), "Event Creation Request Rejected", message,
+                Notification.RelatedType.EVENT, event.getId());
     }
 
-    @Async("notificationExecutor")
     public void notifyManagerOnEventApproved(Event event, String message) {
         log.info("Notify event manager on approval");
-        User eventCreator = event.getCreator();
-        Notification notification = new Notification()
-                .setUser(eventCreator)
-                .setTitle("Event Creation Request Approved")
-                .setMessage(message)
-                .setRelatedType(Notification.RelatedType.EVENT)
-                .setRelatedId(event.getId());
-        notificationRepository.save(notification);
-        simpMessagingTemplate.convertAndSendToUser(eventCreator.getUsername(), "/queue/notification", notification);
+        enqueue(event.getCreator(), "Event Creation Request Approved", message,
+                Notification.RelatedType.EVENT, event.getId());
     }
 
-    @Async("notificationExecutor")
     public void notifyVolunteerOnEventUpdated(Event event) {
         log.info("Notify volunteer on event updated: {}", event.getId());
-        List<Registration> registrationList = event.getRegistrations();
-        for(Registration registration : registrationList) {
-            User volunteer = registration.getUser();
-            String message = "Event '" + event.getTitle() + "' has been updated. Please check the latest details.";
-            Notification notification = new Notification()
-                    .setUser(volunteer)
-                    .setTitle("Event Updated")
-                    .setMessage(message)
-                    .setRelatedType(Notification.RelatedType.EVENT)
-                    .setRelatedId(event.getId());
-            notificationRepository.save(notification);
-            simpMessagingTemplate.convertAndSendToUser(
-                    volunteer.getUsername(), "/queue/notification", notification);
-        }
+        enqueueForAudience(NotificationOutbox.Audience.EVENT_REGISTRANTS, event.getId(), null,
+                "Event Updated",
+                "Event '" + event.getTitle() + "' has been updated. Please check the latest details.",
+                Notification.RelatedType.EVENT,
+                event.getId());
     }
 
-    @Async("notificationExecutor")
     public void notifyManagerOnUserRegistrationCancelled(Long registrationId) {
         log.info("Notify Manager on user registration cancelled");
         RegistrationDTO registrationDTO = registrationMapper.toRegistrationDTO(registrationRepository.findRegistrationById(registrationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Registration not found")));
         Event event = eventRepository.getEventById(registrationDTO.getEventId())
                 .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
-        User eventCreator = event.getCreator();
         String message = "Volunteer " + registrationDTO.getUserResponse().getUsername()
                 + " has cancelled their registration for your event '" + event.getTitle() + "'.";
-        Notification notification = new Notification()
-                .setUser(eventCreator)
-                .setTitle("Volunteer Registration Cancelled")
-                .setRelatedType(Notification.RelatedType.REGISTRATION)
-                .setRelatedId(registrationId)
-                .setMessage(message);
-        notificationRepository.save(notification);
-        NotificationDTO notificationDTO = notificationMapper.toNotificationDTO(notification);
-        simpMessagingTemplate.convertAndSendToUser(eventCreator.getUsername(), "/queue/notifications", notificationDTO);
+        enqueue(event.getCreator(), "Volunteer Registration Cancelled", message,
+                Notification.RelatedType.REGISTRATION, registrationId);
     }
 
-    @Async("notificationExecutor")
     @Override
     public void notifyManagerOnNewRegistration(Long registrationId) {
         log.info("Notify Manager on new registration: {}", registrationId);
         Registration registration = registrationRepository.findRegistrationById(registrationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Registration not found"));
         Event event = registration.getEvent();
-        User eventCreator = event.getCreator();
         User volunteer = registration.getUser();
-        
-        String message = "Volunteer " + volunteer.getUsername() 
+
+        String message = "Volunteer " + volunteer.getUsername()
                 + " has registered for your event '" + event.getTitle() + "'.";
-        
-        Notification notification = new Notification()
-                .setUser(eventCreator)
-                .setTitle("New Registration")
-                .setMessage(message)
-                .setRelatedType(Notification.RelatedType.REGISTRATION)
-                .setRelatedId(registrationId);
-        
-        notificationRepository.save(notification);
-        NotificationDTO notificationDTO = notificationMapper.toNotificationDTO(notification);
-        simpMessagingTemplate.convertAndSendToUser(
-                eventCreator.getUsername(),
-                "/queue/notifications",
-                notificationDTO
-        );
+        enqueue(event.getCreator(), "New Registration", message,
+                Notification.RelatedType.REGISTRATION, registrationId);
     }
 
-    @Async("notificationExecutor")
     public void notifyAllMembersInEventOnNewPost(Event event, Post post) {
         log.info("Notify all approved members in event {} about new post {}", event.getId(), post.getId());
-        
-        // The post is already persisted; use it directly
-        User postCreator = post.getPostCreator();
-        
-        // Query all APPROVED registrations for this event directly from database
-        List<Registration> approvedRegistrations = registrationRepository.findByEventIdAndStatus(
-                event.getId(), 
-                Registration.RegistrationStatus.APPROVED
-        );
-        
-        log.info("Found {} approved registrations for event {}", approvedRegistrations.size(), event.getId());
-        
-        // Send notification to all approved members (excluding post creator)
-        for (Registration registration : approvedRegistrations) {
-            User user = registration.getUser();
-            
-            // Skip notification for post creator
-            if (user.getId().equals(postCreator.getId())) {
-                log.debug("Skipping notification for post creator: {}", user.getUsername());
-                continue;
-            }
-            
-            Notification notification = new Notification()
-                    .setTitle("New post coming!")
-                    .setMessage("A new post has been posted. Click to see!")
-                    .setUser(user)
-                    .setRelatedType(Notification.RelatedType.POST)
-                .setRelatedId(post.getId());
-            
-            notificationRepository.save(notification);
-            
-            NotificationDTO notificationDTO = notificationMapper.toNotificationDTO(notification);
-            simpMessagingTemplate.convertAndSendToUser(
-                    user.getUsername(),
-                    "/queue/notifications",
-                    notificationDTO
-            );
-            
-            log.debug("Sent notification to user: {}", user.getUsername());
-        }
-        
+        // Recipients (APPROVED members minus the post creator) are resolved by the dispatcher
+        enqueueForAudience(NotificationOutbox.Audience.EVENT_APPROVED_MEMBERS, event.getId(), post.getPostCreator().getId(),
+                "New post coming!",
+                "A new post has been posted. Click to see!",
+                Notification.RelatedType.POST,
+                post.getId());
     }
 
     @Override
@@ -347,223 +261,123 @@ public class NotificationServiceImpl implements NotificationService {
         return redirectInfo;
     }
 
-    @Async("notificationExecutor")
     @Override
     public void notifyUserAccountDisabled(User user, String reason) {
         log.info("Notifying user {} that their account has been disabled", user.getUsername());
-        
-        Notification notification = new Notification()
-                .setTitle("Account Disabled")
-                .setMessage("Your account has been disabled by an administrator. Reason: " + 
-                           (reason != null ? reason : "No reason provided"))
-                .setUser(user)
-                .setRelatedType(Notification.RelatedType.GENERAL)
-                .setRelatedId(user.getId());
-        
-        notificationRepository.save(notification);
-        
-        NotificationDTO notificationDTO = notificationMapper.toNotificationDTO(notification);
-        simpMessagingTemplate.convertAndSendToUser(
-                user.getUsername(),
-                "/queue/notifications",
-                notificationDTO
-        );
+        enqueue(user, "Account Disabled",
+                "Your account has been disabled by an administrator. Reason: " +
+                        (reason != null ? reason : "No reason provided"),
+                Notification.RelatedType.GENERAL, user.getId());
     }
 
-    @Async("notificationExecutor")
     @Override
     public void notifyUserAccountEnabled(User user) {
         log.info("Notifying user {} that their account has been enabled", user.getUsername());
-        
-        Notification notification = new Notification()
-                .setTitle("Account Enabled")
-                .setMessage("Your account has been enabled by an administrator. You can now access all features.")
-                .setUser(user)
-                .setRelatedType(Notification.RelatedType.GENERAL)
-                .setRelatedId(user.getId());
-        
-        notificationRepository.save(notification);
-        
-        NotificationDTO notificationDTO = notificationMapper.toNotificationDTO(notification);
-        simpMessagingTemplate.convertAndSendToUser(
-                user.getUsername(),
-                "/queue/notifications",
-                notificationDTO
-        );
+        enqueue(user, "Account Enabled",
+                "Your account has been enabled by an administrator. You can now access all features.",
+                Notification.RelatedType.GENERAL, user.getId());
     }
 
-    @Async("notificationExecutor")
     @Override
     public void notifyUserRoleChanged(User user, String oldRole, String newRole) {
         log.info("Notifying user {} of role change from {} to {}", user.getUsername(), oldRole, newRole);
-        
-        Notification notification = new Notification()
-                .setTitle("Role Changed")
-                .setMessage("Your role has been changed from " + oldRole + " to " + newRole + " by an administrator.")
-                .setUser(user)
-                .setRelatedType(Notification.RelatedType.GENERAL)
-                .setRelatedId(user.getId());
-        
-        notificationRepository.save(notification);
-        
-        NotificationDTO notificationDTO = notificationMapper.toNotificationDTO(notification);
-        simpMessagingTemplate.convertAndSendToUser(
-                user.getUsername(),
-                "/queue/notifications",
-                notificationDTO
-        );
+        enqueue(user, "Role Changed",
+                "Your role has been changed from " + oldRole + " to " + newRole + " by an administrator.",
+                Notification.RelatedType.GENERAL, user.getId());
     }
 
-    @Async("notificationExecutor")
     @Override
     public void notifyUserPasswordReset(User user, String newPassword) {
         log.info("Notifying user {} that their password has been reset", user.getUsername());
-        
-        Notification notification = new Notification()
-                .setTitle("Password Reset")
-                .setMessage("Your password has been reset by an administrator. New password: " + newPassword)
-                .setUser(user)
-                .setRelatedType(Notification.RelatedType.GENERAL)
-                .setRelatedId(user.getId());
-        
-        notificationRepository.save(notification);
-        
-        NotificationDTO notificationDTO = notificationMapper.toNotificationDTO(notification);
-        simpMessagingTemplate.convertAndSendToUser(
-                user.getUsername(),
-                "/queue/notifications",
-                notificationDTO
-        );
+        enqueue(user, "Password Reset",
+                "Your password has been reset by an administrator. New password: " + newPassword,
+                Notification.RelatedType.GENERAL, user.getId());
     }
 
-    @Async("notificationExecutor")
     @Override
     public void notifyUserOnNewComment(User postCreator, Comment comment) {
-
         String commentCreator = comment.getUser().getUsername();
-
-        Notification notification = new Notification()
-                .setTitle("New comment")
-                .setMessage(commentCreator + " has commented on your post")
-                .setUser(postCreator)
-                .setRelatedType(Notification.RelatedType.COMMENT)
-                .setRelatedId(comment.getId());
-
-        notificationRepository.save(notification);
-
-        NotificationDTO notificationDTO = notificationMapper.toNotificationDTO(notification);
-        simpMessagingTemplate.convertAndSendToUser(
-                postCreator.getUsername(),
-                "/queue/notifications",
-                notificationDTO
-        );
+        enqueue(postCreator, "New comment", commentCreator + " has commented on your post",
+                Notification.RelatedType.COMMENT, comment.getId());
     }
 
-    @Async("notificationExecutor")
     @Override
     public void notifyUserOnNewChildComment(User commentCreator, Comment comment) {
-
-        Notification notification = new Notification()
-                .setTitle("New replied comment")
-                .setMessage(comment.getUser().getUsername() + " has replied your comment")
-                .setUser(commentCreator)
-                .setRelatedType(Notification.RelatedType.COMMENT)
-                .setRelatedId(comment.getId());
-
-        notificationRepository.save(notification);
-
-        NotificationDTO notificationDTO = notificationMapper.toNotificationDTO(notification);
-        simpMessagingTemplate.convertAndSendToUser(
-                commentCreator.getUsername(),
-                "/queue/notifications",
-                notificationDTO
-        );
+        enqueue(commentCreator, "New replied comment", comment.getUser().getUsername() + " has replied your comment",
+                Notification.RelatedType.COMMENT, comment.getId());
     }
 
-    @Async("notificationExecutor")
     @Override
     public void notifyVolunteerOnRegistrationApproved(User volunteer, Event event, Long registrationId) {
         log.info("Notifying volunteer {} about approved registration", volunteer.getUsername());
-        
-        Notification notification = new Notification()
-                .setUser(volunteer)
-                .setTitle("Registration Approved")
-                .setMessage("Your registration for event '" + event.getTitle() + "' has been approved!")
-                .setRelatedType(Notification.RelatedType.REGISTRATION)
-                .setRelatedId(registrationId);
-        
-        notificationRepository.save(notification);
-        NotificationDTO notificationDTO = notificationMapper.toNotificationDTO(notification);
-        simpMessagingTemplate.convertAndSendToUser(
-                volunteer.getUsername(),
-                "/queue/notifications",
-                notificationDTO
-        );
+        enqueue(volunteer, "Registration Approved",
+                "Your registration for event '" + event.getTitle() + "' has been approved!",
+                Notification.RelatedType.REGISTRATION, registrationId);
+    }
+
+    @Override
+    public void notifyVolunteersPromotedFromWaitlist(Event event, List<NotificationRecipient> volunteers) {
+        log.info("Notifying {} volunteers promoted from the waiting list of event {}", volunteers.size(), event.getId());
+        // One saveAll; the dispatcher delivers the rows of a poll in one JDBC batch
+        String message = "A spot opened up for event '" + event.getTitle()
+                + "'. Your registration moved from the waiting list to pending approval.";
+        notificationOutboxRepository.saveAll(volunteers.stream()
+                .map(volunteer -> new NotificationOutbox()
+                        .setAudience(NotificationOutbox.Audience.USER)
+                        .setAudienceId(volunteer.getUserId())
+                        .setRecipientUsername(volunteer.getUsername())
+                        .setTitle("Promoted From Waiting List")
+                        .setMessage(message)
+                        .setRelatedType(Notification.RelatedType.EVENT)
+                        .setRelatedId(event.getId()))
+                .toList());
     }
 
-    @Async("notificationExecutor")
     @Override
     public void notifyVolunteerOnRegistrationRejected(User volunteer, Event event, Long registrationId) {
         log.info("Notifying volunteer {} about rejected registration", volunteer.getUsername());
-        
-        Notification notification = new Notification()
-                .setUser(volunteer)
-                .setTitle("Registration Rejected")
-                .setMessage("Your registration for event '" + event.getTitle() + "' has been rejected!")
-                .setRelatedType(Notification.RelatedType.REGISTRATION)
-                .setRelatedId(registrationId);
-        
-        notificationRepository.save(notification);
-        NotificationDTO notificationDTO = notificationMapper.toNotificationDTO(notification);
-        simpMessagingTemplate.convertAndSendToUser(
-                volunteer.getUsername(),
-                "/queue/notifications",
-                notificationDTO
-        );
+        enqueue(volunteer, "Registration Rejected",
+                "Your registration for event '" + event.getTitle() + "' has been rejected!",
+                Notification.RelatedType.REGISTRATION, registrationId);
     }
 
-    @Async("notificationExecutor")
     @Override
     public void notifyUserOnNewLike(User postCreator, Like like) {
         log.info("Notifying user {} about new like on post", postCreator.getUsername());
-        
-        String likerUsername = like.getUser().getUsername();
-        Notification notification = new Notification()
-                .setUser(postCreator)
-                .setTitle("New like")
-                .setMessage(likerUsername + " liked your post")
-                .setRelatedType(Notification.RelatedType.LIKE)
-                .setRelatedId(like.getPost().getId());
-        
-        notificationRepository.save(notification);
-        NotificationDTO notificationDTO = notificationMapper.toNotificationDTO(notification);
-        simpMessagingTemplate.convertAndSendToUser(
-                postCreator.getUsername(),
-                "/queue/notifications",
-                notificationDTO
-        );
+        enqueue(postCreator, "New like", like.getUser().getUsername() + " liked your post",
+                Notification.RelatedType.LIKE, like.getPost().getId());
     }
 
-    @Async("notificationExecutor")
     @Override
     public void notifyUserOnCommentLike(User commentCreator, Like like) {
         log.info("Notifying user {} about new like on comment", commentCreator.getUsername());
-        
-        String likerUsername = like.getUser().getUsername();
-        Notification notification = new Notification()
-                .setUser(commentCreator)
-                .setTitle("New like")
-                .setMessage(likerUsername + " liked your comment")
-                .setRelatedType(Notification.RelatedType.LIKE)
-                .setRelatedId(like.getComment().getId());
-        
-        notificationRepository.save(notification);
-        NotificationDTO notificationDTO = notificationMapper.toNotificationDTO(notification);
-        simpMessagingTemplate.convertAndSendToUser(
-                commentCreator.getUsername(),
-                "/queue/notifications",
-                notificationDTO
-        );
+        enqueue(commentCreator, "New like", like.getUser().getUsername() + " liked your comment",
+                Notification.RelatedType.LIKE, like.getComment().getId());
+    }
+
+    private void enqueue(User recipient, String title, String message,
+                         Notification.RelatedType relatedType, Long relatedId) {
+        notificationOutboxRepository.save(new NotificationOutbox()
+                .setAudience(NotificationOutbox.Audience.USER)
+                .setAudienceId(recipient.getId())
+                .setRecipientUsername(recipient.getUsername())
+                .setTitle(title)
+                .setMessage(message)
+                .setRelatedType(relatedType)
+                .setRelatedId(relatedId));
+    }
+
+    private void enqueueForAudience(NotificationOutbox.Audience audience, Long audienceId, Long excludedUserId,
+                                    String title, String message,
+                                    Notification.RelatedType relatedType, Long relatedId) {
+        notificationOutboxRepository.save(new NotificationOutbox()
+                .setAudience(audience)
+                .setAudienceId(audienceId)
+                .setExcludedUserId(excludedUserId)
+                .setTitle(title)
+                .setMessage(message)
+                .setRelatedType(relatedType)
+                .setRelatedId(relatedId));
     }
 
 }
@@ -26,6 +26,7 @@ public class OAuth2UserServiceImpl extends DefaultOAuth2UserService {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
+    private final ActivityRollupBuffer activityRollupBuffer;
 
     @Override
     public OAuth2User loadUser(OAuth2UserRequest userRequest) throws OAuth2AuthenticationException {
@@ -93,6 +94,7 @@ public class OAuth2UserServiceImpl extends DefaultOAuth2UserService {
         user.addRole(volunteerRole);
         
         User savedUser = userRepository.save(user);
+        activityRollupBuffer.record(ActivityRollupBuffer.Activity.USER, 1);
 
         log.info("Registering new user successfully: {}", username);
 
@@ -0,0 +1,56 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.dto.event.EventDTO;
+import com.example.demo.model.EventRegistrationStats;
+import com.example.demo.repository.EventRegistrationStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registration counts for a single event or a whole listing page, read from the maintained
+ * {@link EventRegistrationStats} rows (one primary key lookup per page) instead of COUNT queries.
+ */
+@Component
+@RequiredArgsConstructor
+public class ParticipantCountAggregator {
+
+    private final EventRegistrationStatsRepository statsRepository;
+
+    public EventRegistrationStats getStats(Long eventId) {
+        return statsRepository.findById(eventId).orElseGet(() -> new EventRegistrationStats(eventId));
+    }
+
+    /**
+     * Stats by event id; events without a row yet map to all-zero stats.
+     */
+    public Map<Long, EventRegistrationStats> getStats(Collection<Long> eventIds) {
+        if (eventIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, EventRegistrationStats> stats = new HashMap<>(eventIds.size() * 2);
+        statsRepository.findAllById(eventIds).forEach(row -> stats.put(row.getEventId(), row));
+        eventIds.forEach(eventId -> stats.computeIfAbsent(eventId, EventRegistrationStats::new));
+        return stats;
+    }
+
+    /**
+     * Participant counts (APPROVED + PENDING registrations) by event id.
+     */
+    public Map<Long, Integer> countParticipants(Collection<Long> eventIds) {
+        Map<Long, Integer> counts = new HashMap<>(eventIds.size() * 2);
+        getStats(eventIds).forEach((eventId, row) -> counts.put(eventId, row.getParticipantCount()));
+        return counts;
+    }
+
+    /**
+     * Fill {@link EventDTO#setCurrentParticipants} for every DTO of the page.
+     */
+    public void fillParticipants(Collection<EventDTO> eventDTOs) {
+        Map<Long, Integer> counts = countParticipants(eventDTOs.stream().map(EventDTO::getEventId).toList());
+        eventDTOs.forEach(dto -> dto.setCurrentParticipants(counts.getOrDefault(dto.getEventId(), 0)));
+    }
+}
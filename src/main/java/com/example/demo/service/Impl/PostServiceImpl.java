@@ -1,7 +1,11 @@
 package com.example.demo.service.Impl;
 
 import com.example.demo.dto.post.CreatePostDTO;
+import com.example.demo.dto.file.FileRecordDTO;
+import com.example.demo.dto.file.PostFileView;
+import com.example.demo.dto.post_content.PostCursorPageResponse;
 import com.example.demo.dto.post_content.PostDTO;
+import com.example.demo.dto.post_content.PostFeedRow;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.mapper.PostMapper;
 import com.example.demo.model.*;
@@ -13,7 +17,6 @@ import com.example.demo.service.UserService;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -24,8 +27,12 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Slf4j
@@ -44,6 +51,8 @@ public class PostServiceImpl implements PostService {
     private final LikeRepository likeRepository;
     private final FileRepository fileRepository;
     private final NotificationService notificationService;
+    private final CounterDeltaBuffer counterDeltaBuffer;
+    private final DashboardCacheInvalidator dashboardCacheInvalidator;
 
     @Override
     public Page<PostDTO> getAllPosts(Long eventId, Pageable pageable) {
@@ -55,8 +64,97 @@ public class PostServiceImpl implements PostService {
                 .map(this::toDTOWithLikeCountAndCommentCount);
     }
 
+    /**
+     * Keyset-paginated feed: one projection query for the page plus one batched query for its files,
+     * whatever the scroll depth.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PostCursorPageResponse getPostFeed(Long eventId, String cursor, int limit) {
+        log.info("Get post feed in event: {} with cursor: {} and limit: {}", eventId, cursor, limit);
+        if (eventId == null) {
+            throw new IllegalArgumentException("Event ID cannot be null");
+        }
+        if (limit <= 0 || limit >= 100) {
+            limit = 20;
+        }
+
+        Long currentUserId = getCurrentUserIdOrNone();
+        List<PostFeedRow> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = postRepository.findFeedWithLimit(eventId, currentUserId, limit + 1);
+        } else {
+            String[] part = decodeFeedCursor(cursor);
+            rows = postRepository.findFeedWithCursorAndLimit(eventId, currentUserId, Boolean.parseBoolean(part[0]),
+                    LocalDateTime.parse(part[1]), Long.parseLong(part[2]), limit + 1);
+        }
+
+        boolean hasNext = rows.size() > limit;
+        if (hasNext) {
+            rows = rows.subList(0, limit);
+        }
+
+        Map<Long, List<FileRecordDTO>> filesByPost = new HashMap<>();
+        if (!rows.isEmpty()) {
+            for (PostFileView file : fileRepository.findPostFilesByPostIds(rows.stream().map(PostFeedRow::getId).toList())) {
+                filesByPost.computeIfAbsent(file.getPostId(), id -> new ArrayList<>())
+                        .add(new FileRecordDTO(file.getId(), file.getFileName(), file.getUrl(), file.getFileType()));
+            }
+        }
+
+        List<PostDTO> posts = rows.stream()
+                .map(row -> toPostDTO(row, filesByPost.get(row.getId())))
+                .toList();
+
+        String nextCursor = hasNext ? encodeFeedCursor(rows.get(rows.size() - 1)) : null;
+        return PostCursorPageResponse.of(posts, nextCursor, hasNext);
+    }
+
+    private Long getCurrentUserIdOrNone() {
+        try {
+            User currentUser = userService.getCurrentUser();
+            return currentUser != null ? currentUser.getId() : -1L;
+        } catch (Exception e) {
+            // Anonymous access: no post is liked
+            return -1L;
+        }
+    }
+
+    private PostDTO toPostDTO(PostFeedRow row, List<FileRecordDTO> files) {
+        String fullName = ((row.getUserFirstName() != null ? row.getUserFirstName() : "") + " "
+                + (row.getUserLastName() != null ? row.getUserLastName() : "")).trim();
+
+        PostDTO postDTO = new PostDTO();
+        postDTO.setId(row.getId());
+        postDTO.setContent(row.getContent());
+        postDTO.setUserId(row.getUserId());
+        postDTO.setUsername(row.getUsername());
+        postDTO.setUserFullName(!fullName.isBlank() ? fullName : row.getUsername());
+        postDTO.setUserAvatarUrl(row.getUserAvatarUrl());
+        postDTO.setLikeCount((int) (row.getLikeCount()
+                + counterDeltaBuffer.pending(CounterDeltaBuffer.Counter.POST_LIKES, row.getId())));
+        postDTO.setCommentCount((int) (row.getCommentCount()
+                + counterDeltaBuffer.pending(CounterDeltaBuffer.Counter.POST_COMMENTS, row.getId())));
+        postDTO.setIsPinned(row.isPinned());
+        postDTO.setIsLikedByCurrentUser(row.isLikedByCurrentUser());
+        postDTO.setFiles(files != null ? files : List.of());
+        postDTO.setCreatedAt(row.getCreatedAt());
+        postDTO.setUpdatedAt(row.getUpdatedAt());
+        return postDTO;
+    }
+
+    private String encodeFeedCursor(PostFeedRow row) {
+        String cursorData = row.isPinned() + "_" + row.getCreatedAt() + "_" + row.getId();
+        return Base64.getEncoder().encodeToString(cursorData.getBytes());
+    }
+
+    private String[] decodeFeedCursor(String cursor) {
+        byte[] decodeBytes = Base64.getDecoder().decode(cursor);
+        String decodeString = new String(decodeBytes);
+        return decodeString.split("_");
+    }
+
     @Transactional
-    @CacheEvict(value = "dashboard", key = "'volunteer:' + @userService.getCurrentUser().id")
     public PostDTO createPost(Long eventId, List<MultipartFile> multipartFiles, CreatePostDTO createPostDTO) throws IOException {
         log.info("Create new post with files in event: {}", eventId);
 
@@ -102,6 +200,7 @@ public class PostServiceImpl implements PostService {
 
         Post savedPost = postRepository.save(post);
         log.info("Post created with ID: {}", savedPost.getId());
+        dashboardCacheInvalidator.postChanged(event, user.getId());
 
         // Upload files and create FileRecords
         if (hasFiles) {
@@ -132,8 +231,11 @@ public class PostServiceImpl implements PostService {
 
     private PostDTO toDTOWithLikeCountAndCommentCount(Post post) {
         PostDTO postDTO = postMapper.toPostDTO(post);
-        postDTO.setCommentCount(commentRepository.countCommentsByPostId(postDTO.getId()));
-        postDTO.setLikeCount(likeRepository.countLikesByPostId(postDTO.getId()));
+        // Denormalized counters plus this node's deltas that are not flushed yet
+        postDTO.setCommentCount((int) (post.getCommentCount()
+                + counterDeltaBuffer.pending(CounterDeltaBuffer.Counter.POST_COMMENTS, post.getId())));
+        postDTO.setLikeCount((int) (post.getLikeCount()
+                + counterDeltaBuffer.pending(CounterDeltaBuffer.Counter.POST_LIKES, post.getId())));
 
         // Map file records to DTO (ensure FE receives media)
         if (post.getFileRecords() != null && !post.getFileRecords().isEmpty()) {
@@ -0,0 +1,175 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.dto.common.IdCount;
+import com.example.demo.dto.event.EventCandidateRow;
+import com.example.demo.model.Event;
+import com.example.demo.model.EventRegistrationStats;
+import com.example.demo.model.User;
+import com.example.demo.repository.CommentRepository;
+import com.example.demo.repository.EventRepository;
+import com.example.demo.repository.PostRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Event recommendation scoring for the volunteer dashboard.
+ * <p>
+ * The user independent part of the score (capacity, popularity, organizer completion rate) is precomputed
+ * for every candidate event on a schedule, with a handful of grouped queries. A request then only computes
+ * the user's tag affinity (bitset popcount, see {@link TagBitsetIndex}) and the time decay in memory and keeps the best {@code k} events in a heap.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RecommendationScoringEngine {
+
+    private static final double TAG_WEIGHT = 0.4;
+    private static final double CAPACITY_WEIGHT = 0.1;
+    private static final double POPULARITY_WEIGHT = 0.2;
+    private static final double ORGANIZER_WEIGHT = 0.1;
+    private static final double TIME_WEIGHT = 0.2;
+
+    private final EventRepository eventRepository;
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final ParticipantCountAggregator participantCountAggregator;
+    private final TagBitsetIndex tagBitsetIndex;
+
+    @Value("${recommendation.candidate-limit:200}")
+    private int candidateLimit;
+
+    // Replaced wholesale on refresh, so readers always see one consistent snapshot
+    private volatile List<EventFeatures> snapshot;
+
+    @Getter
+    @AllArgsConstructor
+    static class EventFeatures {
+        private final Long eventId;
+        private final LocalDateTime date;
+        private final long[] tagBits;
+        // Weighted capacity + popularity + organizer part of the score
+        private final double staticScore;
+    }
+
+    @AllArgsConstructor
+    private static class ScoredEvent {
+        private final Long eventId;
+        private final double score;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${recommendation.refresh-interval-ms:60000}",
+            initialDelayString = "${recommendation.refresh-interval-ms:60000}")
+    public void refresh() {
+        long start = System.nanoTime();
+        snapshot = computeFeatures();
+        log.debug("Refreshed recommendation features for {} events in {} ms",
+                snapshot.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Ids of the {@code k} best scored candidate events for the user, best first.
+     */
+    public List<Long> topK(User user, int k) {
+        List<EventFeatures> features = snapshot;
+        if (features == null) {
+            refresh();
+            features = snapshot;
+        }
+
+        long[] userTags = tagBitsetIndex.userBits(user.getId());
+        LocalDateTime now = LocalDateTime.now();
+
+        // Min-heap of the best k so far: O(n log k) and no comparator re-evaluating scores
+        PriorityQueue<ScoredEvent> heap = new PriorityQueue<>(k + 1, Comparator.comparingDouble(e -> e.score));
+        for (EventFeatures event : features) {
+            double score = event.getStaticScore()
+                    + TAG_WEIGHT * TagBitsetIndex.overlap(userTags, event.getTagBits())
+                    + TIME_WEIGHT * timeScore(now, event.getDate());
+            if (heap.size() < k) {
+                heap.add(new ScoredEvent(event.getEventId(), score));
+            } else if (score > heap.peek().score) {
+                heap.poll();
+                heap.add(new ScoredEvent(event.getEventId(), score));
+            }
+        }
+
+        List<ScoredEvent> best = new ArrayList<>(heap);
+        best.sort(Comparator.comparingDouble((ScoredEvent e) -> e.score).reversed());
+        return best.stream().map(e -> e.eventId).toList();
+    }
+
+    private List<EventFeatures> computeFeatures() {
+        List<EventCandidateRow> candidates = eventRepository.findCandidateRows(PageRequest.of(0, candidateLimit));
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        List<Long> eventIds = candidates.stream().map(EventCandidateRow::getId).toList();
+        Set<Long> creatorIds = candidates.stream().map(EventCandidateRow::getCreatorId).collect(Collectors.toSet());
+
+        Map<Long, EventRegistrationStats> stats = participantCountAggregator.getStats(eventIds);
+        Map<Long, Long> postLikes = toMap(postRepository.sumLikeCountByEventIds(eventIds));
+        Map<Long, Long> comments = toMap(postRepository.sumCommentCountByEventIds(eventIds));
+        Map<Long, Long> commentLikes = toMap(commentRepository.sumLikeCountByEventIds(eventIds));
+        Map<Long, Long> organizerEvents = toMap(eventRepository.countEventsByCreatorIds(creatorIds));
+        Map<Long, Long> organizerCompleted = toMap(
+                eventRepository.countEventsByCreatorIdsAndStatus(creatorIds, Event.EventStatus.COMPLETED));
+
+        Map<Long, long[]> tagBits = tagBitsetIndex.eventBits(eventIds);
+
+        List<EventFeatures> features = new ArrayList<>(candidates.size());
+        for (EventCandidateRow candidate : candidates) {
+            Long eventId = candidate.getId();
+            int maxParticipants = candidate.getMaxParticipants();
+
+            double capacityScore = maxParticipants == 0 ? 0.0
+                    : 1 - Math.min(1.0, (double) stats.get(eventId).getApprovedCount() / maxParticipants);
+
+            long likes = postLikes.getOrDefault(eventId, 0L) + commentLikes.getOrDefault(eventId, 0L);
+            double popularity = likes * 0.4 + comments.getOrDefault(eventId, 0L) * 0.3 + maxParticipants * 0.3;
+            double popularityScore = Math.min(popularity / 100.0, 1.0);
+
+            long totalEvents = organizerEvents.getOrDefault(candidate.getCreatorId(), 0L);
+            double organizerScore = totalEvents == 0 ? 0.0
+                    : (double) organizerCompleted.getOrDefault(candidate.getCreatorId(), 0L) / totalEvents;
+
+            features.add(new EventFeatures(eventId, candidate.getDate(), tagBits.get(eventId),
+                    CAPACITY_WEIGHT * capacityScore + POPULARITY_WEIGHT * popularityScore
+                            + ORGANIZER_WEIGHT * organizerScore));
+        }
+        return features;
+    }
+
+    // Linear decay over the next 30 days
+    private static double timeScore(LocalDateTime now, LocalDateTime date) {
+        long daysDiff = ChronoUnit.DAYS.between(now, date);
+        if (daysDiff <= 0 || daysDiff >= 30) return 0.0;
+        return 1 - (daysDiff / 30.0);
+    }
+
+    private static Map<Long, Long> toMap(Collection<IdCount> rows) {
+        Map<Long, Long> map = new HashMap<>(rows.size() * 2);
+        rows.forEach(row -> map.put(row.getId(), row.getCount()));
+        return map;
+    }
+}
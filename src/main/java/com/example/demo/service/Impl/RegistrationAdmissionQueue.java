@@ -0,0 +1,199 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.dto.registration.RegistrationDTO;
+import com.example.demo.dto.registration.RegistrationTicketDTO;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.exception.TooManyRequestsException;
+import com.example.demo.model.User;
+import com.example.demo.service.RegistrationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission layer in front of {@link RegistrationService#registerEvent} for registration bursts.
+ * <p>
+ * Requests are parked in a bounded queue per event and answered with a ticket right away.
+ * A single scheduled worker drains every queue in batches through {@link RegistrationService#registerBatch},
+ * so a spike costs one connection and one event row lock per batch instead of one per request.
+ * The outcome is pushed to {@code /user/queue/registrations} and can also be polled by ticket id.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RegistrationAdmissionQueue {
+
+    private final RegistrationService registrationService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+    private final Map<String, Admission> tickets = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    @Value("${registration.admission.queue-capacity:5000}")
+    private int queueCapacity;
+
+    @Value("${registration.admission.batch-size:200}")
+    private int batchSize;
+
+    @Value("${registration.admission.ticket-ttl-minutes:15}")
+    private int ticketTtlMinutes;
+
+    @PostConstruct
+    void registerMetrics() {
+        meterRegistry.gauge("registration.admission.queued", queued);
+    }
+
+    public RegistrationTicketDTO enqueue(Long eventId, User user) {
+        RegistrationTicketDTO ticket = new RegistrationTicketDTO()
+                .setTicketId(UUID.randomUUID().toString())
+                .setEventId(eventId)
+                .setUserId(user.getId())
+                .setStatus(RegistrationTicketDTO.TicketStatus.QUEUED)
+                .setCreatedAt(LocalDateTime.now());
+        Admission admission = new Admission(ticket, user);
+
+        // compute() locks the lane's bin, so an offer never lands in a lane the worker is removing; the worker's
+        // polls do not take that lock
+        lanes.compute(eventId, (id, lane) -> {
+            Lane target = lane != null ? lane : new Lane();
+            if (!target.queuedUsers.add(user.getId())) {
+                throw new IllegalStateException("Your registration for this event is already queued.");
+            }
+            int size = target.size.incrementAndGet();
+            if (size > queueCapacity) {
+                target.size.decrementAndGet();
+                target.queuedUsers.remove(user.getId());
+                meterRegistry.counter("registration.admission.rejected").increment();
+                throw new TooManyRequestsException("Registration queue for this event is full, please retry shortly.");
+            }
+            ticket.setPosition(size);
+            target.queue.offer(admission);
+            return target;
+        });
+
+        queued.incrementAndGet();
+        tickets.put(ticket.getTicketId(), admission);
+        log.debug("Queued registration of user {} for event {} at position {}", user.getId(), eventId, ticket.getPosition());
+        return ticket;
+    }
+
+    public RegistrationTicketDTO getTicket(String ticketId, Long userId) {
+        Admission admission = tickets.get(ticketId);
+        if (admission == null || !admission.ticket.getUserId().equals(userId)) {
+            throw new ResourceNotFoundException("Registration ticket not found");
+        }
+        return admission.ticket;
+    }
+
+    @Scheduled(fixedDelayString = "${registration.admission.drain-interval-ms:100}")
+    public void drain() {
+        for (Map.Entry<Long, Lane> entry : lanes.entrySet()) {
+            Long eventId = entry.getKey();
+            Lane lane = entry.getValue();
+
+            List<Admission> batch = new ArrayList<>(batchSize);
+            Admission next;
+            while (batch.size() < batchSize && (next = lane.queue.poll()) != null) {
+                batch.add(next);
+            }
+            if (batch.isEmpty()) {
+                lanes.computeIfPresent(eventId, (id, current) -> current.size.get() == 0 ? null : current);
+                continue;
+            }
+
+            lane.size.addAndGet(-batch.size());
+            queued.addAndGet(-batch.size());
+            batch.forEach(admission -> lane.queuedUsers.remove(admission.user.getId()));
+            admit(eventId, batch);
+        }
+        evictExpiredTickets();
+    }
+
+    private void admit(Long eventId, List<Admission> batch) {
+        long start = System.nanoTime();
+        try {
+            Map<Long, RegistrationDTO> registered = registrationService.registerBatch(
+                    eventId, batch.stream().map(admission -> admission.user).toList());
+            for (Admission admission : batch) {
+                RegistrationDTO registration = registered.get(admission.user.getId());
+                if (registration != null) {
+                    complete(admission, RegistrationTicketDTO.TicketStatus.ADMITTED, registration, null);
+                } else {
+                    complete(admission, RegistrationTicketDTO.TicketStatus.REJECTED, null,
+                            "User has already registered for this event.");
+                }
+            }
+            meterRegistry.counter("registration.admission.admitted").increment(registered.size());
+        } catch (IllegalStateException ex) {
+            // Rule on the event itself (e.g. registration closed), the same answer the direct endpoint gives
+            batch.forEach(admission -> complete(admission, RegistrationTicketDTO.TicketStatus.REJECTED, null, ex.getMessage()));
+        } catch (RuntimeException ex) {
+            if (batch.size() > 1) {
+                // One bad request must not reject the rest of the batch
+                log.warn("Admission batch of {} for event {} failed, retrying entries individually: {}",
+                        batch.size(), eventId, ex.getMessage());
+                batch.forEach(admission -> admit(eventId, List.of(admission)));
+                return;
+            }
+            log.warn("Admission of user {} for event {} failed", batch.get(0).user.getId(), eventId, ex);
+            meterRegistry.counter("registration.admission.failed").increment();
+            complete(batch.get(0), RegistrationTicketDTO.TicketStatus.REJECTED, null,
+                    "Registration could not be processed, please try again.");
+        } finally {
+            meterRegistry.timer("registration.admission.batch").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void complete(Admission admission, RegistrationTicketDTO.TicketStatus status,
+                          RegistrationDTO registration, String message) {
+        admission.ticket
+                .setStatus(status)
+                .setRegistration(registration)
+                .setMessage(message)
+                .setCompletedAt(LocalDateTime.now());
+        try {
+            messagingTemplate.convertAndSendToUser(admission.user.getUsername(), "/queue/registrations", admission.ticket);
+        } catch (Exception e) {
+            // The client can still poll the ticket
+            log.error("Failed to push registration ticket {} to user {}",
+                    admission.ticket.getTicketId(), admission.user.getUsername(), e);
+        }
+    }
+
+    private void evictExpiredTickets() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(ticketTtlMinutes);
+        tickets.values().removeIf(admission -> admission.ticket.getCompletedAt() != null
+                && admission.ticket.getCompletedAt().isBefore(cutoff));
+    }
+
+    private static class Lane {
+        private final ConcurrentLinkedQueue<Admission> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final Set<Long> queuedUsers = ConcurrentHashMap.newKeySet();
+    }
+
+    @AllArgsConstructor
+    private static class Admission {
+        private final RegistrationTicketDTO ticket;
+        private final User user;
+    }
+}
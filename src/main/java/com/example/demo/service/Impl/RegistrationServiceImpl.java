@@ -18,9 +18,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -29,7 +28,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.security.Principal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @Slf4j
@@ -44,18 +48,20 @@ public class RegistrationServiceImpl implements RegistrationService {
     private final EventRepository eventRepository;
     private final FirebaseService firebaseService;
     private final UserFcmTokenRepository userFcmTokenRepository;
+    private final WaitlistPromotionEngine waitlistPromotionEngine;
+    private final ParticipantCountAggregator participantCountAggregator;
+    private final RegistrationStatsRecorder registrationStatsRecorder;
+    private final ActivityRollupBuffer activityRollupBuffer;
+    private final DashboardCacheInvalidator dashboardCacheInvalidator;
     
     @Autowired(required = false)
     private CacheManager cacheManager;
 
 
-    @Caching(evict = {
-            @CacheEvict(value = "dashboard", allEntries = true),
-            @CacheEvict(value = "eventsDetails", key = "#eventId"),
-    })
+    @CacheEvict(value = "eventsDetails", key = "#eventId")
     @Transactional
     public RegistrationDTO registerEvent(Long eventId) {
-        log.info("Registering event with ID: {} (clearing dashboard cache)", eventId);
+        log.info("Registering event with ID: {}", eventId);
 
         User user = userService.getCurrentUser();
 
@@ -70,36 +76,93 @@ public class RegistrationServiceImpl implements RegistrationService {
             throw new IllegalStateException("Event is not open for registration.");
         }
 
-        // Count current participants (APPROVED + PENDING = those who occupy slots)
-        long approvedCount = countParticipantsOfAnEvent(eventId, Registration.RegistrationStatus.APPROVED);
-        long pendingCount = countParticipantsOfAnEvent(eventId, Registration.RegistrationStatus.PENDING);
-        long currentOccupiedSlots = approvedCount + pendingCount;
-
         Registration registration = new Registration()
                 .setEvent(event)
                 .setUser(user);
 
-        // Check if there's room for this registration
-        if (currentOccupiedSlots < event.getMaxParticipants()) {
-            // There's still room - create PENDING registration
+        // The conditional UPDATE is the only capacity check, so concurrent requests cannot oversubscribe
+        if (eventRepository.tryReserveSlot(eventId) > 0) {
             registration.setStatus(Registration.RegistrationStatus.PENDING);
-            event.setCurrentRegistrationCount(event.getCurrentRegistrationCount() + 1);
-            log.info("User {} registered for event {} with PENDING status (slots: {}/{})", 
-                     user.getId(), eventId, currentOccupiedSlots + 1, event.getMaxParticipants());
+            log.info("User {} registered for event {} with PENDING status", user.getId(), eventId);
         } else {
             // Event is full - add to waiting list
             registration.setStatus(Registration.RegistrationStatus.WAITING);
-            log.info("User {} added to WAITING list for event {} (event is full: {}/{})", 
-                     user.getId(), eventId, currentOccupiedSlots, event.getMaxParticipants());
+            log.info("User {} added to WAITING list for event {} (event is full: max {})",
+                     user.getId(), eventId, event.getMaxParticipants());
         }
 
-        registrationRepository.save(registration);
-        eventRepository.save(event);
+        try {
+            registrationRepository.saveAndFlush(registration);
+        } catch (DataIntegrityViolationException e) {
+            // Concurrent duplicate caught by the unique (user_id, event_id) index; the reserved slot rolls back
+            throw new IllegalStateException("User has already registered for this event.");
+        }
+        registrationStatsRecorder.registered(eventId, registration.getStatus(), 1);
+        activityRollupBuffer.record(ActivityRollupBuffer.Activity.REGISTRATION, 1);
+        dashboardCacheInvalidator.registrationChanged(event, user.getId());
 
         return registrationMapper.toRegistrationDTO(registration);
     }
 
 
+    /**
+     * Registers a batch of users for one event in a single transaction, used by the admission queue.
+     * The event row is locked once for the whole batch and the granted slots are added in one statement.
+     * Users that already have a registration for the event are left out of the result.
+     */
+    @Override
+    @CacheEvict(value = "eventsDetails", key = "#eventId")
+    @Transactional
+    public Map<Long, RegistrationDTO> registerBatch(Long eventId, List<User> users) {
+        log.info("Registering batch of {} users for event {}", users.size(), eventId);
+
+        Event event = eventRepository.findByIdForUpdate(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
+
+        if (event.getStatus() == Event.EventStatus.PLANNED) {
+            throw new IllegalStateException("Event is not open for registration.");
+        }
+
+        Set<Long> skipped = new HashSet<>(registrationRepository.findRegisteredUserIds(
+                eventId, users.stream().map(User::getId).toList()));
+        int freeSlots = Math.max(0, event.getMaxParticipants() - event.getCurrentRegistrationCount());
+
+        List<Registration> registrations = new ArrayList<>(users.size());
+        int granted = 0;
+        for (User user : users) {
+            // skipped.add also drops a user queued twice within the batch
+            if (!skipped.add(user.getId())) {
+                continue;
+            }
+            Registration.RegistrationStatus status = granted < freeSlots
+                    ? Registration.RegistrationStatus.PENDING
+                    : Registration.RegistrationStatus.WAITING;
+            if (status == Registration.RegistrationStatus.PENDING) {
+                granted++;
+            }
+            registrations.add(new Registration()
+                    .setEvent(event)
+                    .setUser(user)
+                    .setStatus(status));
+        }
+
+        registrationRepository.saveAll(registrations);
+        if (granted > 0) {
+            eventRepository.reserveSlots(eventId, granted);
+        }
+        registrationStatsRecorder.registered(eventId, Registration.RegistrationStatus.PENDING, granted);
+        registrationStatsRecorder.registered(eventId, Registration.RegistrationStatus.WAITING, registrations.size() - granted);
+        activityRollupBuffer.record(ActivityRollupBuffer.Activity.REGISTRATION, registrations.size());
+        dashboardCacheInvalidator.registrationsChanged(event,
+                registrations.stream().map(registration -> registration.getUser().getId()).toList());
+        log.info("Batch for event {}: {} PENDING, {} WAITING", eventId, granted, registrations.size() - granted);
+
+        Map<Long, RegistrationDTO> result = new HashMap<>(registrations.size() * 2);
+        registrations.forEach(registration ->
+                result.put(registration.getUser().getId(), registrationMapper.toRegistrationDTO(registration)));
+        return result;
+    }
+
     public Page<RegistrationDTO> getAllRegistration(Pageable pageable) {
         log.info("Get all registration");
         return registrationRepository.findAll(pageable)
@@ -109,15 +172,11 @@ public class RegistrationServiceImpl implements RegistrationService {
     public Page<EventDTO> getRegisteredEvents(Pageable pageable) {
         log.info("Get registered events");
         User user = userService.getCurrentUser();
-        return registrationRepository.findEventRegistered(user.getId(), pageable)
-                .map(event -> {
-                    EventDTO dto = eventMapper.toEventDTO(event);
-                    // Calculate real-time count from registrations
-                    int approvedCount = registrationRepository.countByEventIdAndStatus(event.getId(), Registration.RegistrationStatus.APPROVED);
-                    int pendingCount = registrationRepository.countByEventIdAndStatus(event.getId(), Registration.RegistrationStatus.PENDING);
-                    dto.setCurrentParticipants(approvedCount + pendingCount);
-                    return dto;
-                });
+        Page<EventDTO> events = registrationRepository.findEventRegistered(user.getId(), pageable)
+                .map(eventMapper::toEventDTO);
+        // Counts from the maintained event_registration_stats rows, one lookup for the page
+        participantCountAggregator.fillParticipants(events.getContent());
+        return events;
     }
 
     @Override
@@ -127,29 +186,41 @@ public class RegistrationServiceImpl implements RegistrationService {
         return registrations.map(registrationMapper::toRegistrationDTO);
     }
 
-    @CacheEvict(value = "dashboard", key = "'manager:' + @userService.getCurrentUser().id")
+    @Transactional
     public void approvedRegistration(Long registrationId) throws FirebaseMessagingException {
         Registration registration = registrationRepository.findRegistrationById(registrationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Registration not found"));
 
         Event event = registration.getEvent();
+        Registration.RegistrationStatus previousStatus = registration.getStatus();
+        if (previousStatus == Registration.RegistrationStatus.APPROVED) {
+            throw new IllegalStateException("Registration is already approved");
+        }
 
         UserFcmToken user = userFcmTokenRepository.findByUser(registration.getUser())
                         .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
+        // PENDING already holds a slot; any other status has to take one, event row before stats row
+        if (previousStatus != Registration.RegistrationStatus.PENDING
+                && eventRepository.tryReserveSlot(event.getId()) == 0) {
+            throw new IllegalStateException("Event is full");
+        }
+
         firebaseService.sendToToken(
                 user.getToken(),
                 "Registration successfully",
                 "Your registration on event '"+ event.getTitle() + "' has been approved");
 
+        registrationStatsRecorder.transition(event.getId(), previousStatus, Registration.RegistrationStatus.APPROVED);
         registration.setStatus(Registration.RegistrationStatus.APPROVED);
         registrationRepository.save(registration);
+        dashboardCacheInvalidator.registrationChanged(event, registration.getUser().getId());
         
         // Evict event details cache to refresh participant count
         evictEventDetailsCache(event.getId());
     }
 
-    @CacheEvict(value = "dashboard", key = "'manager:' + @userService.getCurrentUser().id")
+    @Transactional
     public void rejectedRegistration(Long registrationId) throws FirebaseMessagingException {
         Registration registration = registrationRepository.findRegistrationById(registrationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Registration not found"));
@@ -164,17 +235,30 @@ public class RegistrationServiceImpl implements RegistrationService {
                 "Registration failed",
                 "Your registration on event '"+ event.getTitle() + "' has been rejected");
 
+        Registration.RegistrationStatus previousStatus = registration.getStatus();
+        boolean wasCountedRegistration = previousStatus == Registration.RegistrationStatus.APPROVED
+                                      || previousStatus == Registration.RegistrationStatus.PENDING;
+
         registration.setStatus(Registration.RegistrationStatus.REJECTED);
         registrationRepository.save(registration);
+
+        // A rejected registration no longer holds a slot; previously the slot leaked until a manual sync
+        if (wasCountedRegistration) {
+            eventRepository.releaseSlot(event.getId());
+        }
+        registrationStatsRecorder.transition(event.getId(), previousStatus, Registration.RegistrationStatus.REJECTED);
+        dashboardCacheInvalidator.registrationChanged(event, registration.getUser().getId());
+        if (wasCountedRegistration) {
+            promoteWaitingRegistration(event.getId());
+        }
         
         // Evict event details cache to refresh participant count
         evictEventDetailsCache(event.getId());
     }
 
     @Transactional
-    @CacheEvict(value = "dashboard", allEntries = true)
     public void cancelRegistration(Long eventId) {
-        log.info("Cancel registration for event: {} (clearing dashboard cache)", eventId);
+        log.info("Cancel registration for event: {}", eventId);
         Event event = eventRepository.getEventById(eventId)
                 .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
         
@@ -194,50 +278,37 @@ public class RegistrationServiceImpl implements RegistrationService {
                 .orElseThrow(() -> new ResourceNotFoundException("Registration not found"));
 
         // Only process if registration was APPROVED or PENDING (counted)
-        boolean wasCountedRegistration = registration.getStatus() == Registration.RegistrationStatus.APPROVED 
-                                      || registration.getStatus() == Registration.RegistrationStatus.PENDING;
+        Registration.RegistrationStatus previousStatus = registration.getStatus();
+        boolean wasCountedRegistration = previousStatus == Registration.RegistrationStatus.APPROVED 
+                                      || previousStatus == Registration.RegistrationStatus.PENDING;
 
         registration.setStatus(Registration.RegistrationStatus.CANCELLED);
         registrationRepository.save(registration);
 
-        if (wasCountedRegistration && event.getCurrentRegistrationCount() > 0) {
-            event.setCurrentRegistrationCount(event.getCurrentRegistrationCount() - 1);
-            eventRepository.save(event);
+        // Event row before stats row, the lock order every registration write follows
+        if (wasCountedRegistration) {
+            eventRepository.releaseSlot(eventId);
         }
+        registrationStatsRecorder.transition(eventId, previousStatus, Registration.RegistrationStatus.CANCELLED);
+        dashboardCacheInvalidator.registrationChanged(event, user.getId());
 
         notificationService.notifyManagerOnUserRegistrationCancelled(registration.getId());
         log.info("User {} cancelled registration for event {}", user.getId(), eventId);
 
         // Try to promote someone from waiting list
-        if (wasCountedRegistration) {
-            boolean promoted = promoteWaitingRegistration(eventId);
-            if (promoted) {
-                // Someone was promoted from WAITING to PENDING, increase count back
-                event.setCurrentRegistrationCount(event.getCurrentRegistrationCount() + 1);
-                eventRepository.save(event);
-                log.info("Promoted a waiting registration to pending for event {}", eventId);
-            }
+        if (wasCountedRegistration && promoteWaitingRegistration(eventId)) {
+            log.info("Promoted a waiting registration to pending for event {}", eventId);
         }
     }
 
     @Override
     public boolean promoteWaitingRegistration(Long eventId) {
-        List<Registration> waitingRegistrations = registrationRepository.findEarliestWaitingRegistration(eventId);
-        
-        if (waitingRegistrations.isEmpty()) {
-            log.info("No waiting registrations found for event {}", eventId);
-            return false;
+        boolean promoted = waitlistPromotionEngine.promoteToCapacity(eventId) > 0;
+        if (promoted) {
+            // Evict event details cache to refresh participant count
+            evictEventDetailsCache(eventId);
         }
-        
-        Registration waitingRegistration = waitingRegistrations.get(0);
-        waitingRegistration.setStatus(Registration.RegistrationStatus.PENDING);
-        registrationRepository.save(waitingRegistration);
-        
-        // Evict event details cache to refresh participant count
-        evictEventDetailsCache(eventId);
-        
-        log.info("Promoted waiting registration {} to PENDING for event {}", waitingRegistration.getId(), eventId);
-        return true;
+        return promoted;
     }
 
     public RegistrationDTO findRegistrationByUserIdAndEventId(Long userId, Long eventId) {
@@ -267,9 +338,8 @@ public class RegistrationServiceImpl implements RegistrationService {
 
     @Override
     @Transactional
-    @CacheEvict(value = "dashboard", allEntries = true)
     public void deleteRegistrationById(Long registrationId) {
-        log.info("Deleting registration with ID: {} (clearing dashboard cache)", registrationId);
+        log.info("Deleting registration with ID: {}", registrationId);
         
         Registration registration = registrationRepository.findRegistrationById(registrationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Registration not found"));
@@ -286,23 +356,24 @@ public class RegistrationServiceImpl implements RegistrationService {
         }
         
         // Check if this registration was counted (APPROVED or PENDING)
-        boolean wasCountedRegistration = registration.getStatus() == Registration.RegistrationStatus.APPROVED 
-                                      || registration.getStatus() == Registration.RegistrationStatus.PENDING;
+        Registration.RegistrationStatus previousStatus = registration.getStatus();
+        boolean wasCountedRegistration = previousStatus == Registration.RegistrationStatus.APPROVED 
+                                      || previousStatus == Registration.RegistrationStatus.PENDING;
         
         registration.setStatus(Registration.RegistrationStatus.CANCELLED);
         registrationRepository.save(registration);
         
-        // Update event participant count and try to promote waiting registration
-        if (wasCountedRegistration && event.getCurrentRegistrationCount() > 0) {
-            event.setCurrentRegistrationCount(event.getCurrentRegistrationCount() - 1);
-            eventRepository.save(event);
-            
+        if (wasCountedRegistration) {
+            eventRepository.releaseSlot(event.getId());
+        }
+        registrationStatsRecorder.transition(event.getId(), previousStatus, Registration.RegistrationStatus.CANCELLED);
+        dashboardCacheInvalidator.registrationChanged(event, registration.getUser().getId());
+
+        // Try to promote waiting registration
+        if (wasCountedRegistration) {
+
             // Try to promote someone from waiting list
-            boolean promoted = promoteWaitingRegistration(event.getId());
-            if (promoted) {
-                // Someone was promoted from WAITING to PENDING, increase count back
-                event.setCurrentRegistrationCount(event.getCurrentRegistrationCount() + 1);
-                eventRepository.save(event);
+            if (promoteWaitingRegistration(event.getId())) {
                 log.info("Promoted a waiting registration after deletion for event {}", event.getId());
             }
         }
@@ -0,0 +1,151 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.model.Registration;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recomputes {@code event_registration_stats} and {@code event.current_registration_count} from the
+ * registration rows. Runs on startup when some events have no stats row yet (backfill) and nightly to
+ * repair drift from writes that bypass the services.
+ * <p>
+ * Each id range is one transaction that locks the event rows, then the stats rows, in the same order as
+ * registration writes, so the counts it reads cannot race an in-flight transition.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RegistrationStatsReconciliationJob {
+
+    // Column order of the stats table follows the enum order
+    private static final int STATUS_COUNT = Registration.RegistrationStatus.values().length;
+
+    private static final String LOCK_EVENTS = "SELECT id FROM event WHERE id BETWEEN ? AND ? FOR UPDATE";
+
+    private static final String LOCK_STATS =
+            "SELECT event_id, pending_count, approved_count, rejected_count, cancelled_count, waiting_count " +
+            "FROM event_registration_stats WHERE event_id BETWEEN ? AND ? FOR UPDATE";
+
+    private static final String COUNT_BY_STATUS =
+            "SELECT event_id, status, COUNT(*) FROM registration WHERE event_id BETWEEN ? AND ? GROUP BY event_id, status";
+
+    private static final String INSERT_STATS =
+            "INSERT INTO event_registration_stats (pending_count, approved_count, rejected_count, cancelled_count, " +
+            "waiting_count, updated_at, event_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_STATS =
+            "UPDATE event_registration_stats SET pending_count = ?, approved_count = ?, rejected_count = ?, " +
+            "cancelled_count = ?, waiting_count = ?, updated_at = ? WHERE event_id = ?";
+
+    private static final String SYNC_EVENT_COUNTS =
+            "UPDATE event e SET current_registration_count = " +
+            "(SELECT s.pending_count + s.approved_count FROM event_registration_stats s WHERE s.event_id = e.id) " +
+            "WHERE e.id BETWEEN ? AND ?";
+
+    private static final String COUNT_MISSING =
+            "SELECT COUNT(*) FROM event e WHERE NOT EXISTS " +
+            "(SELECT 1 FROM event_registration_stats s WHERE s.event_id = e.id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${registration.stats.reconcile-chunk-size:1000}")
+    private int chunkSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        Long missing = jdbcTemplate.queryForObject(COUNT_MISSING, Long.class);
+        if (missing != null && missing > 0) {
+            log.info("Backfilling registration stats for {} events", missing);
+            reconcile();
+        }
+    }
+
+    @Scheduled(cron = "${registration.stats.reconcile-cron:0 45 3 * * *}")
+    public void reconcile() {
+        long start = System.nanoTime();
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM event", Long.class);
+        if (maxId == null) {
+            return;
+        }
+        int corrected = 0;
+        for (long from = 1; from <= maxId; from += chunkSize) {
+            corrected += reconcileRange(from, from + chunkSize - 1);
+        }
+        meterRegistry.counter("registration.stats.reconciled.drift").increment(corrected);
+        log.info("Reconciled registration stats up to event {} ({} corrected) in {} ms",
+                maxId, corrected, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Reconcile a single event, for the manual sync endpoint.
+     */
+    public int reconcileEvent(Long eventId) {
+        return reconcileRange(eventId, eventId);
+    }
+
+    private int reconcileRange(long from, long to) {
+        Integer corrected = transactionTemplate.execute(status -> {
+            List<Long> eventIds = jdbcTemplate.queryForList(LOCK_EVENTS, Long.class, from, to);
+            if (eventIds.isEmpty()) {
+                return 0;
+            }
+
+            Map<Long, int[]> stored = new HashMap<>();
+            jdbcTemplate.query(LOCK_STATS, (RowCallbackHandler) rs -> {
+                int[] counts = new int[STATUS_COUNT];
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] = rs.getInt(i + 2);
+                }
+                stored.put(rs.getLong(1), counts);
+            }, from, to);
+
+            Map<Long, int[]> actual = new HashMap<>();
+            jdbcTemplate.query(COUNT_BY_STATUS, (RowCallbackHandler) rs -> {
+                int index = Registration.RegistrationStatus.valueOf(rs.getString(2)).ordinal();
+                actual.computeIfAbsent(rs.getLong(1), id -> new int[STATUS_COUNT])[index] = rs.getInt(3);
+            }, from, to);
+
+            LocalDateTime now = LocalDateTime.now();
+            List<Object[]> inserts = new ArrayList<>();
+            List<Object[]> updates = new ArrayList<>();
+            for (Long eventId : eventIds) {
+                int[] counts = actual.getOrDefault(eventId, new int[STATUS_COUNT]);
+                int[] current = stored.get(eventId);
+                if (current != null && Arrays.equals(current, counts)) {
+                    continue;
+                }
+                Object[] row = {counts[0], counts[1], counts[2], counts[3], counts[4], now, eventId};
+                (current == null ? inserts : updates).add(row);
+            }
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_STATS, inserts);
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_STATS, updates);
+                log.warn("Corrected registration stats drift for events {}",
+                        updates.stream().map(row -> row[6]).toList());
+            }
+            jdbcTemplate.update(SYNC_EVENT_COUNTS, from, to);
+            return updates.size();
+        });
+        return corrected != null ? corrected : 0;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.model.EventRegistrationStats;
+import com.example.demo.model.Registration;
+import com.example.demo.repository.EventRegistrationStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Applies registration status transitions to {@link EventRegistrationStats}.
+ * Callers invoke it inside the transaction that changes the registration, so the counters commit or
+ * roll back together with the status change.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class RegistrationStatsRecorder {
+
+    private final EventRegistrationStatsRepository statsRepository;
+
+    public void created(Long eventId) {
+        statsRepository.save(new EventRegistrationStats(eventId));
+    }
+
+    public void registered(Long eventId, Registration.RegistrationStatus status, int count) {
+        transition(eventId, null, status, count);
+    }
+
+    public void transition(Long eventId, Registration.RegistrationStatus from, Registration.RegistrationStatus to) {
+        transition(eventId, from, to, 1);
+    }
+
+    public void removed(Long eventId, Registration.RegistrationStatus status) {
+        transition(eventId, status, null, 1);
+    }
+
+    /**
+     * Move {@code count} registrations of the event from one status to another; {@code from} is null for new ones,
+     * {@code to} is null for deleted ones.
+     */
+    public void transition(Long eventId, Registration.RegistrationStatus from, Registration.RegistrationStatus to, int count) {
+        if (count == 0 || from == to) {
+            return;
+        }
+        int[] delta = new int[Registration.RegistrationStatus.values().length];
+        if (from != null) {
+            delta[from.ordinal()] -= count;
+        }
+        if (to != null) {
+            delta[to.ordinal()] += count;
+        }
+
+        int updated = statsRepository.applyDelta(eventId,
+                delta[Registration.RegistrationStatus.PENDING.ordinal()],
+                delta[Registration.RegistrationStatus.APPROVED.ordinal()],
+                delta[Registration.RegistrationStatus.REJECTED.ordinal()],
+                delta[Registration.RegistrationStatus.CANCELLED.ordinal()],
+                delta[Registration.RegistrationStatus.WAITING.ordinal()],
+                LocalDateTime.now());
+        if (updated == 0) {
+            // Event predates the stats table and has not been backfilled yet
+            log.warn("No registration stats row for event {}, left to reconciliation", eventId);
+        }
+    }
+}
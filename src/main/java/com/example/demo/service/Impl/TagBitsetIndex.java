@@ -0,0 +1,112 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.dto.event.EventTagRow;
+import com.example.demo.repository.EventRepository;
+import com.example.demo.repository.TagRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory tag sets of events and users as {@code long[]} bitsets over dense tag ordinals, so tag
+ * matching is an AND plus popcount instead of loading and intersecting JPA collections.
+ * <p>
+ * Ordinals are only ever appended, so a bitset stays valid when new tags appear. The per-event and
+ * per-user sets are loaded on first use. Event tags are only set on creation and no service edits user
+ * tags, so nothing is evicted one by one; all sets are dropped periodically to pick up changes made
+ * outside the services.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TagBitsetIndex {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final TagRepository tagRepository;
+    private final EventRepository eventRepository;
+
+    private final Map<Long, Integer> ordinals = new ConcurrentHashMap<>();
+    private final AtomicInteger nextOrdinal = new AtomicInteger();
+    private final Map<Long, long[]> eventBits = new ConcurrentHashMap<>();
+    private final Map<Long, long[]> userBits = new ConcurrentHashMap<>();
+
+    public long[] eventBits(Long eventId) {
+        return eventBits.computeIfAbsent(eventId, id -> toBits(tagIdsByEvent(List.of(id)).getOrDefault(id, List.of())));
+    }
+
+    /**
+     * Bitsets of many events, loading the missing ones with a single query.
+     */
+    public Map<Long, long[]> eventBits(Collection<Long> eventIds) {
+        List<Long> missing = eventIds.stream().filter(id -> !eventBits.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            Map<Long, List<Long>> tagIds = tagIdsByEvent(missing);
+            missing.forEach(id -> eventBits.put(id, toBits(tagIds.getOrDefault(id, List.of()))));
+        }
+        Map<Long, long[]> result = new HashMap<>(eventIds.size() * 2);
+        eventIds.forEach(id -> result.put(id, eventBits.getOrDefault(id, EMPTY)));
+        return result;
+    }
+
+    public long[] userBits(Long userId) {
+        return userBits.computeIfAbsent(userId, id -> toBits(tagRepository.findTagIdsByUserId(id)));
+    }
+
+    @Scheduled(fixedDelayString = "${tags.index.refresh-interval-ms:600000}")
+    public void clear() {
+        eventBits.clear();
+        userBits.clear();
+        log.debug("Cleared tag bitsets ({} tag ordinals)", ordinals.size());
+    }
+
+    /**
+     * Share of the event's tags that the user follows: |user AND event| / |event|.
+     */
+    public static double overlap(long[] user, long[] event) {
+        int eventCount = 0;
+        int common = 0;
+        for (int i = 0; i < event.length; i++) {
+            eventCount += Long.bitCount(event[i]);
+            if (i < user.length) {
+                common += Long.bitCount(event[i] & user[i]);
+            }
+        }
+        return eventCount == 0 ? 0.0 : (double) common / eventCount;
+    }
+
+    private long[] toBits(Collection<Long> tagIds) {
+        if (tagIds.isEmpty()) {
+            return EMPTY;
+        }
+        int[] tagOrdinals = tagIds.stream()
+                .mapToInt(tagId -> ordinals.computeIfAbsent(tagId, id -> nextOrdinal.getAndIncrement()))
+                .toArray();
+        int max = 0;
+        for (int ordinal : tagOrdinals) {
+            max = Math.max(max, ordinal);
+        }
+        long[] bits = new long[(max >> 6) + 1];
+        for (int ordinal : tagOrdinals) {
+            bits[ordinal >> 6] |= 1L << ordinal;
+        }
+        return bits;
+    }
+
+    private Map<Long, List<Long>> tagIdsByEvent(Collection<Long> eventIds) {
+        Map<Long, List<Long>> tagIds = new HashMap<>(eventIds.size() * 2);
+        for (EventTagRow row : eventRepository.findTagIdsByEventIds(eventIds)) {
+            tagIds.computeIfAbsent(row.getEventId(), id -> new ArrayList<>()).add(row.getTagId());
+        }
+        return tagIds;
+    }
+}
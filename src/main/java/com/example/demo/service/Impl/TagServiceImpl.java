@@ -30,6 +30,7 @@ public class TagServiceImpl implements TagService {
     private final RegistrationRepository registrationRepository;
     private final LikeRepository likeRepository;
     private final CommentRepository commentRepository;
+    private final TagBitsetIndex tagBitsetIndex;
 
     @Override
     @Cacheable(value = "tags", key = "'allTags'")
@@ -39,17 +40,8 @@ public class TagServiceImpl implements TagService {
 
     @Override
     public double calculateTagScore(User user, Event event) {
-        Set<Tag> userTags = user.getTags();
-        Set<Tag> eventTags = event.getTags();
-
-        if (userTags == null || eventTags == null || userTags.isEmpty()) {
-            return 0.0;
-        }
-
-        Set<Tag> intersection = new HashSet<>(eventTags);
-        intersection.retainAll(userTags);
-
-        return (double) intersection.size() / eventTags.size();
+        // Bitset popcount instead of loading both tag collections and intersecting them
+        return TagBitsetIndex.overlap(tagBitsetIndex.userBits(user.getId()), tagBitsetIndex.eventBits(event.getId()));
     }
 
 
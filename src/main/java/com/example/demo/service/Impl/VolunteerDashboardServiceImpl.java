@@ -19,6 +19,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 @Service
@@ -34,10 +35,11 @@ public class VolunteerDashboardServiceImpl implements VolunteerDashboardService
     private final PostRepository postRepository;
     private final RegistrationRepository registrationRepository;
     private final EventService eventService;
+    private final ParticipantCountAggregator participantCountAggregator;
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "dashboard", key = "'volunteer:' + #root.target.getCurrentUser().id")
+    @Cacheable(value = "dashboard", key = "'volunteer:' + #root.target.getCurrentUser().id", sync = true)
     public VolunteerDashBoardDTO getVolunteerDashBoard() {
         log.info("Getting dashboard for volunteer");
 
@@ -85,14 +87,14 @@ public class VolunteerDashboardServiceImpl implements VolunteerDashboardService
     private List<RecommendEventDTO> getRecommendEvent() {
         log.info("RecommendEventDTO");
 
-        return eventService.recommendEvent()
+        List<Event> events = eventService.recommendEvent();
+        Map<Long, Integer> participants = participantCountAggregator.countParticipants(
+                events.stream().map(Event::getId).toList());
+        return events
                 .stream()
                 .map(event -> {
                     RecommendEventDTO dto = eventMapper.toRecommendEventDTO(event);
-                    // Calculate real-time count from registrations
-                    int approvedCount = registrationRepository.countByEventIdAndStatus(event.getId(), Registration.RegistrationStatus.APPROVED);
-                    int pendingCount = registrationRepository.countByEventIdAndStatus(event.getId(), Registration.RegistrationStatus.PENDING);
-                    dto.setCurrentParticipants(approvedCount + pendingCount);
+                    dto.setCurrentParticipants(participants.getOrDefault(event.getId(), 0));
                     return dto;
                 })
                 .toList();
@@ -111,15 +113,14 @@ public class VolunteerDashboardServiceImpl implements VolunteerDashboardService
     private List<RegisteredEventDTO> getRegisteredEvent(User user) {
         log.info("RegisteredEventDTO");
 
-        return eventRepository
-                .findEventsByVolunteerAndStatus(user.getId(), Event.EventStatus.ONGOING)
+        List<Event> events = eventRepository.findEventsByVolunteerAndStatus(user.getId(), Event.EventStatus.ONGOING);
+        Map<Long, Integer> participants = participantCountAggregator.countParticipants(
+                events.stream().map(Event::getId).toList());
+        return events
                 .stream()
                 .map(event -> {
                     RegisteredEventDTO dto = eventMapper.toRegisteredEventDTO(event);
-                    // Calculate real-time count from registrations
-                    int approvedCount = registrationRepository.countByEventIdAndStatus(event.getId(), Registration.RegistrationStatus.APPROVED);
-                    int pendingCount = registrationRepository.countByEventIdAndStatus(event.getId(), Registration.RegistrationStatus.PENDING);
-                    dto.setCurrentParticipants(approvedCount + pendingCount);
+                    dto.setCurrentParticipants(participants.getOrDefault(event.getId(), 0));
                     return dto;
                 })
                 .toList();
@@ -130,14 +131,14 @@ public class VolunteerDashboardServiceImpl implements VolunteerDashboardService
 
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime sevenDaysLater = LocalDateTime.now().plusDays(7);
-        return eventRepository.findUpcomingEvents(now, sevenDaysLater, userId)
+        List<Event> events = eventRepository.findUpcomingEvents(now, sevenDaysLater, userId);
+        Map<Long, Integer> participants = participantCountAggregator.countParticipants(
+                events.stream().map(Event::getId).toList());
+        return events
                 .stream()
                 .map(event -> {
                     UpcomingEventDTO dto = eventMapper.toUpComingEventDTO(event);
-                    // Calculate real-time count from registrations
-                    int approvedCount = registrationRepository.countByEventIdAndStatus(event.getId(), Registration.RegistrationStatus.APPROVED);
-                    int pendingCount = registrationRepository.countByEventIdAndStatus(event.getId(), Registration.RegistrationStatus.PENDING);
-                    dto.setCurrentParticipants(approvedCount + pendingCount);
+                    dto.setCurrentParticipants(participants.getOrDefault(event.getId(), 0));
                     return dto;
                 })
                 .toList();
@@ -0,0 +1,106 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.dto.notification.NotificationRecipient;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.model.Event;
+import com.example.demo.model.Registration;
+import com.example.demo.repository.EventRepository;
+import com.example.demo.repository.RegistrationRepository;
+import com.example.demo.repository.UserFcmTokenRepository;
+import com.example.demo.service.FirebaseService;
+import com.example.demo.service.NotificationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Moves WAITING registrations to PENDING whenever an event has free capacity, in bulk.
+ * <p>
+ * The event row is locked once, the free slots are computed from the stored counter, the head of the
+ * waiting list is read from the (event_id, status, registered_at) index and promoted with one UPDATE.
+ * Promoted volunteers get one batched outbox write and one FCM multicast after commit.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class WaitlistPromotionEngine {
+
+    private final EventRepository eventRepository;
+    private final RegistrationRepository registrationRepository;
+    private final UserFcmTokenRepository userFcmTokenRepository;
+    private final NotificationService notificationService;
+    private final FirebaseService firebaseService;
+    private final RegistrationStatsRecorder registrationStatsRecorder;
+    private final DashboardCacheInvalidator dashboardCacheInvalidator;
+
+    /**
+     * Fill every free slot of the event from its waiting list.
+     *
+     * @return number of promoted registrations
+     */
+    @Transactional
+    public int promoteToCapacity(Long eventId) {
+        Event event = eventRepository.findByIdForUpdate(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
+
+        Integer freeSlots = eventRepository.findFreeSlots(eventId);
+        if (freeSlots == null || freeSlots <= 0) {
+            return 0;
+        }
+
+        List<Long> registrationIds = registrationRepository.findEarliestWaitingIds(eventId, PageRequest.of(0, freeSlots));
+        if (registrationIds.isEmpty()) {
+            log.info("No waiting registrations found for event {}", eventId);
+            return 0;
+        }
+
+        // The event lock serializes promotions, so every selected row is still WAITING
+        int promoted = registrationRepository.promoteWaiting(registrationIds);
+        eventRepository.reserveSlots(eventId, promoted);
+        registrationStatsRecorder.transition(eventId, Registration.RegistrationStatus.WAITING,
+                Registration.RegistrationStatus.PENDING, promoted);
+        log.info("Promoted {} waiting registrations to PENDING for event {}", promoted, eventId);
+
+        notifyPromoted(event, registrationIds);
+        return promoted;
+    }
+
+    private void notifyPromoted(Event event, List<Long> registrationIds) {
+        List<NotificationRecipient> volunteers = registrationRepository.findRecipientsByRegistrationIds(registrationIds);
+        notificationService.notifyVolunteersPromotedFromWaitlist(event, volunteers);
+
+        List<Long> userIds = volunteers.stream().map(NotificationRecipient::getUserId).toList();
+        dashboardCacheInvalidator.volunteers(userIds);
+        List<String> tokens = userFcmTokenRepository.findTokensByUserIds(userIds);
+        if (tokens.isEmpty()) {
+            return;
+        }
+        String title = "Promoted from waiting list";
+        String body = "A spot opened up for event '" + event.getTitle() + "'.";
+        // Push only once the promotion is durable
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sendPush(tokens, title, body);
+                }
+            });
+        } else {
+            sendPush(tokens, title, body);
+        }
+    }
+
+    private void sendPush(List<String> tokens, String title, String body) {
+        try {
+            firebaseService.sendToTokens(tokens, title, body);
+        } catch (Exception e) {
+            log.error("Failed to send waitlist promotion push to {} devices", tokens.size(), e);
+        }
+    }
+}
@@ -3,11 +3,13 @@ package com.example.demo.service;
 import com.example.demo.dto.event.EventDTO;
 import com.example.demo.dto.notification.NotificationCursorPageResponse;
 import com.example.demo.dto.notification.NotificationDTO;
+import com.example.demo.dto.notification.NotificationRecipient;
 import com.example.demo.model.Comment;
 import com.example.demo.model.Event;
 import com.example.demo.model.Notification;
 import com.example.demo.model.User;
 
+import java.util.List;
 import java.util.Map;
 
 public interface NotificationService {
@@ -54,4 +56,6 @@ public interface NotificationService {
     
     void notifyVolunteerOnRegistrationRejected(User volunteer, Event event, Long registrationId);
 
+    void notifyVolunteersPromotedFromWaitlist(Event event, List<NotificationRecipient> volunteers);
+
 }
@@ -1,6 +1,7 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.post.CreatePostDTO;
+import com.example.demo.dto.post_content.PostCursorPageResponse;
 import com.example.demo.dto.post_content.PostDTO;
 import com.example.demo.model.Post;
 import org.springframework.data.domain.Page;
@@ -15,6 +16,8 @@ import java.util.List;
 public interface PostService {
     Page<PostDTO> getAllPosts(Long eventId, Pageable pageable);
 
+    PostCursorPageResponse getPostFeed(Long eventId, String cursor, int limit);
+
     PostDTO createPost(Long eventId, List<MultipartFile> multipartFiles, CreatePostDTO createPostDTO) throws IOException;
 
     void deletePost(Long postId);
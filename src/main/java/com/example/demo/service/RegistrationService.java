@@ -10,10 +10,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Map;
 
 public interface RegistrationService {
     RegistrationDTO registerEvent(Long eventId);
 
+    Map<Long, RegistrationDTO> registerBatch(Long eventId, List<User> users);
+
     Page<RegistrationDTO> getAllRegistration(Pageable pageable);
 
     int countParticipantsOfAnEvent(Long eventId, Registration.RegistrationStatus registrationStatus);
@@ -0,0 +1,219 @@
+package com.example.demo.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a table as column chunks, one row group at a time, so memory is bounded by the row group size.
+ * <p>
+ * Layout (varint = unsigned LEB128, zigzag for signed values; string = varint byte length + UTF-8):
+ * <pre>
+ * file       := "VCOL" version:byte(1) table:string columnCount:varint (name:string type:byte)* rowGroup* end
+ * rowGroup   := rowCount:varint(&gt;0) (chunkLength:varint chunk)*   -- one chunk per column, in header order
+ * end        := varint(0) totalRows:varint
+ * chunk      := hasNulls:byte [presenceBitmap] values           -- bitmap bit set = value present, LSB first
+ * </pre>
+ * Values cover present rows only:
+ * <ul>
+ *     <li>{@code LONG} (1), {@code TIMESTAMP} (4): zigzag varint deltas from the previous value (first from 0);
+ *     timestamps are the local date-time in milliseconds since 1970-01-01T00:00, no zone</li>
+ *     <li>{@code INT} (2): zigzag varints</li>
+ *     <li>{@code BOOLEAN} (3): bitmap, LSB first</li>
+ *     <li>{@code STRING} (5): encoding byte, {@code 0} plain strings or {@code 1} dictionary: entry count, entries
+ *     as strings, then one varint index per value. Dictionary is used when it at least halves the values</li>
+ * </ul>
+ * Chunk lengths let readers skip the columns they do not need.
+ */
+public class ColumnarWriter {
+
+    private static final byte[] MAGIC = {'V', 'C', 'O', 'L'};
+    private static final byte VERSION = 1;
+
+    private static final byte PLAIN = 0;
+    private static final byte DICTIONARY = 1;
+
+    public enum Type {
+        LONG(1), INT(2), BOOLEAN(3), TIMESTAMP(4), STRING(5);
+
+        private final byte code;
+
+        Type(int code) {
+            this.code = (byte) code;
+        }
+    }
+
+    public record Column(String name, Type type) {
+    }
+
+    private final OutputStream out;
+    private final List<Column> columns;
+    private final int rowGroupSize;
+    private final List<List<Object>> values;
+    private long totalRows;
+
+    public ColumnarWriter(OutputStream out, String table, List<Column> columns, int rowGroupSize) throws IOException {
+        this.out = out;
+        this.columns = columns;
+        this.rowGroupSize = rowGroupSize;
+        this.values = new ArrayList<>(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            values.add(new ArrayList<>(rowGroupSize));
+        }
+
+        out.write(MAGIC);
+        out.write(VERSION);
+        writeString(out, table);
+        writeVarint(out, columns.size());
+        for (Column column : columns) {
+            writeString(out, column.name());
+            out.write(column.type().code);
+        }
+    }
+
+    /**
+     * Add one row, values in column order; a full row group is written out right away.
+     */
+    public void addRow(Object... row) throws IOException {
+        if (row.length != columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " values, got " + row.length);
+        }
+        for (int i = 0; i < row.length; i++) {
+            values.get(i).add(row[i]);
+        }
+        if (values.get(0).size() >= rowGroupSize) {
+            flushRowGroup();
+        }
+    }
+
+    /**
+     * Write the last row group and the end marker; the stream is left open.
+     */
+    public void finish() throws IOException {
+        flushRowGroup();
+        writeVarint(out, 0);
+        writeVarint(out, totalRows);
+        out.flush();
+    }
+
+    public long getTotalRows() {
+        return totalRows + values.get(0).size();
+    }
+
+    private void flushRowGroup() throws IOException {
+        int rows = values.get(0).size();
+        if (rows == 0) {
+            return;
+        }
+        writeVarint(out, rows);
+        ByteArrayOutputStream chunk = new ByteArrayOutputStream(rows * 4);
+        for (int i = 0; i < columns.size(); i++) {
+            chunk.reset();
+            writeChunk(chunk, columns.get(i).type(), values.get(i));
+            writeVarint(out, chunk.size());
+            chunk.writeTo(out);
+            values.get(i).clear();
+        }
+        totalRows += rows;
+        out.flush();
+    }
+
+    private static void writeChunk(ByteArrayOutputStream chunk, Type type, List<Object> column) throws IOException {
+        List<Object> present = new ArrayList<>(column.size());
+        byte[] presence = new byte[(column.size() + 7) / 8];
+        for (int row = 0; row < column.size(); row++) {
+            Object value = column.get(row);
+            if (value != null) {
+                presence[row >> 3] |= (byte) (1 << (row & 7));
+                present.add(value);
+            }
+        }
+        boolean hasNulls = present.size() < column.size();
+        chunk.write(hasNulls ? 1 : 0);
+        if (hasNulls) {
+            chunk.write(presence);
+        }
+
+        switch (type) {
+            case LONG, TIMESTAMP -> {
+                long previous = 0;
+                for (Object value : present) {
+                    long current = type == Type.LONG ? ((Number) value).longValue() : epochMillis((LocalDateTime) value);
+                    writeVarint(chunk, zigzag(current - previous));
+                    previous = current;
+                }
+            }
+            case INT -> {
+                for (Object value : present) {
+                    writeVarint(chunk, zigzag(((Number) value).longValue()));
+                }
+            }
+            case BOOLEAN -> {
+                byte[] bits = new byte[(present.size() + 7) / 8];
+                for (int i = 0; i < present.size(); i++) {
+                    if ((Boolean) present.get(i)) {
+                        bits[i >> 3] |= (byte) (1 << (i & 7));
+                    }
+                }
+                chunk.write(bits);
+            }
+            case STRING -> writeStrings(chunk, present);
+        }
+    }
+
+    private static void writeStrings(ByteArrayOutputStream chunk, List<Object> present) throws IOException {
+        Map<String, Integer> dictionary = new HashMap<>();
+        int[] indexes = new int[present.size()];
+        for (int i = 0; i < present.size(); i++) {
+            indexes[i] = dictionary.computeIfAbsent((String) present.get(i), value -> dictionary.size());
+        }
+
+        if (dictionary.size() * 2 > present.size()) {
+            chunk.write(PLAIN);
+            for (Object value : present) {
+                writeString(chunk, (String) value);
+            }
+            return;
+        }
+
+        chunk.write(DICTIONARY);
+        String[] entries = new String[dictionary.size()];
+        dictionary.forEach((value, index) -> entries[index] = value);
+        writeVarint(chunk, entries.length);
+        for (String entry : entries) {
+            writeString(chunk, entry);
+        }
+        for (int index : indexes) {
+            writeVarint(chunk, index);
+        }
+    }
+
+    private static long epochMillis(LocalDateTime value) {
+        return value.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static void writeString(OutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeVarint(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.demo.config.cache;
+
+import com.example.demo.dto.event.EventDTO;
+import com.example.demo.model.Event;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Round trips of the cache value codecs, set up the way RedisConfig wires them, and a size and speed comparison
+ * of the typed codec against the default-typing JSON one.
+ */
+@Slf4j
+class CacheSerializerTest {
+
+    private RedisSerializer<Object> json;
+    private TypedJsonRedisSerializer typed;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper defaultTyping = new ObjectMapper();
+        defaultTyping.registerModule(new JavaTimeModule());
+        defaultTyping.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        defaultTyping.activateDefaultTyping(
+                BasicPolymorphicTypeValidator.builder().allowIfBaseType(Object.class).build(),
+                ObjectMapper.DefaultTyping.NON_FINAL,
+                JsonTypeInfo.As.PROPERTY);
+        json = new GenericJackson2JsonRedisSerializer(defaultTyping);
+
+        ObjectMapper plain = new ObjectMapper();
+        plain.registerModule(new JavaTimeModule());
+        plain.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        plain.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        typed = new TypedJsonRedisSerializer(plain, json);
+    }
+
+    @Test
+    void typedRoundTripsSingleObject() {
+        EventDTO event = event(1);
+
+        byte[] bytes = typed.serialize(event);
+
+        assertThat(new String(bytes, StandardCharsets.UTF_8)).startsWith("C" + EventDTO.class.getName() + "\n");
+        assertThat(typed.deserialize(bytes)).isEqualTo(event);
+    }
+
+    @Test
+    void typedRoundTripsListsAndEmptyList() {
+        List<EventDTO> events = events(3);
+
+        assertThat(typed.deserialize(typed.serialize(events))).isEqualTo(events);
+        assertThat(typed.deserialize(typed.serialize(List.of()))).isEqualTo(List.of());
+    }
+
+    @Test
+    void typedRoundTripsEnvelope() {
+        CacheEnvelope envelope = new CacheEnvelope(events(2), 1_700_000_000_000L, 42);
+
+        Object read = typed.deserialize(typed.serialize(envelope));
+
+        assertThat(read).isEqualTo(envelope);
+    }
+
+    @Test
+    void typedFallsBackToDefaultTypingForOtherValues() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("total", 12L);
+        stats.put("latest", event(5));
+        List<Object> mixed = new ArrayList<>(List.of(event(1), "text"));
+
+        assertThat(new String(typed.serialize(stats), StandardCharsets.UTF_8)).startsWith("D\n");
+        assertThat(typed.deserialize(typed.serialize(stats))).isEqualTo(stats);
+        assertThat(typed.deserialize(typed.serialize(mixed))).isEqualTo(mixed);
+    }
+
+    @Test
+    void typedReadsEntriesWrittenByDefaultTyping() {
+        EventDTO event = event(7);
+
+        assertThat(typed.deserialize(json.serialize(event))).isEqualTo(event);
+    }
+
+    @Test
+    void typedRejectsTypesOutsideTheApplication() {
+        byte[] bytes = "Cjava.util.ArrayList\n[]".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> typed.deserialize(bytes)).isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void compressingStoresSmallValuesAndCompressesLargeOnes() {
+        CompressingRedisSerializer compressing = new CompressingRedisSerializer(typed, 1024);
+        EventDTO small = event(1);
+        List<EventDTO> large = events(200);
+
+        byte[] stored = compressing.serialize(small);
+        byte[] compressed = compressing.serialize(large);
+
+        assertThat(stored[0]).isZero();
+        assertThat(compressed[0]).isEqualTo((byte) 1);
+        assertThat(compressed.length).isLessThan(typed.serialize(large).length);
+        assertThat(compressing.deserialize(stored)).isEqualTo(small);
+        assertThat(compressing.deserialize(compressed)).isEqualTo(large);
+    }
+
+    @Test
+    void compressingReadsValuesWrittenWithoutIt() {
+        CompressingRedisSerializer compressing = new CompressingRedisSerializer(typed, 1024);
+        List<EventDTO> events = events(3);
+
+        assertThat(compressing.deserialize(typed.serialize(events))).isEqualTo(events);
+        assertThat(compressing.deserialize(json.serialize(event(3)))).isEqualTo(event(3));
+    }
+
+    @Test
+    void typedCodecIsSmallerThanDefaultTyping() {
+        List<EventDTO> events = events(500);
+        CompressingRedisSerializer compressing = new CompressingRedisSerializer(typed, 1024);
+
+        int jsonBytes = json.serialize(events).length;
+        int typedBytes = typed.serialize(events).length;
+        int compressedBytes = compressing.serialize(events).length;
+
+        long jsonNanos = roundTripNanos(json, events);
+        long typedNanos = roundTripNanos(typed, events);
+        long compressedNanos = roundTripNanos(compressing, events);
+        log.info("500 events: json {} B / {} us, typed {} B / {} us, typed+gzip {} B / {} us",
+                jsonBytes, jsonNanos / 1000, typedBytes, typedNanos / 1000, compressedBytes, compressedNanos / 1000);
+
+        assertThat(typedBytes).isLessThan(jsonBytes);
+        assertThat(compressedBytes).isLessThan(typedBytes / 2);
+    }
+
+    // Best of several warmed-up serialize + deserialize passes
+    private static long roundTripNanos(RedisSerializer<Object> serializer, Object value) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 30; i++) {
+            long start = System.nanoTime();
+            serializer.deserialize(serializer.serialize(value));
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static List<EventDTO> events(int count) {
+        return new ArrayList<>(IntStream.rangeClosed(1, count).mapToObj(CacheSerializerTest::event).toList());
+    }
+
+    private static EventDTO event(int id) {
+        LocalDateTime date = LocalDateTime.of(2025, 6, 1, 9, 0).plusDays(id);
+        return new EventDTO((long) id, "Beach cleanup " + id, "Bring gloves and water", date, "District " + (id % 12),
+                Event.EventStatus.values()[id % Event.EventStatus.values().length], 50, id % 50,
+                date.minusDays(30), "manager" + (id % 5));
+    }
+}
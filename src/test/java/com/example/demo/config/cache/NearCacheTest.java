@@ -0,0 +1,76 @@
+package com.example.demo.config.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A fill racing with an invalidation of its key, with the invalidation placed on either side of the fill's put.
+ */
+class NearCacheTest {
+
+    @Test
+    void fillKeepsValueWhenNothingWasInvalidated() {
+        NearCache cache = new NearCache(100, Duration.ofHours(2));
+        long generation = cache.generation();
+
+        cache.fill("users::1", "alice", generation);
+
+        assertThat(cache.get("users::1")).isEqualTo("alice");
+    }
+
+    @Test
+    void fillAfterInvalidationIsDropped() {
+        NearCache cache = new NearCache(100, Duration.ofHours(2));
+        long generation = cache.generation();
+        cache.invalidate("users::1");
+
+        cache.fill("users::1", "stale", generation);
+
+        assertThat(cache.get("users::1")).isNull();
+    }
+
+    @Test
+    void invalidationBetweenCheckAndPutDropsTheFill() {
+        InterleavedNearCache cache = new InterleavedNearCache();
+        long generation = cache.generation();
+        cache.beforePut = () -> cache.invalidate("users::1");
+
+        cache.fill("users::1", "stale", generation);
+
+        assertThat(cache.get("users::1")).isNull();
+    }
+
+    @Test
+    void invalidationOfAnotherKeyDuringPutDropsTheFill() {
+        InterleavedNearCache cache = new InterleavedNearCache();
+        long generation = cache.generation();
+        // The generation is cache wide, so the fill cannot tell whether its own key was affected
+        cache.afterPut = () -> cache.invalidate("users::2");
+
+        cache.fill("users::1", "maybe stale", generation);
+
+        assertThat(cache.get("users::1")).isNull();
+    }
+
+    /**
+     * Runs a hook on either side of the put that {@link NearCache#fill} makes.
+     */
+    private static final class InterleavedNearCache extends NearCache {
+        private Runnable beforePut = () -> { };
+        private Runnable afterPut = () -> { };
+
+        InterleavedNearCache() {
+            super(100, Duration.ofHours(2));
+        }
+
+        @Override
+        public void put(String key, Object value) {
+            beforePut.run();
+            super.put(key, value);
+            afterPut.run();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.demo.config.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Miss loads against an in-memory delegate, with the Redis lock always granted.
+ */
+class StaleWhileRevalidateCacheTest {
+
+    private ConcurrentMapCache delegate;
+    private StaleWhileRevalidateCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(values.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+
+        delegate = new ConcurrentMapCache("events");
+        cache = new StaleWhileRevalidateCache(delegate, redisTemplate, mock(Executor.class),
+                Duration.ofMinutes(5), Duration.ofSeconds(10), 1.0);
+    }
+
+    @Test
+    void missLoadIsCached() {
+        assertThat(cache.get("1", () -> "loaded")).isEqualTo("loaded");
+
+        assertThat(cache.get("1").get()).isEqualTo("loaded");
+    }
+
+    @Test
+    void evictionDuringMissLoadKeepsTheValueOutOfTheCache() {
+        Object value = cache.get("1", () -> {
+            // A write commits and evicts the key after the loader has read the old row
+            cache.evict("1");
+            return "stale";
+        });
+
+        assertThat(value).isEqualTo("stale");
+        assertThat(delegate.get("1")).isNull();
+        assertThat(cache.get("1", () -> "fresh")).isEqualTo("fresh");
+    }
+
+    @Test
+    void clearDuringMissLoadKeepsTheValueOutOfTheCache() {
+        cache.get("1", () -> {
+            cache.clear();
+            return "stale";
+        });
+
+        assertThat(delegate.get("1")).isNull();
+    }
+
+    @Test
+    void evictionOfAnotherKeyDoesNotAffectTheLoad() {
+        cache.get("1", () -> {
+            cache.evict("2");
+            return "loaded";
+        });
+
+        assertThat(cache.get("1").get()).isEqualTo("loaded");
+    }
+}
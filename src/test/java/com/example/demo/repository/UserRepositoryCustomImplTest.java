@@ -0,0 +1,137 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.export.UserExportRow;
+import com.example.demo.model.Role;
+import com.example.demo.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserRepositoryCustomImplTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+
+    @Test
+    void buildsChunkWithRolesAndCountsInThreeStatements() {
+        FakeJdbcTemplate jdbcTemplate = new FakeJdbcTemplate(Map.of(
+                "SELECT u.id, u.username", List.of(
+                        user(11L, "anna", "VOLUNTEER"),
+                        user(12L, "binh", "VOLUNTEER"),
+                        user(15L, "chi", null)),
+                "SELECT ur.user_id", List.of(
+                        new Object[]{11L, "VOLUNTEER"},
+                        new Object[]{11L, "EVENT_MANAGER"},
+                        new Object[]{12L, "EVENT_MANAGER"},
+                        new Object[]{15L, "VOLUNTEER"},
+                        new Object[]{15L, "ADMIN"}),
+                "SELECT u.id, COALESCE", List.of(
+                        new Object[]{11L, 2L, 7L},
+                        new Object[]{12L, 0L, 0L},
+                        // Users of the id range outside the (filtered) chunk are ignored
+                        new Object[]{13L, 9L, 9L},
+                        new Object[]{15L, 1L, 3L})));
+
+        List<UserExportRow> rows = new UserRepositoryCustomImpl(jdbcTemplate).findExportRows(10L, 20L, null, null, 500);
+
+        assertThat(jdbcTemplate.statements).hasSize(3);
+        assertThat(rows).extracting(UserExportRow::getId).containsExactly(11L, 12L, 15L);
+        // Active role kept while held, otherwise the highest role held
+        assertThat(rows).extracting(UserExportRow::getRole).containsExactly(
+                Role.RoleName.VOLUNTEER, Role.RoleName.EVENT_MANAGER, Role.RoleName.ADMIN);
+        assertThat(rows).extracting(UserExportRow::getEventsCreated).containsExactly(2L, 0L, 1L);
+        assertThat(rows).extracting(UserExportRow::getRegistrations).containsExactly(7L, 0L, 3L);
+
+        UserExportRow first = rows.get(0);
+        assertThat(first.getUsername()).isEqualTo("anna");
+        assertThat(first.getEmail()).isEqualTo("anna@example.com");
+        assertThat(first.isEnabled()).isTrue();
+        assertThat(first.getAuthProvider()).isEqualTo(User.AuthProvider.LOCAL);
+        assertThat(first.getCreatedAt()).isEqualTo(CREATED);
+        assertThat(first.getUpdatedAt()).isNull();
+    }
+
+    @Test
+    void emptyChunkIssuesOneStatement() {
+        FakeJdbcTemplate jdbcTemplate = new FakeJdbcTemplate(Map.of());
+
+        assertThat(new UserRepositoryCustomImpl(jdbcTemplate).findExportRows(0L, 100L, null, null, 500)).isEmpty();
+        assertThat(jdbcTemplate.statements).hasSize(1);
+    }
+
+    @Test
+    void filtersAreAppendedAsParameters() {
+        FakeJdbcTemplate jdbcTemplate = new FakeJdbcTemplate(Map.of());
+
+        new UserRepositoryCustomImpl(jdbcTemplate).findExportRows(0L, 100L, Role.RoleName.EVENT_MANAGER, false, 50);
+
+        assertThat(jdbcTemplate.statements.get(0)).contains("r.name = ?").contains("u.enabled = ?");
+        assertThat(jdbcTemplate.arguments.get(0)).containsExactly(0L, 100L, "EVENT_MANAGER", false, 50);
+    }
+
+    @Test
+    void resolveRoleFallsBackToHighestRoleHeld() {
+        assertThat(User.resolveRole(Role.RoleName.VOLUNTEER, Set.of(Role.RoleName.VOLUNTEER, Role.RoleName.ADMIN)))
+                .isEqualTo(Role.RoleName.VOLUNTEER);
+        assertThat(User.resolveRole(Role.RoleName.ADMIN, Set.of(Role.RoleName.VOLUNTEER, Role.RoleName.EVENT_MANAGER)))
+                .isEqualTo(Role.RoleName.EVENT_MANAGER);
+        assertThat(User.resolveRole(null, Set.of(Role.RoleName.VOLUNTEER))).isEqualTo(Role.RoleName.VOLUNTEER);
+        assertThat(User.resolveRole(null, Set.of())).isNull();
+    }
+
+    private static Object[] user(Long id, String username, String activeRole) {
+        return new Object[]{id, username, username + "@example.com", "First", "Last", "0900000000", "Hanoi",
+                activeRole, true, "LOCAL", Timestamp.valueOf(CREATED), null};
+    }
+
+    /**
+     * Answers each statement with the rows registered for its prefix and records what was executed.
+     */
+    private static class FakeJdbcTemplate extends JdbcTemplate {
+        private final Map<String, List<Object[]>> results;
+        private final List<String> statements = new ArrayList<>();
+        private final List<Object[]> arguments = new ArrayList<>();
+
+        FakeJdbcTemplate(Map<String, List<Object[]>> results) {
+            this.results = results;
+        }
+
+        @Override
+        public void query(String sql, RowCallbackHandler rch, Object... args) {
+            statements.add(sql);
+            arguments.add(args);
+            results.entrySet().stream()
+                    .filter(entry -> sql.startsWith(entry.getKey()))
+                    .flatMap(entry -> entry.getValue().stream())
+                    .forEach(row -> {
+                        try {
+                            rch.processRow(resultSet(row));
+                        } catch (SQLException ex) {
+                            throw new IllegalStateException(ex);
+                        }
+                    });
+        }
+
+        private static ResultSet resultSet(Object[] row) throws SQLException {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong(anyInt())).thenAnswer(call -> ((Number) row[(int) call.getArgument(0) - 1]).longValue());
+            when(rs.getString(anyInt())).thenAnswer(call -> (String) row[(int) call.getArgument(0) - 1]);
+            when(rs.getBoolean(anyInt())).thenAnswer(call -> (Boolean) row[(int) call.getArgument(0) - 1]);
+            when(rs.getTimestamp(anyInt())).thenAnswer(call -> (Timestamp) row[(int) call.getArgument(0) - 1]);
+            return rs;
+        }
+    }
+}
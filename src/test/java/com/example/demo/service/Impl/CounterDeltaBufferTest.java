@@ -0,0 +1,95 @@
+package com.example.demo.service.Impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CounterDeltaBufferTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private CounterDeltaBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        buffer = new CounterDeltaBuffer(jdbcTemplate, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void mergesDeltasPerRowIntoOneBatchRow() {
+        buffer.increment(CounterDeltaBuffer.Counter.POST_LIKES, 1L);
+        buffer.increment(CounterDeltaBuffer.Counter.POST_LIKES, 1L);
+        buffer.increment(CounterDeltaBuffer.Counter.POST_LIKES, 1L);
+        buffer.add(CounterDeltaBuffer.Counter.POST_LIKES, 2L, -2);
+
+        assertThat(buffer.pending(CounterDeltaBuffer.Counter.POST_LIKES, 1L)).isEqualTo(3);
+        assertThat(buffer.pending(CounterDeltaBuffer.Counter.POST_LIKES, 2L)).isEqualTo(-2);
+
+        buffer.flush();
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(CounterDeltaBuffer.Counter.POST_LIKES.getFlushSql()), rows.capture());
+        assertThat(rows.getValue()).containsExactlyInAnyOrder(new Object[]{3L, 1L}, new Object[]{-2L, 2L});
+        assertThat(buffer.pending(CounterDeltaBuffer.Counter.POST_LIKES, 1L)).isZero();
+    }
+
+    @Test
+    void deltasThatCancelOutAreNotFlushed() {
+        buffer.increment(CounterDeltaBuffer.Counter.COMMENT_LIKES, 7L);
+        buffer.decrement(CounterDeltaBuffer.Counter.COMMENT_LIKES, 7L);
+        buffer.add(CounterDeltaBuffer.Counter.COMMENT_LIKES, null, 5);
+        buffer.add(CounterDeltaBuffer.Counter.COMMENT_LIKES, 8L, 0);
+
+        buffer.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void failedFlushKeepsDeltasForTheNextOne() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+        buffer.add(CounterDeltaBuffer.Counter.POST_COMMENTS, 4L, 2);
+
+        buffer.flush();
+        buffer.increment(CounterDeltaBuffer.Counter.POST_COMMENTS, 4L);
+
+        assertThat(buffer.pending(CounterDeltaBuffer.Counter.POST_COMMENTS, 4L)).isEqualTo(3);
+    }
+
+    @Test
+    void deltaInsideTransactionIsBufferedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        buffer.increment(CounterDeltaBuffer.Counter.COMMENT_REPLIES, 9L);
+        assertThat(buffer.pending(CounterDeltaBuffer.Counter.COMMENT_REPLIES, 9L)).isZero();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(buffer.pending(CounterDeltaBuffer.Counter.COMMENT_REPLIES, 9L)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.demo.service.Impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the job against a fake JdbcTemplate holding a single post, its likes and the comment threads under it.
+ */
+class CounterReconciliationJobTest {
+
+    private static final long POST_ID = 1L;
+
+    private Tables table;
+    private CounterDeltaBuffer buffer;
+    private CounterReconciliationJob job;
+
+    @BeforeEach
+    void setUp() {
+        table = new Tables();
+        buffer = new CounterDeltaBuffer(table, new SimpleMeterRegistry());
+        job = new CounterReconciliationJob(table, buffer, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(job, "chunkSize", 100);
+    }
+
+    @Test
+    void deltaBufferedDuringChunkIsNotCountedTwice() {
+        // Stored count drifted to 3, then one like committed whose delta is still buffered
+        table.likes = 5;
+        table.likeCount = 3;
+        like();
+        // Another like commits while the chunk is being recounted
+        table.duringRecount = this::like;
+
+        job.reconcile();
+        buffer.flush();
+
+        assertThat(table.likes).isEqualTo(7);
+        assertThat(table.likeCount).isEqualTo(7);
+    }
+
+    @Test
+    void deltaBufferedAfterChunkIsStillFlushed() {
+        table.likes = 2;
+        table.likeCount = 0;
+
+        job.reconcile();
+        like();
+        buffer.flush();
+
+        assertThat(table.likeCount).isEqualTo(3);
+    }
+
+    @Test
+    void replyCountsAreRecountedFromParentIds() {
+        // 1 <- 2 <- 3 and 1 <- 4, plus 5 alone; 2 and 4 stored wrong
+        table.comments.add(new Object[]{1L, null, 3L});
+        table.comments.add(new Object[]{2L, 1L, 0L});
+        table.comments.add(new Object[]{3L, 2L, 0L});
+        table.comments.add(new Object[]{4L, 1L, 2L});
+        table.comments.add(new Object[]{5L, null, 0L});
+
+        job.reconcile();
+
+        assertThat(table.replyCountUpdates).containsExactlyInAnyOrder(new Object[]{1L, 2L}, new Object[]{0L, 4L});
+    }
+
+    @Test
+    void replyCountsOfAChunkIncludeDescendantsInLaterChunks() {
+        ReflectionTestUtils.setField(job, "chunkSize", 2);
+        table.comments.add(new Object[]{1L, null, 0L});
+        table.comments.add(new Object[]{2L, 1L, 0L});
+        table.comments.add(new Object[]{3L, 2L, 0L});
+
+        job.reconcile();
+
+        assertThat(table.replyCountUpdates).containsExactlyInAnyOrder(new Object[]{2L, 1L}, new Object[]{1L, 2L});
+    }
+
+    private void like() {
+        table.likes++;
+        buffer.increment(CounterDeltaBuffer.Counter.POST_LIKES, POST_ID);
+    }
+
+    /**
+     * One post row with its like rows and comments; understands the statements the job and the buffer send.
+     */
+    private static final class Tables extends JdbcTemplate {
+        private long likes;
+        private long likeCount;
+        private Runnable duringRecount = () -> { };
+        // {id, parent_comment_id, reply_count}, all on the one post
+        private final List<Object[]> comments = new ArrayList<>();
+        private final List<Object[]> replyCountUpdates = new ArrayList<>();
+
+        @Override
+        public <T> T queryForObject(String sql, Class<T> requiredType) {
+            if (sql.endsWith("FROM post")) {
+                return requiredType.cast(POST_ID);
+            }
+            return requiredType.cast(comments.isEmpty() ? null : (Long) comments.get(comments.size() - 1)[0]);
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            if (sql.startsWith("UPDATE comment c SET like_count")) {
+                return 0;
+            }
+            assertThat(sql).startsWith("UPDATE post p SET like_count = (SELECT COUNT(*)");
+            duringRecount.run();
+            likeCount = likes;
+            return 1;
+        }
+
+        @Override
+        public void query(String sql, RowCallbackHandler rch, Object... args) {
+            assertThat(sql).startsWith("SELECT c.id, c.parent_comment_id, c.reply_count FROM comment c");
+            for (Object[] row : comments) {
+                try {
+                    rch.processRow(resultSet(row));
+                } catch (SQLException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+        }
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            if (sql.startsWith("UPDATE comment SET reply_count = ?")) {
+                replyCountUpdates.addAll(batchArgs);
+                return new int[batchArgs.size()];
+            }
+            assertThat(sql).isEqualTo(CounterDeltaBuffer.Counter.POST_LIKES.getFlushSql());
+            for (Object[] row : batchArgs) {
+                likeCount += (Long) row[0];
+            }
+            return new int[batchArgs.size()];
+        }
+
+        private static ResultSet resultSet(Object[] row) throws SQLException {
+            ResultSet rs = mock(ResultSet.class);
+            AtomicBoolean lastNull = new AtomicBoolean();
+            when(rs.getLong(anyInt())).thenAnswer(call -> {
+                Object value = row[(int) call.getArgument(0) - 1];
+                lastNull.set(value == null);
+                return value == null ? 0L : (Long) value;
+            });
+            when(rs.wasNull()).thenAnswer(call -> lastNull.get());
+            return rs;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.dto.dashboard_manager.EventDashboardDTO;
+import com.example.demo.dto.registration.RegistrationStatusTotals;
+import com.example.demo.exception.ServiceUnavailableException;
+import com.example.demo.model.User;
+import com.example.demo.repository.CommentRepository;
+import com.example.demo.repository.EventRegistrationStatsRepository;
+import com.example.demo.repository.EventRepository;
+import com.example.demo.repository.PostRepository;
+import com.example.demo.repository.RegistrationRepository;
+import com.example.demo.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventDashboardServiceImplTest {
+
+    private static final long MANAGER_ID = 3L;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ExecutorService executor;
+    private EventRepository eventRepository;
+    private EventDashboardServiceImpl dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(5);
+        eventRepository = mock(EventRepository.class);
+        UserService userService = mock(UserService.class);
+        EventRegistrationStatsRepository statsRepository = mock(EventRegistrationStatsRepository.class);
+        RegistrationStatusTotals totals = mock(RegistrationStatusTotals.class);
+        when(totals.getPending()).thenReturn(1L);
+        when(totals.getApproved()).thenReturn(2L);
+        when(totals.getRejected()).thenReturn(0L);
+        when(totals.getCancelled()).thenReturn(0L);
+        when(totals.getWaiting()).thenReturn(0L);
+        when(statsRepository.sumByManager(MANAGER_ID)).thenReturn(totals);
+        when(userService.getCurrentUser()).thenReturn(new User().setId(MANAGER_ID));
+
+        dashboardService = new EventDashboardServiceImpl(eventRepository, mock(RegistrationRepository.class),
+                mock(PostRepository.class), mock(CommentRepository.class), userService, statsRepository,
+                mock(ParticipantCountAggregator.class), new SimpleMeterRegistry(), executor);
+        ReflectionTestUtils.setField(dashboardService, "sectionTimeoutMs", 200L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void buildsAllSections() {
+        EventDashboardDTO dashboard = dashboardService.getManagerDashboard();
+
+        assertThat(dashboard.getRegistrationStatistics().getTotalRegistrations()).isEqualTo(3);
+        assertThat(dashboard.getEventsNeedingApproval()).isEmpty();
+    }
+
+    @Test
+    void slowSectionFailsTheRequestAfterTheTimeout() {
+        when(eventRepository.countEventsByManagerGroupByStatus(MANAGER_ID)).thenAnswer(invocation -> {
+            release.await();
+            return List.of();
+        });
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> dashboardService.getManagerDashboard())
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void failingSectionSurfacesItsOwnException() {
+        when(eventRepository.countEventsByManagerGroupByStatus(MANAGER_ID))
+                .thenThrow(new IllegalStateException("overview failed"));
+
+        assertThatThrownBy(() -> dashboardService.getManagerDashboard())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("overview failed");
+    }
+}
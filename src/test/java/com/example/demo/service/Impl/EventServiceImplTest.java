@@ -0,0 +1,135 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.dto.event.EventDTO;
+import com.example.demo.mapper.EventMapper;
+import com.example.demo.model.Event;
+import com.example.demo.model.EventRegistrationStats;
+import com.example.demo.model.Registration;
+import com.example.demo.repository.EventRegistrationStatsRepository;
+import com.example.demo.repository.EventRepository;
+import com.example.demo.repository.RegistrationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+/**
+ * Listing pages against mocked repositories in which every call costs a simulated database round trip.
+ * Compares the statements and latency per page with the previous per-event count path.
+ */
+@Slf4j
+class EventServiceImplTest {
+
+    private static final long ROUND_TRIP_NANOS = TimeUnit.MICROSECONDS.toNanos(300);
+
+    private EventRepository eventRepository;
+    private RegistrationRepository registrationRepository;
+    private EventRegistrationStatsRepository statsRepository;
+    private EventMapper eventMapper;
+    private EventServiceImpl eventService;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(EventRepository.class);
+        registrationRepository = mock(RegistrationRepository.class);
+        statsRepository = mock(EventRegistrationStatsRepository.class);
+        eventMapper = mock(EventMapper.class);
+        eventService = new EventServiceImpl(eventMapper, eventRepository, null, null, null, null,
+                new ParticipantCountAggregator(statsRepository), null, null, null, null, null, null);
+
+        when(eventMapper.toEventDTO(any(Event.class))).thenAnswer(invocation -> {
+            EventDTO dto = new EventDTO();
+            dto.setEventId(invocation.<Event>getArgument(0).getId());
+            return dto;
+        });
+        when(statsRepository.findAllById(anyCollection())).thenAnswer(roundTrip(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream()
+                        .map(id -> new EventRegistrationStats(id).setApprovedCount(3).setPendingCount(1))
+                        .toList()));
+        when(registrationRepository.countByEventIdAndStatus(anyLong(), any())).thenAnswer(roundTrip(invocation ->
+                invocation.getArgument(1) == Registration.RegistrationStatus.APPROVED ? 3 : 1));
+    }
+
+    @Test
+    void listingPageReadsAllParticipantCountsInOneStatement() {
+        Pageable pageable = PageRequest.of(0, 50);
+        when(eventRepository.findAllEvent(pageable)).thenReturn(page(50, pageable));
+
+        Page<EventDTO> events = eventService.getAllEvents(pageable);
+
+        assertThat(events.getContent()).extracting(EventDTO::getCurrentParticipants).containsOnly(4);
+        assertThat(mockingDetails(statsRepository).getInvocations()).hasSize(1);
+        assertThat(mockingDetails(registrationRepository).getInvocations()).isEmpty();
+    }
+
+    @Test
+    void statementsAndLatencyPerPageSizeAgainstPerEventCounts() {
+        for (int size : new int[]{10, 50, 200}) {
+            Pageable pageable = PageRequest.of(0, size);
+            when(eventRepository.findAllEvent(pageable)).thenReturn(page(size, pageable));
+
+            long[] current = measure(() -> eventService.getAllEvents(pageable), statsRepository);
+            long[] previous = measure(() -> previousGetAllEvents(pageable), registrationRepository);
+            log.info("page of {}: {} count statement(s) / {} us, previously {} / {} us",
+                    size, current[0], current[1] / 1000, previous[0], previous[1] / 1000);
+
+            assertThat(current[0]).isEqualTo(1);
+            assertThat(previous[0]).isEqualTo(2L * size);
+            assertThat(current[1]).isLessThan(previous[1]);
+        }
+    }
+
+    // What the listing did before: calculateParticipantCount per event, one COUNT per counted status
+    private Page<EventDTO> previousGetAllEvents(Pageable pageable) {
+        Page<EventDTO> events = eventRepository.findAllEvent(pageable).map(eventMapper::toEventDTO);
+        events.forEach(dto -> dto.setCurrentParticipants(
+                registrationRepository.countByEventIdAndStatus(dto.getEventId(), Registration.RegistrationStatus.APPROVED)
+                + registrationRepository.countByEventIdAndStatus(dto.getEventId(), Registration.RegistrationStatus.PENDING)));
+        return events;
+    }
+
+    // {statements, nanos} of the best of a few passes
+    private static long[] measure(Runnable listing, Object repository) {
+        long best = Long.MAX_VALUE;
+        long statements = 0;
+        for (int i = 0; i < 5; i++) {
+            clearInvocations(repository);
+            long start = System.nanoTime();
+            listing.run();
+            best = Math.min(best, System.nanoTime() - start);
+            statements = mockingDetails(repository).getInvocations().size();
+        }
+        return new long[]{statements, best};
+    }
+
+    private static <T> Answer<T> roundTrip(Answer<T> answer) {
+        return invocation -> {
+            LockSupport.parkNanos(ROUND_TRIP_NANOS);
+            return answer.answer(invocation);
+        };
+    }
+
+    private static Page<Event> page(int size, Pageable pageable) {
+        List<Event> events = LongStream.rangeClosed(1, size).mapToObj(id -> new Event().setId(id)).toList();
+        return new PageImpl<>(events, pageable, size);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.demo.service.Impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportJobManagerTest {
+
+    private static final long SIZE = 1000;
+
+    @Test
+    void parsesClosedRange() {
+        assertThat(ExportJobManager.parseRange("0-499", SIZE)).containsExactly(0, 499);
+        assertThat(ExportJobManager.parseRange("500-500", SIZE)).containsExactly(500, 500);
+    }
+
+    @Test
+    void clampsEndToLastByte() {
+        assertThat(ExportJobManager.parseRange("900-5000", SIZE)).containsExactly(900, 999);
+    }
+
+    @Test
+    void parsesOpenEndedRange() {
+        assertThat(ExportJobManager.parseRange("250-", SIZE)).containsExactly(250, 999);
+    }
+
+    @Test
+    void parsesSuffixRange() {
+        assertThat(ExportJobManager.parseRange("-100", SIZE)).containsExactly(900, 999);
+        assertThat(ExportJobManager.parseRange("-5000", SIZE)).containsExactly(0, 999);
+    }
+
+    @Test
+    void toleratesWhitespaceAroundBounds() {
+        assertThat(ExportJobManager.parseRange(" 10 - 20 ", SIZE)).containsExactly(10, 20);
+    }
+
+    @Test
+    void rejectsUnsatisfiableRanges() {
+        assertThat(ExportJobManager.parseRange("1000-", SIZE)).isNull();
+        assertThat(ExportJobManager.parseRange("500-100", SIZE)).isNull();
+        assertThat(ExportJobManager.parseRange("-0", SIZE)).isNull();
+        assertThat(ExportJobManager.parseRange("0-", 0)).isNull();
+    }
+
+    @Test
+    void rejectsMalformedRanges() {
+        assertThat(ExportJobManager.parseRange("100", SIZE)).isNull();
+        assertThat(ExportJobManager.parseRange("a-b", SIZE)).isNull();
+        assertThat(ExportJobManager.parseRange("-", SIZE)).isNull();
+        assertThat(ExportJobManager.parseRange("", SIZE)).isNull();
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.model.Comment;
+import com.example.demo.model.Post;
+import com.example.demo.model.User;
+import com.example.demo.repository.CommentRepository;
+import com.example.demo.repository.LikeRepository;
+import com.example.demo.repository.PostRepository;
+import com.example.demo.service.NotificationService;
+import com.example.demo.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LikeServiceImplTest {
+
+    @Mock
+    private PostRepository postRepository;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private LikeRepository likeRepository;
+    @Mock
+    private UserService userService;
+    @Mock
+    private NotificationService notificationService;
+    @Mock
+    private CounterDeltaBuffer counterDeltaBuffer;
+
+    @InjectMocks
+    private LikeServiceImpl likeService;
+
+    private final User user = new User().setId(1L);
+    private final User author = new User().setId(2L);
+
+    @BeforeEach
+    void setUp() {
+        when(userService.getCurrentUser()).thenReturn(user);
+    }
+
+    @Test
+    void secondTapUnlikesTheRowTheInsertFound() {
+        when(postRepository.findById(10L)).thenReturn(Optional.of(new Post().setId(10L).setPostCreator(author)));
+        when(likeRepository.insertPostLikeIfAbsent(1L, 10L)).thenReturn(false);
+        when(likeRepository.deletePostLike(1L, 10L)).thenReturn(1);
+
+        likeService.likePost(10L);
+
+        InOrder statements = inOrder(likeRepository);
+        statements.verify(likeRepository).lockUserLikes(1L);
+        statements.verify(likeRepository).insertPostLikeIfAbsent(1L, 10L);
+        statements.verify(likeRepository).deletePostLike(1L, 10L);
+        verify(counterDeltaBuffer).decrement(CounterDeltaBuffer.Counter.POST_LIKES, 10L);
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void likeCountsOnceAndNotifiesTheAuthor() {
+        when(postRepository.findById(10L)).thenReturn(Optional.of(new Post().setId(10L).setPostCreator(author)));
+        when(likeRepository.insertPostLikeIfAbsent(1L, 10L)).thenReturn(true);
+
+        likeService.likePost(10L);
+
+        verify(likeRepository, never()).deletePostLike(anyLong(), anyLong());
+        verify(counterDeltaBuffer).increment(CounterDeltaBuffer.Counter.POST_LIKES, 10L);
+        verify(notificationService).notifyUserOnNewLike(any(), any());
+    }
+
+    @Test
+    void likeRemovedConcurrentlyIsNotCountedAgain() {
+        when(postRepository.findById(10L)).thenReturn(Optional.of(new Post().setId(10L).setPostCreator(author)));
+        when(likeRepository.insertPostLikeIfAbsent(1L, 10L)).thenReturn(false);
+        when(likeRepository.deletePostLike(1L, 10L)).thenReturn(0);
+
+        likeService.likePost(10L);
+
+        verifyNoInteractions(counterDeltaBuffer, notificationService);
+    }
+
+    @Test
+    void likingOwnCommentDoesNotNotify() {
+        when(commentRepository.findById(20L)).thenReturn(Optional.of(new Comment().setId(20L).setUser(user)));
+        when(likeRepository.insertCommentLikeIfAbsent(1L, 20L)).thenReturn(true);
+
+        likeService.likeComment(20L);
+
+        verify(counterDeltaBuffer).increment(CounterDeltaBuffer.Counter.COMMENT_LIKES, 20L);
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void likingMissingCommentFails() {
+        when(commentRepository.findById(20L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> likeService.likeComment(20L)).isInstanceOf(ResourceNotFoundException.class);
+        verify(likeRepository, never()).insertCommentLikeIfAbsent(anyLong(), anyLong());
+    }
+
+    @Test
+    void concurrentTogglesOfOneUserRunUnderItsLockAndKeepTheCountInStep() throws Exception {
+        when(postRepository.findById(10L)).thenReturn(Optional.of(new Post().setId(10L).setPostCreator(author)));
+        LikeTable table = new LikeTable();
+        doAnswer(invocation -> table.lock()).when(likeRepository).lockUserLikes(1L);
+        doAnswer(invocation -> table.insert()).when(likeRepository).insertPostLikeIfAbsent(1L, 10L);
+        doAnswer(invocation -> table.delete()).when(likeRepository).deletePostLike(1L, 10L);
+        CounterDeltaBuffer buffer = new CounterDeltaBuffer(mock(JdbcTemplate.class), new SimpleMeterRegistry());
+        LikeServiceImpl service = new LikeServiceImpl(
+                postRepository, commentRepository, likeRepository, userService, notificationService, buffer);
+
+        int toggles = 200;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        List<Future<?>> taps = new ArrayList<>();
+        for (int i = 0; i < toggles; i++) {
+            taps.add(pool.submit(() -> {
+                start.await();
+                inTransaction(() -> service.likePost(10L));
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> tap : taps) {
+            tap.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // An even number of toggles ends unliked, and every insert or delete was counted exactly once
+        assertThat(table.unlockedStatements).hasValue(0);
+        assertThat(table.liked).isFalse();
+        assertThat(buffer.pending(CounterDeltaBuffer.Counter.POST_LIKES, 10L)).isZero();
+        verify(notificationService, times(toggles / 2)).notifyUserOnNewLike(any(), any());
+    }
+
+    private static void inTransaction(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * The user's post_likes row for one post, plus the user row lock held until the transaction completes.
+     */
+    private static final class LikeTable {
+        private final ReentrantLock userRow = new ReentrantLock();
+        private volatile boolean liked;
+        private final AtomicInteger unlockedStatements = new AtomicInteger();
+
+        Object lock() {
+            userRow.lock();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    userRow.unlock();
+                }
+            });
+            return null;
+        }
+
+        boolean insert() {
+            checkLocked();
+            if (liked) {
+                return false;
+            }
+            liked = true;
+            return true;
+        }
+
+        int delete() {
+            checkLocked();
+            if (!liked) {
+                return 0;
+            }
+            liked = false;
+            return 1;
+        }
+
+        private void checkLocked() {
+            if (!userRow.isHeldByCurrentThread()) {
+                unlockedStatements.incrementAndGet();
+            }
+        }
+    }
+}
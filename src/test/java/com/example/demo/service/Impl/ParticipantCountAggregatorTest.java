@@ -0,0 +1,74 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.dto.event.EventDTO;
+import com.example.demo.model.EventRegistrationStats;
+import com.example.demo.repository.EventRegistrationStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ParticipantCountAggregatorTest {
+
+    private EventRegistrationStatsRepository statsRepository;
+    private ParticipantCountAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        statsRepository = mock(EventRegistrationStatsRepository.class);
+        aggregator = new ParticipantCountAggregator(statsRepository);
+    }
+
+    @Test
+    void countsPendingAndApprovedForTheWholePageInOneLookup() {
+        when(statsRepository.findAllById(anyCollection())).thenReturn(List.of(
+                new EventRegistrationStats(1L).setPendingCount(2).setApprovedCount(5).setWaitingCount(4),
+                new EventRegistrationStats(2L).setRejectedCount(3).setCancelledCount(1)));
+
+        Map<Long, Integer> counts = aggregator.countParticipants(List.of(1L, 2L, 3L));
+
+        assertThat(counts).containsOnly(Map.entry(1L, 7), Map.entry(2L, 0), Map.entry(3L, 0));
+        verify(statsRepository, times(1)).findAllById(anyCollection());
+    }
+
+    @Test
+    void fillsParticipantsOfEveryDto() {
+        EventDTO first = new EventDTO();
+        first.setEventId(1L);
+        EventDTO second = new EventDTO();
+        second.setEventId(2L);
+        when(statsRepository.findAllById(anyCollection())).thenReturn(List.of(
+                new EventRegistrationStats(1L).setApprovedCount(10)));
+
+        aggregator.fillParticipants(List.of(first, second));
+
+        assertThat(first.getCurrentParticipants()).isEqualTo(10);
+        assertThat(second.getCurrentParticipants()).isZero();
+    }
+
+    @Test
+    void emptyPageSkipsTheQuery() {
+        assertThat(aggregator.getStats(List.of())).isEmpty();
+        verify(statsRepository, never()).findAllById(anyCollection());
+    }
+
+    @Test
+    void eventWithoutStatsRowHasZeroCounts() {
+        when(statsRepository.findById(9L)).thenReturn(Optional.empty());
+
+        EventRegistrationStats stats = aggregator.getStats(9L);
+
+        assertThat(stats.getEventId()).isEqualTo(9L);
+        assertThat(stats.getTotalCount()).isZero();
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.dto.common.IdCount;
+import com.example.demo.dto.event.EventCandidateRow;
+import com.example.demo.dto.event.EventTagRow;
+import com.example.demo.model.Event;
+import com.example.demo.model.EventRegistrationStats;
+import com.example.demo.model.User;
+import com.example.demo.repository.CommentRepository;
+import com.example.demo.repository.EventRegistrationStatsRepository;
+import com.example.demo.repository.EventRepository;
+import com.example.demo.repository.PostRepository;
+import com.example.demo.repository.TagRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Slf4j
+class RecommendationScoringEngineTest {
+
+    private EventRepository eventRepository;
+    private PostRepository postRepository;
+    private RecommendationScoringEngine engine;
+    private final User user = new User().setId(42L);
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(EventRepository.class);
+        postRepository = mock(PostRepository.class);
+        CommentRepository commentRepository = mock(CommentRepository.class);
+        ParticipantCountAggregator participantCountAggregator = mock(ParticipantCountAggregator.class);
+        TagBitsetIndex tagBitsetIndex = mock(TagBitsetIndex.class);
+        engine = new RecommendationScoringEngine(eventRepository, postRepository, commentRepository,
+                participantCountAggregator, tagBitsetIndex);
+        ReflectionTestUtils.setField(engine, "candidateLimit", 200);
+
+        LocalDateTime soon = LocalDateTime.now().plusDays(5);
+        LocalDateTime later = LocalDateTime.now().plusDays(60);
+        when(eventRepository.findCandidateRows(any())).thenReturn(List.of(
+                candidate(1L, soon, 50, 7L),
+                candidate(2L, soon, 50, 8L),
+                candidate(3L, later, 50, 8L),
+                candidate(4L, soon, 50, 8L)));
+        when(participantCountAggregator.getStats(anyCollection())).thenReturn(Map.of(
+                1L, new EventRegistrationStats(1L),
+                2L, new EventRegistrationStats(2L),
+                3L, new EventRegistrationStats(3L).setApprovedCount(50),
+                4L, new EventRegistrationStats(4L)));
+        when(postRepository.sumLikeCountByEventIds(anyCollection())).thenReturn(List.of(count(4L, 100)));
+        when(eventRepository.countEventsByCreatorIds(anyCollection())).thenReturn(List.of(count(7L, 2), count(8L, 4)));
+        when(eventRepository.countEventsByCreatorIdsAndStatus(anyCollection(), any())).thenReturn(List.of(count(7L, 2)));
+        when(tagBitsetIndex.eventBits(anyCollection())).thenReturn(Map.of(
+                1L, new long[]{0b11L},
+                2L, new long[0],
+                3L, new long[0],
+                4L, new long[0]));
+        when(tagBitsetIndex.userBits(42L)).thenReturn(new long[]{0b111L});
+    }
+
+    @Test
+    void ranksByTagAffinityPopularityAndDate() {
+        // 1 matches every tag, 4 is popular, 3 is full and far away
+        assertThat(engine.topK(user, 4)).containsExactly(1L, 4L, 2L, 3L);
+    }
+
+    @Test
+    void keepsOnlyTheBestK() {
+        assertThat(engine.topK(user, 2)).containsExactly(1L, 4L);
+        assertThat(engine.topK(user, 10)).hasSize(4);
+    }
+
+    @Test
+    void featuresAreComputedOnceUntilRefresh() {
+        engine.topK(user, 3);
+        engine.topK(user, 3);
+        verify(eventRepository, times(1)).findCandidateRows(any());
+
+        engine.refresh();
+        verify(eventRepository, times(2)).findCandidateRows(any());
+    }
+
+    @Test
+    void comparedWithFullSortOfPerEventScores() {
+        Fixture fixture = new Fixture(200);
+        RecommendationScoringEngine heapEngine = new RecommendationScoringEngine(fixture.eventRepository,
+                fixture.postRepository, fixture.commentRepository,
+                new ParticipantCountAggregator(fixture.statsRepository),
+                new TagBitsetIndex(fixture.tagRepository, fixture.eventRepository));
+        ReflectionTestUtils.setField(heapEngine, "candidateLimit", 200);
+
+        heapEngine.refresh();
+        long refreshCalls = fixture.repositoryCalls();
+        List<Long> heapTop = heapEngine.topK(user, 5);
+        long topKCalls = fixture.repositoryCalls() - refreshCalls;
+        List<Long> sortedTop = fixture.fullSortTop(user, 5);
+        long fullSortCalls = fixture.repositoryCalls() - refreshCalls - topKCalls;
+
+        long heapNanos = bestOf(() -> heapEngine.topK(user, 5));
+        long fullSortNanos = bestOf(() -> fixture.fullSortTop(user, 5));
+        log.info("200 candidates: refresh {} repository calls, topK {} calls / {} us; full sort {} calls / {} us",
+                refreshCalls, topKCalls, heapNanos / 1000, fullSortCalls, fullSortNanos / 1000);
+
+        assertThat(heapTop).isEqualTo(sortedTop);
+        assertThat(refreshCalls).isEqualTo(8);
+        assertThat(topKCalls).isEqualTo(1);
+        // The comparator scores both sides of every comparison, 8 queries per score
+        assertThat(fullSortCalls).isGreaterThan(200L * 8 * 2);
+        assertThat(heapNanos).isLessThan(fullSortNanos);
+    }
+
+    // Best of a few passes
+    private static long bestOf(Runnable ranking) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            ranking.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    /**
+     * Candidate events with distinct features behind mocked repositories that answer grouped and single id
+     * queries alike, plus the previous ranking: a full sort keyed on a score that queries per event.
+     */
+    private static final class Fixture {
+        private final EventRepository eventRepository = mock(EventRepository.class);
+        private final PostRepository postRepository = mock(PostRepository.class);
+        private final CommentRepository commentRepository = mock(CommentRepository.class);
+        private final TagRepository tagRepository = mock(TagRepository.class);
+        private final EventRegistrationStatsRepository statsRepository = mock(EventRegistrationStatsRepository.class);
+        private final List<EventCandidateRow> candidates;
+
+        Fixture(int size) {
+            LocalDateTime now = LocalDateTime.now();
+            candidates = LongStream.rangeClosed(1, size)
+                    .mapToObj(id -> candidate(id, now.plusDays(id % 40).plusHours(12), 10, 100 + id % 10))
+                    .toList();
+            when(eventRepository.findCandidateRows(any())).thenReturn(candidates);
+            when(statsRepository.findAllById(anyCollection())).thenAnswer(invocation ->
+                    ids(invocation.getArgument(0)).stream().map(Fixture::stats).toList());
+            when(statsRepository.findById(anyLong())).thenAnswer(invocation ->
+                    Optional.of(stats(invocation.getArgument(0))));
+            when(commentRepository.sumLikeCountByEventIds(anyCollection())).thenAnswer(invocation ->
+                    ids(invocation.getArgument(0)).stream().map(id -> count(id, id)).toList());
+            when(postRepository.sumLikeCountByEventIds(anyCollection())).thenReturn(List.of());
+            when(postRepository.sumCommentCountByEventIds(anyCollection())).thenReturn(List.of());
+            when(eventRepository.countEventsByCreatorIds(anyCollection())).thenAnswer(invocation ->
+                    ids(invocation.getArgument(0)).stream().map(id -> count(id, 5)).toList());
+            when(eventRepository.countEventsByCreatorIdsAndStatus(anyCollection(), any())).thenAnswer(invocation ->
+                    ids(invocation.getArgument(0)).stream().map(id -> count(id, id % 5)).toList());
+            when(eventRepository.findTagIdsByEventIds(anyCollection())).thenAnswer(invocation ->
+                    ids(invocation.getArgument(0)).stream()
+                            .flatMap(id -> Stream.of(tag(id, id % 8), tag(id, (id + 3) % 8)))
+                            .toList());
+            when(tagRepository.findTagIdsByUserId(42L)).thenReturn(List.of(1L, 2L, 5L));
+        }
+
+        List<Long> fullSortTop(User user, int k) {
+            return candidates.stream()
+                    .sorted(Comparator.comparingDouble((EventCandidateRow c) -> previousScore(user, c)).reversed())
+                    .limit(k)
+                    .map(EventCandidateRow::getId)
+                    .toList();
+        }
+
+        // The previous calculateEventScore, issuing its per-event queries through the same repositories
+        private double previousScore(User user, EventCandidateRow event) {
+            List<Long> eventId = List.of(event.getId());
+            Set<Long> creatorId = Set.of(event.getCreatorId());
+
+            double tagScore = TagBitsetIndex.overlap(bits(tagRepository.findTagIdsByUserId(user.getId())),
+                    bits(eventRepository.findTagIdsByEventIds(eventId).stream().map(EventTagRow::getTagId).toList()));
+            int approved = statsRepository.findById(event.getId()).orElseThrow().getApprovedCount();
+            double capacityScore = 1 - Math.min(1.0, (double) approved / event.getMaxParticipants());
+            long likes = sum(postRepository.sumLikeCountByEventIds(eventId))
+                    + sum(commentRepository.sumLikeCountByEventIds(eventId));
+            long comments = sum(postRepository.sumCommentCountByEventIds(eventId));
+            double popularityScore = Math.min((likes * 0.4 + comments * 0.3 + event.getMaxParticipants() * 0.3) / 100.0, 1.0);
+            long total = sum(eventRepository.countEventsByCreatorIds(creatorId));
+            double organizerScore = total == 0 ? 0.0
+                    : (double) sum(eventRepository.countEventsByCreatorIdsAndStatus(creatorId, Event.EventStatus.COMPLETED)) / total;
+            long daysDiff = ChronoUnit.DAYS.between(LocalDateTime.now(), event.getDate());
+            double timeScore = daysDiff <= 0 || daysDiff >= 30 ? 0.0 : 1 - daysDiff / 30.0;
+
+            return 0.4 * tagScore + 0.1 * capacityScore + 0.2 * popularityScore + 0.1 * organizerScore + 0.2 * timeScore;
+        }
+
+        long repositoryCalls() {
+            return Stream.of(eventRepository, postRepository, commentRepository, tagRepository, statsRepository)
+                    .mapToLong(repository -> mockingDetails(repository).getInvocations().size())
+                    .sum();
+        }
+
+        private static EventRegistrationStats stats(Long eventId) {
+            return new EventRegistrationStats(eventId).setApprovedCount((int) (eventId % 10));
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Collection<Long> ids(Object argument) {
+            return (Collection<Long>) argument;
+        }
+
+        private static long[] bits(List<Long> tagIds) {
+            long[] bits = new long[1];
+            tagIds.forEach(tagId -> bits[0] |= 1L << tagId);
+            return bits;
+        }
+
+        private static long sum(List<IdCount> rows) {
+            return rows.stream().mapToLong(IdCount::getCount).sum();
+        }
+
+        private static EventTagRow tag(Long eventId, Long tagId) {
+            return new EventTagRow() {
+                @Override
+                public Long getEventId() {
+                    return eventId;
+                }
+
+                @Override
+                public Long getTagId() {
+                    return tagId;
+                }
+            };
+        }
+    }
+
+    private static EventCandidateRow candidate(Long id, LocalDateTime date, int maxParticipants, Long creatorId) {
+        return new EventCandidateRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getDate() {
+                return date;
+            }
+
+            @Override
+            public Integer getMaxParticipants() {
+                return maxParticipants;
+            }
+
+            @Override
+            public Long getCreatorId() {
+                return creatorId;
+            }
+        };
+    }
+
+    private static IdCount count(Long id, long count) {
+        return new IdCount() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getCount() {
+                return count;
+            }
+        };
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.mapper.RegistrationMapper;
+import com.example.demo.model.Event;
+import com.example.demo.model.Registration;
+import com.example.demo.model.User;
+import com.example.demo.model.UserFcmToken;
+import com.example.demo.repository.EventRepository;
+import com.example.demo.repository.RegistrationRepository;
+import com.example.demo.repository.UserFcmTokenRepository;
+import com.example.demo.service.FirebaseService;
+import com.example.demo.service.UserService;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RegistrationServiceImplTest {
+
+    @Mock
+    private RegistrationRepository registrationRepository;
+    @Mock
+    private UserService userService;
+    @Mock
+    private RegistrationMapper registrationMapper;
+    @Mock
+    private EventRepository eventRepository;
+    @Mock
+    private RegistrationStatsRecorder registrationStatsRecorder;
+    @Mock
+    private ActivityRollupBuffer activityRollupBuffer;
+    @Mock
+    private DashboardCacheInvalidator dashboardCacheInvalidator;
+    @Mock
+    private FirebaseService firebaseService;
+    @Mock
+    private UserFcmTokenRepository userFcmTokenRepository;
+
+    @InjectMocks
+    private RegistrationServiceImpl registrationService;
+
+    private final User user = new User().setId(1L);
+    private final Event event = new Event().setId(10L).setStatus(Event.EventStatus.ONGOING).setMaxParticipants(2);
+
+    @Test
+    void reservedSlotMakesRegistrationPending() {
+        givenCurrentUserAndEvent();
+        when(eventRepository.tryReserveSlot(10L)).thenReturn(1);
+
+        registrationService.registerEvent(10L);
+
+        assertThat(savedRegistration().getStatus()).isEqualTo(Registration.RegistrationStatus.PENDING);
+        verify(registrationStatsRecorder).registered(10L, Registration.RegistrationStatus.PENDING, 1);
+    }
+
+    @Test
+    void fullEventPutsRegistrationOnWaitingList() {
+        givenCurrentUserAndEvent();
+        when(eventRepository.tryReserveSlot(10L)).thenReturn(0);
+
+        registrationService.registerEvent(10L);
+
+        assertThat(savedRegistration().getStatus()).isEqualTo(Registration.RegistrationStatus.WAITING);
+        verify(registrationStatsRecorder).registered(10L, Registration.RegistrationStatus.WAITING, 1);
+    }
+
+    @Test
+    void concurrentDuplicateRegistrationIsRejected() {
+        givenCurrentUserAndEvent();
+        when(eventRepository.tryReserveSlot(10L)).thenReturn(1);
+        when(registrationRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("uk_user_event"));
+
+        assertThatThrownBy(() -> registrationService.registerEvent(10L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("already registered");
+        verify(registrationStatsRecorder, never()).registered(any(), any(), anyInt());
+    }
+
+    @Test
+    void plannedEventIsNotOpen() {
+        event.setStatus(Event.EventStatus.PLANNED);
+        givenCurrentUserAndEvent();
+
+        assertThatThrownBy(() -> registrationService.registerEvent(10L)).isInstanceOf(IllegalStateException.class);
+        verify(eventRepository, never()).tryReserveSlot(any());
+    }
+
+    @Test
+    void approvingPendingKeepsItsSlot() throws FirebaseMessagingException {
+        Registration registration = givenRegistration(Registration.RegistrationStatus.PENDING);
+
+        registrationService.approvedRegistration(5L);
+
+        assertThat(registration.getStatus()).isEqualTo(Registration.RegistrationStatus.APPROVED);
+        verify(eventRepository, never()).tryReserveSlot(any());
+        verify(registrationStatsRecorder).transition(10L,
+                Registration.RegistrationStatus.PENDING, Registration.RegistrationStatus.APPROVED);
+    }
+
+    @Test
+    void approvingWaitingTakesASlot() throws FirebaseMessagingException {
+        Registration registration = givenRegistration(Registration.RegistrationStatus.WAITING);
+        when(eventRepository.tryReserveSlot(10L)).thenReturn(1);
+
+        registrationService.approvedRegistration(5L);
+
+        assertThat(registration.getStatus()).isEqualTo(Registration.RegistrationStatus.APPROVED);
+        verify(registrationStatsRecorder).transition(10L,
+                Registration.RegistrationStatus.WAITING, Registration.RegistrationStatus.APPROVED);
+    }
+
+    @Test
+    void approvingWaitingOnFullEventFails() throws FirebaseMessagingException {
+        Registration registration = givenRegistration(Registration.RegistrationStatus.WAITING);
+        when(eventRepository.tryReserveSlot(10L)).thenReturn(0);
+
+        assertThatThrownBy(() -> registrationService.approvedRegistration(5L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Event is full");
+        assertThat(registration.getStatus()).isEqualTo(Registration.RegistrationStatus.WAITING);
+        verify(firebaseService, never()).sendToToken(any(), any(), any());
+        verifyNoInteractions(registrationStatsRecorder);
+    }
+
+    @Test
+    void approvingTwiceFails() {
+        Registration registration = new Registration().setId(5L).setEvent(event).setUser(user)
+                .setStatus(Registration.RegistrationStatus.APPROVED);
+        when(registrationRepository.findRegistrationById(5L)).thenReturn(Optional.of(registration));
+
+        assertThatThrownBy(() -> registrationService.approvedRegistration(5L)).isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(eventRepository, registrationStatsRecorder);
+    }
+
+    private void givenCurrentUserAndEvent() {
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(eventRepository.findById(10L)).thenReturn(Optional.of(event));
+    }
+
+    private Registration givenRegistration(Registration.RegistrationStatus status) {
+        Registration registration = new Registration().setId(5L).setEvent(event).setUser(user).setStatus(status);
+        when(registrationRepository.findRegistrationById(5L)).thenReturn(Optional.of(registration));
+        when(userFcmTokenRepository.findByUser(user)).thenReturn(Optional.of(new UserFcmToken().setToken("token")));
+        return registration;
+    }
+
+    private Registration savedRegistration() {
+        ArgumentCaptor<Registration> saved = ArgumentCaptor.forClass(Registration.class);
+        verify(registrationRepository).saveAndFlush(saved.capture());
+        return saved.getValue();
+    }
+}
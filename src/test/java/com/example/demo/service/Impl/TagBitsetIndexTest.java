@@ -0,0 +1,83 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.dto.event.EventTagRow;
+import com.example.demo.repository.EventRepository;
+import com.example.demo.repository.TagRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TagBitsetIndexTest {
+
+    @Test
+    void overlapIsShareOfEventTagsTheUserFollows() {
+        long[] user = {0b0111L};
+        long[] event = {0b1101L};
+
+        assertThat(TagBitsetIndex.overlap(user, event)).isCloseTo(2.0 / 3, within(1e-9));
+    }
+
+    @Test
+    void overlapHandlesBitsetsOfDifferentLengths() {
+        long[] user = {0b1L};
+        long[] event = {0b1L, 0b1L};
+
+        assertThat(TagBitsetIndex.overlap(user, event)).isEqualTo(0.5);
+        assertThat(TagBitsetIndex.overlap(event, user)).isEqualTo(1.0);
+    }
+
+    @Test
+    void overlapOfEventWithoutTagsIsZero() {
+        assertThat(TagBitsetIndex.overlap(new long[]{-1L}, new long[0])).isZero();
+        assertThat(TagBitsetIndex.overlap(new long[0], new long[]{0b11L})).isZero();
+    }
+
+    @Test
+    void eventAndUserBitsShareTagOrdinals() {
+        TagRepository tagRepository = mock(TagRepository.class);
+        EventRepository eventRepository = mock(EventRepository.class);
+        TagBitsetIndex index = new TagBitsetIndex(tagRepository, eventRepository);
+
+        // More than 64 tags, so the sets span several words
+        List<EventTagRow> rows = LongStream.rangeClosed(1, 100).mapToObj(tagId -> row(1L, tagId)).toList();
+        when(eventRepository.findTagIdsByEventIds(anyCollection())).thenReturn(rows);
+        when(tagRepository.findTagIdsByUserId(5L)).thenReturn(List.of(3L, 70L, 100L, 500L));
+
+        Map<Long, long[]> events = index.eventBits(List.of(1L, 2L));
+        long[] user = index.userBits(5L);
+
+        assertThat(events.get(2L)).isEmpty();
+        assertThat(TagBitsetIndex.overlap(user, events.get(1L))).isCloseTo(3.0 / 100, within(1e-9));
+
+        // Cached until the periodic clear
+        index.eventBits(1L);
+        verify(eventRepository, times(1)).findTagIdsByEventIds(anyCollection());
+        index.clear();
+        index.eventBits(1L);
+        verify(eventRepository, times(2)).findTagIdsByEventIds(anyCollection());
+    }
+
+    private static EventTagRow row(Long eventId, Long tagId) {
+        return new EventTagRow() {
+            @Override
+            public Long getEventId() {
+                return eventId;
+            }
+
+            @Override
+            public Long getTagId() {
+                return tagId;
+            }
+        };
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.demo.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Writes tables and decodes them again following the layout documented on {@link ColumnarWriter}.
+ */
+class ColumnarWriterTest {
+
+    private static final byte PLAIN = 0;
+    private static final byte DICTIONARY = 1;
+
+    private static final List<ColumnarWriter.Column> COLUMNS = List.of(
+            new ColumnarWriter.Column("id", ColumnarWriter.Type.LONG),
+            new ColumnarWriter.Column("capacity", ColumnarWriter.Type.INT),
+            new ColumnarWriter.Column("approved", ColumnarWriter.Type.BOOLEAN),
+            new ColumnarWriter.Column("created_at", ColumnarWriter.Type.TIMESTAMP),
+            new ColumnarWriter.Column("status", ColumnarWriter.Type.STRING));
+
+    @Test
+    void roundTripsRowsAcrossRowGroups() throws IOException {
+        List<Object[]> rows = new ArrayList<>();
+        LocalDateTime base = LocalDateTime.of(2025, 3, 1, 8, 30);
+        for (int i = 0; i < 10; i++) {
+            rows.add(new Object[]{
+                    1000L + i * 3,
+                    i % 3 == 0 ? null : -i,
+                    i % 2 == 0,
+                    base.plusMinutes(i * 17L),
+                    i % 4 == 0 ? "PENDING" : "APPROVED"});
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ColumnarWriter writer = new ColumnarWriter(out, "registrations", COLUMNS, 4);
+        for (Object[] row : rows) {
+            writer.addRow(row);
+        }
+        assertThat(writer.getTotalRows()).isEqualTo(10);
+        writer.finish();
+
+        Table table = Table.read(out.toByteArray());
+        assertThat(table.name).isEqualTo("registrations");
+        assertThat(table.columns).isEqualTo(COLUMNS);
+        assertThat(table.rowGroupSizes).containsExactly(4, 4, 2);
+        assertThat(table.rows).hasSize(10);
+        for (int i = 0; i < rows.size(); i++) {
+            assertThat(table.rows.get(i)).as("row %d", i).containsExactly(rows.get(i));
+        }
+    }
+
+    @Test
+    void usesDictionaryOnlyWhenItHalvesTheValues() throws IOException {
+        List<ColumnarWriter.Column> columns = List.of(new ColumnarWriter.Column("name", ColumnarWriter.Type.STRING));
+
+        Table repeated = write(columns, "PENDING", "PENDING", "APPROVED", "PENDING");
+        Table distinct = write(columns, "a", "b", "c", "a");
+
+        assertThat(repeated.stringEncodings).containsExactly((int) DICTIONARY);
+        assertThat(distinct.stringEncodings).containsExactly((int) PLAIN);
+        assertThat(repeated.rows).extracting(row -> row[0]).containsExactly("PENDING", "PENDING", "APPROVED", "PENDING");
+        assertThat(distinct.rows).extracting(row -> row[0]).containsExactly("a", "b", "c", "a");
+    }
+
+    @Test
+    void writesEmptyTable() throws IOException {
+        Table table = write(COLUMNS);
+
+        assertThat(table.rowGroupSizes).isEmpty();
+        assertThat(table.rows).isEmpty();
+    }
+
+    @Test
+    void rejectsRowsOfTheWrongWidth() throws IOException {
+        ColumnarWriter writer = new ColumnarWriter(new ByteArrayOutputStream(), "t", COLUMNS, 10);
+
+        assertThatThrownBy(() -> writer.addRow(1L, 2)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Table write(List<ColumnarWriter.Column> columns, Object... singleColumnValues) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ColumnarWriter writer = new ColumnarWriter(out, "t", columns, 100);
+        for (Object value : singleColumnValues) {
+            writer.addRow(value);
+        }
+        writer.finish();
+        return Table.read(out.toByteArray());
+    }
+
+    /**
+     * Minimal reader of the format.
+     */
+    private static final class Table {
+        private String name;
+        private final List<ColumnarWriter.Column> columns = new ArrayList<>();
+        private final List<Integer> rowGroupSizes = new ArrayList<>();
+        private final List<Integer> stringEncodings = new ArrayList<>();
+        private final List<Object[]> rows = new ArrayList<>();
+
+        static Table read(byte[] bytes) throws IOException {
+            InputStream in = new ByteArrayInputStream(bytes);
+            Table table = new Table();
+            assertThat(in.readNBytes(4)).isEqualTo("VCOL".getBytes(StandardCharsets.US_ASCII));
+            assertThat(in.read()).isEqualTo(1);
+            table.name = readString(in);
+            int columnCount = (int) readVarint(in);
+            for (int i = 0; i < columnCount; i++) {
+                String columnName = readString(in);
+                int code = in.read();
+                table.columns.add(new ColumnarWriter.Column(columnName, Arrays.stream(ColumnarWriter.Type.values())
+                        .filter(type -> type.ordinal() + 1 == code).findFirst().orElseThrow()));
+            }
+
+            int rowCount;
+            while ((rowCount = (int) readVarint(in)) > 0) {
+                table.rowGroupSizes.add(rowCount);
+                Object[][] group = new Object[rowCount][columnCount];
+                for (int column = 0; column < columnCount; column++) {
+                    byte[] chunk = in.readNBytes((int) readVarint(in));
+                    Object[] values = table.readChunk(new ByteArrayInputStream(chunk),
+                            table.columns.get(column).type(), rowCount);
+                    for (int row = 0; row < rowCount; row++) {
+                        group[row][column] = values[row];
+                    }
+                }
+                table.rows.addAll(Arrays.asList(group));
+            }
+            assertThat(readVarint(in)).isEqualTo(table.rows.size());
+            assertThat(in.read()).isEqualTo(-1);
+            return table;
+        }
+
+        private Object[] readChunk(InputStream in, ColumnarWriter.Type type, int rowCount) throws IOException {
+            boolean[] present = new boolean[rowCount];
+            Arrays.fill(present, true);
+            if (in.read() == 1) {
+                byte[] bitmap = in.readNBytes((rowCount + 7) / 8);
+                for (int row = 0; row < rowCount; row++) {
+                    present[row] = (bitmap[row >> 3] & (1 << (row & 7))) != 0;
+                }
+            }
+            int presentCount = 0;
+            for (boolean p : present) {
+                presentCount += p ? 1 : 0;
+            }
+
+            Object[] values = new Object[presentCount];
+            switch (type) {
+                case LONG, TIMESTAMP -> {
+                    long previous = 0;
+                    for (int i = 0; i < presentCount; i++) {
+                        previous += unzigzag(readVarint(in));
+                        values[i] = type == ColumnarWriter.Type.LONG ? previous
+                                : LocalDateTime.ofEpochSecond(Math.floorDiv(previous, 1000),
+                                (int) Math.floorMod(previous, 1000) * 1_000_000, ZoneOffset.UTC);
+                    }
+                }
+                case INT -> {
+                    for (int i = 0; i < presentCount; i++) {
+                        values[i] = (int) unzigzag(readVarint(in));
+                    }
+                }
+                case BOOLEAN -> {
+                    byte[] bits = in.readNBytes((presentCount + 7) / 8);
+                    for (int i = 0; i < presentCount; i++) {
+                        values[i] = (bits[i >> 3] & (1 << (i & 7))) != 0;
+                    }
+                }
+                case STRING -> {
+                    int encoding = in.read();
+                    stringEncodings.add(encoding);
+                    if (encoding == DICTIONARY) {
+                        String[] entries = new String[(int) readVarint(in)];
+                        for (int i = 0; i < entries.length; i++) {
+                            entries[i] = readString(in);
+                        }
+                        for (int i = 0; i < presentCount; i++) {
+                            values[i] = entries[(int) readVarint(in)];
+                        }
+                    } else {
+                        for (int i = 0; i < presentCount; i++) {
+                            values[i] = readString(in);
+                        }
+                    }
+                }
+            }
+            assertThat(in.read()).as("chunk fully consumed").isEqualTo(-1);
+
+            Object[] column = new Object[rowCount];
+            for (int row = 0, next = 0; row < rowCount; row++) {
+                column[row] = present[row] ? values[next++] : null;
+            }
+            return column;
+        }
+
+        private static String readString(InputStream in) throws IOException {
+            return new String(in.readNBytes((int) readVarint(in)), StandardCharsets.UTF_8);
+        }
+
+        private static long readVarint(InputStream in) throws IOException {
+            long value = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = in.read();
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        private static long unzigzag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}